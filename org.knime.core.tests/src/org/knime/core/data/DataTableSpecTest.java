@@ -45,7 +45,10 @@
  */
 package org.knime.core.data;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -127,4 +130,50 @@ public void testIsCompatibleWith() {
         assertFalse(doubleSpec.isCompatibleWith(longSpec));
     }
 
+    /**
+     * Tests that derived specs share the (immutable) column specs and that name lookups work for specs whose
+     * name to index map is built lazily.
+     */
+    @Test
+    public void testColumnSpecSharingAndLookup() {
+        final DataColumnSpec[] cols = createColumnSpecs(1000, "Col_");
+        final DataTableSpec spec = new DataTableSpec(cols);
+        for (int i = 0; i < cols.length; i++) {
+            assertSame(cols[i], spec.getColumnSpec(i));
+        }
+
+        final DataTableSpec derived = new DataTableSpecCreator(spec).setName("derived").createSpec();
+        for (int i = 0; i < cols.length; i++) {
+            assertSame(cols[i], derived.getColumnSpec(i));
+            assertEquals(i, derived.findColumnIndex("Col_" + i));
+        }
+        assertEquals(-1, derived.findColumnIndex("Col_1000"));
+        assertEquals(-1, derived.findColumnIndex(null));
+        assertTrue(derived.equalStructure(spec));
+        assertEquals(spec.hashCode(), derived.hashCode());
+
+        final DataTableSpec merged = DataTableSpec.mergeDataTableSpecs(spec, derived);
+        assertSame(cols[17], merged.getColumnSpec(17));
+        assertEquals(spec, merged);
+
+        final DataColumnSpec[] duplicates = Arrays.copyOf(cols, cols.length + 1);
+        duplicates[cols.length] = cols[3];
+        assertThrows(IllegalArgumentException.class, () -> new DataTableSpec(duplicates));
+    }
+
+    /**
+     * Tests that the cached hash code does not change the result of {@link DataTableSpec#equals(Object)}.
+     */
+    @Test
+    public void testEqualsWithCachedHashCode() {
+        final DataTableSpec spec1 = new DataTableSpec(createColumnSpecs(5, "Col_"));
+        final DataTableSpec spec2 = new DataTableSpec(createColumnSpecs(5, "Col_"));
+        final DataTableSpec other = new DataTableSpec(createColumnSpecs(5, "Other_"));
+        assertEquals(spec1.hashCode(), spec1.hashCode());
+        assertEquals(spec1.hashCode(), spec2.hashCode());
+        assertEquals(spec1, spec2);
+        other.hashCode();
+        assertFalse(spec1.equals(other));
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.collection.ListCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the cached type lattice lookups of {@link DataType}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class DataTypeTest {
+
+    @Test
+    void testCommonSuperTypeIsCached() {
+        final List<DataType> types = List.of(IntCell.TYPE, LongCell.TYPE, DoubleCell.TYPE, StringCell.TYPE,
+            ListCell.getCollectionType(IntCell.TYPE), ListCell.getCollectionType(StringCell.TYPE));
+        for (DataType type1 : types) {
+            for (DataType type2 : types) {
+                final DataType superType = DataType.getCommonSuperType(type1, type2);
+                assertThat(superType.isASuperTypeOf(type1)).isTrue();
+                assertThat(superType.isASuperTypeOf(type2)).isTrue();
+                assertThat(DataType.getCommonSuperType(type1, type2)).isSameAs(superType);
+                assertThat(DataType.getCommonSuperType(type2, type1)).isEqualTo(superType);
+            }
+        }
+        final DataType listSuperType = DataType.getCommonSuperType(ListCell.getCollectionType(IntCell.TYPE),
+            ListCell.getCollectionType(StringCell.TYPE));
+        assertThat(listSuperType.isCollectionType()).isTrue();
+        assertThat(listSuperType.getCollectionElementType())
+            .isEqualTo(DataType.getCommonSuperType(IntCell.TYPE, StringCell.TYPE));
+    }
+
+    @Test
+    void testIsCompatibleIsCached() {
+        for (int i = 0; i < 2; i++) {
+            assertThat(IntCell.TYPE.isCompatible(IntValue.class)).isTrue();
+            assertThat(IntCell.TYPE.isCompatible(DoubleValue.class)).isTrue();
+            assertThat(IntCell.TYPE.isCompatible(StringValue.class)).isFalse();
+            assertThat(DataType.getMissingCell().getType().isCompatible(StringValue.class)).isTrue();
+        }
+    }
+
+    @Test
+    void testConcurrentLookups() {
+        final DataType superType = DataType.getCommonSuperType(IntCell.TYPE, StringCell.TYPE);
+        final long numMismatches = IntStream.range(0, 10_000).parallel() //
+            .filter(i -> DataType.getType(StringCell.class) != StringCell.TYPE
+                || DataType.getCommonSuperType(IntCell.TYPE, StringCell.TYPE) != superType
+                || !LongCell.TYPE.isCompatible(LongValue.class)
+                || ListCell.getCollectionType(LongCell.TYPE) != ListCell.getCollectionType(LongCell.TYPE)) //
+            .count();
+        assertThat(numMismatches).isZero();
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+
+/**
+ * Tests the bulk factory and accessor methods of {@link CollectionCellFactory}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class CollectionCellFactoryTest {
+
+    @Test
+    void testIntListRoundTrip() {
+        final int[] values = IntStream.range(0, 1000).toArray();
+        final ListCell list = CollectionCellFactory.createListCell(values);
+        final List<DataCell> cells = IntStream.of(values).mapToObj(IntCell::new).collect(Collectors.toList());
+        assertThat(list).isEqualTo(CollectionCellFactory.createListCell(cells));
+        assertThat(list.getElementType()).isEqualTo(IntCell.TYPE);
+        assertThat(CollectionCellFactory.getIntValues(list)).containsExactly(values);
+        assertThat(CollectionCellFactory.getLongValues(list)).containsExactly(IntStream.of(values).asLongStream()
+            .toArray());
+    }
+
+    @Test
+    void testLongAndDoubleLists() {
+        final long[] longs = {Long.MIN_VALUE, 0L, Long.MAX_VALUE};
+        final ListCell longList = CollectionCellFactory.createListCell(longs);
+        assertThat(longList.getElementType()).isEqualTo(LongCell.TYPE);
+        assertThat(CollectionCellFactory.getLongValues(longList)).containsExactly(longs);
+
+        final double[] doubles = {-1.5, 0.0, Double.NaN};
+        final ListCell doubleList = CollectionCellFactory.createListCell(doubles);
+        assertThat(doubleList.getElementType()).isEqualTo(DoubleCell.TYPE);
+        assertThat(CollectionCellFactory.getDoubleValues(doubleList)).containsExactly(doubles);
+        assertThat(CollectionCellFactory.getDoubleValues(DoubleVectorCellFactory.createCell(doubles)))
+            .containsExactly(doubles);
+    }
+
+    @Test
+    void testEmptyList() {
+        final ListCell list = CollectionCellFactory.createListCell(new int[0]);
+        assertThat(list).isEqualTo(CollectionCellFactory.createListCell(List.of()));
+        assertThat(list.getElementType()).isEqualTo(DataType.getMissingCell().getType());
+        assertThat(CollectionCellFactory.getIntValues(list)).isEmpty();
+    }
+
+    @Test
+    void testMissingValue() {
+        final ListCell list = CollectionCellFactory.createListCell(List.of(new IntCell(1), DataType.getMissingCell()));
+        assertThatThrownBy(() -> CollectionCellFactory.getIntValues(list))
+            .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("index 1");
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataTypeRegistry;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests that collections written in the {@link PrimitiveElementEncoding} (and those that fall back to the plain
+ * encoding) are read back unchanged.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class PrimitiveElementEncodingTest {
+
+    private static final DataType GENERIC = DataType.getType(DataCell.class);
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("ints", ListCell.getCollectionType(IntCell.TYPE)).createSpec(),
+        new DataColumnSpecCreator("longs", ListCell.getCollectionType(LongCell.TYPE)).createSpec(),
+        new DataColumnSpecCreator("doubles", ListCell.getCollectionType(GENERIC)).createSpec(),
+        new DataColumnSpecCreator("strings", SetCell.getCollectionType(StringCell.TYPE)).createSpec(),
+        new DataColumnSpecCreator("mixed", ListCell.getCollectionType(GENERIC)).createSpec(),
+        new DataColumnSpecCreator("sparse", SparseListCell.getCollectionType(LongCell.TYPE)).createSpec());
+
+    private static DataRow createRow(final int i) {
+        final int[] ints = IntStream.range(0, i % 50).map(j -> j * i - 1000).toArray();
+        final long[] longs = {Long.MIN_VALUE, i, Long.MAX_VALUE, -i, 0L};
+        final double[] doubles = IntStream.range(0, i % 10).mapToDouble(j -> j / 3.0).toArray();
+        final List<DataCell> strings =
+            IntStream.range(0, i % 7).mapToObj(j -> new StringCell("s" + j)).collect(Collectors.toList());
+        final DataCell mixed = CollectionCellFactory.createListCell(
+            List.of(new IntCell(i), new LongCell(i), DataType.getMissingCell(), new IntCell(-i)));
+        final DataCell sparse = CollectionCellFactory.createSparseListCell(
+            List.of(new LongCell(0), new LongCell(i), new LongCell(0), new LongCell(i + 1L)), new LongCell(0));
+        return new DefaultRow(RowKey.createRowKey((long)i), CollectionCellFactory.createListCell(ints),
+            CollectionCellFactory.createListCell(longs), CollectionCellFactory.createListCell(doubles),
+            CollectionCellFactory.createSetCell(strings), mixed, sparse);
+    }
+
+    @Test
+    void testRoundtrip() throws Exception {
+        final DataContainer container = new DataContainer(SPEC);
+        for (int i = 0; i < 200; i++) {
+            container.addRowToTable(createRow(i));
+        }
+        container.close();
+        final byte[] bytes;
+        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            DataContainer.writeToStream(container.getTable(), output, new ExecutionMonitor());
+            bytes = output.toByteArray();
+        }
+        final ContainerTable table;
+        try (ByteArrayInputStream input = new ByteArrayInputStream(bytes)) {
+            table = DataContainer.readFromStream(input);
+        }
+        try (CloseableRowIterator it = table.iterator()) {
+            for (int i = 0; i < 200; i++) {
+                final DataRow row = it.next();
+                final DataRow expected = createRow(i);
+                for (int c = 0; c < SPEC.getNumColumns(); c++) {
+                    assertThat(row.getCell(c)).as("row %d, column %d", i, c).isEqualTo(expected.getCell(c));
+                    assertThat(((CollectionDataValue)row.getCell(c)).getElementType())
+                        .isEqualTo(((CollectionDataValue)expected.getCell(c)).getElementType());
+                }
+            }
+            assertThat(it.hasNext()).isFalse();
+        }
+    }
+
+    /** Outputs other than the default table format (e.g. port objects) must get the plain encoding. */
+    @Test
+    void testPlainEncodingOutsideOfTables() throws Exception {
+        final DataCell list = CollectionCellFactory.createListCell(new int[]{1, 2, 3});
+        final DataCellSerializer<DataCell> serializer =
+            DataTypeRegistry.getInstance().getSerializer(list.getClass()).orElseThrow();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final List<DataCell> elements = new ArrayList<>();
+        try (PlainDataCellDataOutput output = new PlainDataCellDataOutput(bytes, elements)) {
+            serializer.serialize(list, output);
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(input.readInt()).as("size of plainly encoded list").isEqualTo(3);
+        }
+        assertThat(elements).containsExactly(new IntCell(1), new IntCell(2), new IntCell(3));
+    }
+
+    /** Output that is not part of a table, recording the written cells. */
+    private static final class PlainDataCellDataOutput extends DataOutputStream implements DataCellDataOutput {
+
+        private final List<DataCell> m_cells;
+
+        PlainDataCellDataOutput(final OutputStream out, final List<DataCell> cells) {
+            super(out);
+            m_cells = cells;
+        }
+
+        @Override
+        public void writeDataCell(final DataCell cell) {
+            m_cells.add(cell);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.xml.XMLCell;
+import org.knime.core.data.xml.XMLCellFactory;
+
+/**
+ * Tests {@link BlobPrefetchingRowIterator}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BlobPrefetchingRowIteratorTest {
+
+    private static DataCell createBlobCell(final int i) throws Exception {
+        final char[] chars = new char[XMLCellFactory.DEF_MIN_BLOB_SIZE_IN_BYTES];
+        Arrays.fill(chars, 'a');
+        final DataCell cell = XMLCellFactory.create("<foo id=\"" + i + "\">" + new String(chars) + "</foo>");
+        assertThat(cell).isInstanceOf(BlobDataCell.class);
+        return cell;
+    }
+
+    private static List<DataRow> createRows(final int count) throws Exception {
+        final List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final DataCell blob = new BlobWrapperDataCell((BlobDataCell)createBlobCell(i));
+            rows.add(i % 3 == 0 ? new DefaultRow(RowKey.createRowKey((long)i), new StringCell("s" + i), blob)
+                : new BlobSupportDataRow(RowKey.createRowKey((long)i), new DataCell[]{new StringCell("s" + i), blob}));
+        }
+        return rows;
+    }
+
+    /** Only columns of blob types are prefetched. */
+    @Test
+    void testGetBlobColumns() {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator("s", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("xml", XMLCell.TYPE).createSpec());
+        assertThat(BlobPrefetchingRowIterator.getBlobColumns(spec)).containsExactly(1);
+    }
+
+    /** Rows are returned in order and with their cells, independent of the size of the prefetch window. */
+    @Test
+    void testIterationOrder() throws Exception {
+        final List<DataRow> rows = createRows(20);
+        for (int prefetchRows : new int[]{1, 3, 20, 50}) {
+            final List<DataRow> result = new ArrayList<>();
+            try (final var it = new BlobPrefetchingRowIterator(CloseableRowIterator.from(rows.iterator()),
+                new int[]{1}, prefetchRows)) {
+                while (it.hasNext()) {
+                    result.add(it.next());
+                }
+                assertThatThrownBy(it::next).isInstanceOf(NoSuchElementException.class);
+            }
+            assertThat(result).containsExactlyElementsOf(rows);
+            for (int i = 0; i < result.size(); i++) {
+                assertThat(result.get(i).getCell(1)).isEqualTo(createBlobCell(i));
+            }
+        }
+    }
+
+    /** Closing the iterator closes the underlying iterator and ends the iteration. */
+    @Test
+    void testClose() throws Exception {
+        final AtomicBoolean isClosed = new AtomicBoolean();
+        final var it = new BlobPrefetchingRowIterator(
+            CloseableRowIterator.from(createRows(10).iterator(), () -> isClosed.set(true)), new int[]{1}, 4);
+        assertThat(it.next().getKey()).isEqualTo(RowKey.createRowKey(0L));
+        it.close();
+        assertThat(isClosed).isTrue();
+        assertThat(it.hasNext()).isFalse();
+    }
+
+}
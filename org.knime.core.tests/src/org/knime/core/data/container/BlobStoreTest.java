@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Tests {@link BlobStore}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BlobStoreTest {
+
+    @TempDir
+    Path m_tempDir;
+
+    private File writeBlob(final String name, final String content) throws IOException {
+        final Path file = m_tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+
+    private static byte[] hash(final String content) {
+        return BlobStore.newDigest().digest(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Files with identical content are linked to the same data, the store's link is removed with the last one. */
+    @Test
+    void testDeduplicateAndRelease() throws IOException {
+        final File tempDir = m_tempDir.toFile();
+        final File blob1 = writeBlob("1.bin", "some blob");
+        final File blob2 = writeBlob("2.bin", "some blob");
+        final File other = writeBlob("3.bin", "other blob");
+
+        final String key1 = BlobStore.add(tempDir, blob1, hash("some blob"));
+        final String key2 = BlobStore.add(tempDir, blob2, hash("some blob"));
+        final String key3 = BlobStore.add(tempDir, other, hash("other blob"));
+        assertThat(key1).isNotNull().isEqualTo(key2).isNotEqualTo(key3);
+        assertThat(Files.isSameFile(blob1.toPath(), blob2.toPath())).isTrue();
+        assertThat(Files.isSameFile(blob1.toPath(), other.toPath())).isFalse();
+        assertThat(Files.readString(blob2.toPath())).isEqualTo("some blob");
+
+        final Path canonical = m_tempDir.resolve("knime_blobstore").resolve(key1);
+        BlobStore.release(tempDir, key1);
+        assertThat(canonical).exists();
+        BlobStore.release(tempDir, key2);
+        assertThat(canonical).doesNotExist();
+        assertThat(Files.readString(blob1.toPath())).isEqualTo("some blob");
+        assertThat(BlobStore.hasStore(tempDir)).isTrue();
+        BlobStore.release(tempDir, key3);
+        assertThat(BlobStore.hasStore(tempDir)).as("store removed with its last blob").isFalse();
+        assertThat(m_tempDir.resolve("knime_blobstore")).doesNotExist();
+    }
+
+    /** If the store's link got lost, the next file becomes the canonical copy without resetting the references. */
+    @Test
+    void testLostCanonicalKeepsReferences() throws IOException {
+        final File tempDir = m_tempDir.toFile();
+        final File blob1 = writeBlob("1.bin", "some blob");
+        final File blob2 = writeBlob("2.bin", "some blob");
+        final String key = BlobStore.add(tempDir, blob1, hash("some blob"));
+        final Path canonical = m_tempDir.resolve("knime_blobstore").resolve(key);
+        Files.delete(canonical);
+
+        assertThat(BlobStore.add(tempDir, blob2, hash("some blob"))).isEqualTo(key);
+        assertThat(Files.isSameFile(canonical, blob2.toPath())).isTrue();
+        BlobStore.release(tempDir, key);
+        assertThat(canonical).as("still referenced by the second file").exists();
+        BlobStore.release(tempDir, key);
+        assertThat(canonical).doesNotExist();
+        assertThat(BlobStore.hasStore(tempDir)).isFalse();
+    }
+
+    /** The store is removed when its directory was deleted, e.g. together with the temp directory. */
+    @Test
+    void testRemoveStoreOfDeletedDirectory() throws IOException {
+        final File tempDir = m_tempDir.toFile();
+        final String key1 = BlobStore.add(tempDir, writeBlob("1.bin", "some blob"), hash("some blob"));
+        final String key2 = BlobStore.add(tempDir, writeBlob("2.bin", "other blob"), hash("other blob"));
+        FileUtil.deleteRecursively(m_tempDir.resolve("knime_blobstore").toFile());
+
+        BlobStore.release(tempDir, key1);
+        assertThat(BlobStore.hasStore(tempDir)).isFalse();
+        BlobStore.release(tempDir, key2); // no-op
+        assertThat(BlobStore.hasStore(tempDir)).isFalse();
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.v2.RowCursor;
+import org.knime.core.data.v2.RowRead;
+
+/**
+ * Tests {@link BufferFromFileRowCursor}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class BufferFromFileRowCursorTest {
+
+    private static final int NUM_ROWS = 100;
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("string", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("long", LongCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("double", DoubleCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("boolean", BooleanCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("mixed", DataType.getType(DataCell.class)).createSpec());
+
+    private static DataRow createRow(final int i) {
+        final DataCell string = i % 5 == 0 ? DataType.getMissingCell() : new StringCell("s" + i);
+        final DataCell mixed = i % 2 == 0 ? new IntCell(i) : new StringCell("m" + i);
+        return new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i), string, new LongCell(i * 1000L),
+            new DoubleCell(i + .5), BooleanCell.get(i % 3 == 0), mixed);
+    }
+
+    /** Writes a table that is flushed to disc right away. */
+    private static BufferedContainerTable createTable() {
+        final DataContainer container = new DataContainer(SPEC, true, 0);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            container.addRowToTable(createRow(i));
+        }
+        container.close();
+        return (BufferedContainerTable)container.getBufferedTable();
+    }
+
+    @Test
+    void testCursorMatchesIterator() {
+        final BufferedContainerTable table = createTable();
+        try (RowCursor cursor = table.cursor(); CloseableRowIterator it = table.iterator()) {
+            assertThat(cursor).isInstanceOf(BufferFromFileRowCursor.class);
+            assertThat(cursor.getNumColumns()).isEqualTo(SPEC.getNumColumns());
+            int numRows = 0;
+            while (cursor.canForward()) {
+                final RowRead row = cursor.forward();
+                final DataRow expected = it.next();
+                assertThat(row.getRowKey().getString()).isEqualTo(expected.getKey().getString());
+                for (int i = 0; i < SPEC.getNumColumns(); i++) {
+                    final DataCell expectedCell = expected.getCell(i);
+                    assertThat(row.isMissing(i)).isEqualTo(expectedCell.isMissing());
+                    if (!expectedCell.isMissing()) {
+                        final DataCell cell = row.getValue(i).materializeDataCell();
+                        assertThat(cell).isEqualTo(expectedCell);
+                    }
+                }
+                numRows++;
+            }
+            assertThat(numRows).isEqualTo(NUM_ROWS);
+            assertThat(it.hasNext()).isFalse();
+            assertThat(cursor.forward()).isNull();
+        }
+    }
+
+    @Test
+    void testCursorWithFilter() {
+        final BufferedContainerTable table = createTable();
+        final TableFilter filter = new TableFilter.Builder().withMaterializeColumnIndices(0, 1, 3)
+            .withFromRowIndex(10).withToRowIndex(19).build();
+        try (RowCursor cursor = table.cursor(filter)) {
+            for (int i = 10; i < 20; i++) {
+                assertThat(cursor.canForward()).isTrue();
+                final RowRead row = cursor.forward();
+                assertThat(row.getRowKey().getString()).isEqualTo(RowKey.createRowKey((long)i).getString());
+                assertThat(row.<IntValue> getValue(0).getIntValue()).isEqualTo(i);
+                if (i % 5 == 0) {
+                    assertThat(row.isMissing(1)).isTrue();
+                } else {
+                    assertThat(row.<StringValue> getValue(1).getStringValue()).isEqualTo("s" + i);
+                }
+                assertThat(row.<DoubleValue> getValue(3).getDoubleValue()).isEqualTo(i + .5);
+            }
+            assertThat(cursor.canForward()).isFalse();
+        }
+    }
+
+    @Test
+    void testCursorIsClosedWithBuffer() {
+        final BufferedContainerTable table = createTable();
+        final RowCursor cursor = table.cursor();
+        cursor.forward();
+        table.getBuffer().clear();
+        assertThat(cursor.canForward()).isFalse();
+        assertThat(cursor.forward()).isNull();
+        cursor.close();
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests {@link ColumnRearrangerUtils#fuse(List)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class ColumnRearrangerFuseTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("a", IntCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("b", StringCell.TYPE).createSpec());
+
+    /** Appends a column that adds <code>delta</code> to the int column <code>source</code>. */
+    private static CellFactory plus(final DataTableSpec spec, final String source, final String name,
+        final int delta) {
+        final int index = spec.findColumnIndex(source);
+        return new SingleCellFactory(true, new DataColumnSpecCreator(name, IntCell.TYPE).createSpec()) {
+            @Override
+            public DataCell getCell(final DataRow row) {
+                return new IntCell(((IntCell)row.getCell(index)).getIntValue() + delta);
+            }
+        };
+    }
+
+    private static List<ColumnRearranger> createChain() {
+        final var first = new ColumnRearranger(SPEC);
+        first.append(plus(SPEC, "a", "c", 1));
+        final DataTableSpec firstSpec = first.createSpec();
+
+        final var second = new ColumnRearranger(firstSpec);
+        second.append(plus(firstSpec, "c", "d", 10));
+        second.remove("a");
+        final DataTableSpec secondSpec = second.createSpec();
+
+        final var third = new ColumnRearranger(secondSpec);
+        third.remove("c"); // intermediate column, never materialized in the fused version
+        third.move("d", 0);
+        return List.of(first, second, third);
+    }
+
+    /** The fused rearranger produces the same spec and rows as applying the chain one after another. */
+    @Test
+    void testFusedEqualsSequential() throws Exception {
+        final List<ColumnRearranger> chain = createChain();
+        final ColumnRearranger fused = ColumnRearrangerUtils.fuse(chain);
+        assertThat(fused.createSpec()).isEqualTo(chain.get(2).createSpec());
+
+        for (var i = 0; i < 5; i++) {
+            final DataRow input = new DefaultRow("Row" + i, new IntCell(i), new StringCell("s" + i));
+            DataRow sequential = input;
+            for (ColumnRearranger stage : chain) {
+                sequential = stage.createStreamableFunction().compute(sequential, i);
+            }
+            final DataRow fusedRow = fused.createStreamableFunction().compute(input, i);
+            assertThat(fusedRow.getKey()).isEqualTo(sequential.getKey());
+            assertThat(fusedRow.stream()).containsExactlyElementsOf(sequential.stream().toList());
+        }
+    }
+
+    /** Only the new columns are computed by the fused factory; unchanged input columns are passed through. */
+    @Test
+    void testPassThroughColumnsTakenFromInput() {
+        final ColumnRearranger fused = ColumnRearrangerUtils.fuse(createChain());
+        assertThat(fused.createSpec().getColumnNames()).containsExactly("d", "b");
+        final List<ColumnRearrangerUtils.RearrangedColumn> columns =
+            ColumnRearrangerUtils.extractRearrangedColumns(fused);
+        assertThat(columns.get(0).isNewColumn()).isTrue();
+        assertThat(columns.get(0).getCellFactory()).isInstanceOf(FusedCellFactory.class);
+        assertThat(columns.get(1).isNewColumn()).isFalse();
+        assertThat(columns.get(1).getOriginalIndex()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.v2.RowCursor;
+import org.knime.core.data.v2.RowRead;
+
+/**
+ * Tests {@link RowKeyEncoding}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class RowKeyEncodingTest {
+
+    private static final int NUM_ROWS = 1000;
+
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("int", IntCell.TYPE).createSpec());
+
+    /** Consecutive, gapped, descending and string keys, including strings equal to generated keys. */
+    private static RowKey createKey(final int i) {
+        if (i < 300) {
+            return RowKey.createRowKey((long)i);
+        } else if (i < 500) {
+            return RowKey.createRowKey(1000L + 7 * i);
+        } else if (i < 600) {
+            return RowKey.createRowKey(-(long)i);
+        } else if (i < 700) {
+            return new RowKey("Row" + (Long.MAX_VALUE - i));
+        } else if (i == 700) {
+            return RowKey.createRowKey(Long.MIN_VALUE);
+        }
+        return new RowKey("Key_" + i);
+    }
+
+    private static BufferedContainerTable createTable() {
+        final DataContainer container = new DataContainer(SPEC, true, 0);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            container.addRowToTable(new DefaultRow(createKey(i), new IntCell(i)));
+        }
+        container.close();
+        return (BufferedContainerTable)container.getBufferedTable();
+    }
+
+    @Test
+    void testRoundtrip() {
+        final BufferedContainerTable table = createTable();
+        assertThat(table.getBuffer().getReadVersion()).isGreaterThanOrEqualTo(RowKeyEncoding.FIRST_VERSION);
+        try (CloseableRowIterator it = table.iterator()) {
+            for (int i = 0; i < NUM_ROWS; i++) {
+                final DataRow row = it.next();
+                final RowKey expected = createKey(i);
+                assertThat(row.getKey()).isEqualTo(expected);
+                assertThat(row.getKey().getString()).isEqualTo(expected.getString());
+                assertThat(row.getKey().isGeneratedKey()).isEqualTo(expected.isGeneratedKey());
+            }
+            assertThat(it.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testCursorSkipsKeys() {
+        final BufferedContainerTable table = createTable();
+        for (long from : new long[]{1, 299, 300, 450, 650, 701}) {
+            final TableFilter filter = new TableFilter.Builder().withFromRowIndex(from).build();
+            try (RowCursor cursor = table.cursor(filter)) {
+                for (long i = from; i < NUM_ROWS; i++) {
+                    assertThat(cursor.canForward()).isTrue();
+                    final RowRead row = cursor.forward();
+                    assertThat(row.getRowKey().getString()).isEqualTo(createKey((int)i).getString());
+                }
+                assertThat(cursor.canForward()).isFalse();
+            }
+        }
+    }
+}
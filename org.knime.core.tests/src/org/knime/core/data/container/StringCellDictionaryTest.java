@@ -0,0 +1,150 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.v2.RowCursor;
+import org.knime.core.data.v2.RowRead;
+
+/**
+ * Tests {@link StringCellDictionary}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class StringCellDictionaryTest {
+
+    private static final int NUM_ROWS = 3 * StringCellDictionary.MIN_VALUES;
+
+    private static final String[] CATEGORIES = {"Germany", "Switzerland", "Austria", "Italy", "France"};
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("category", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("unique", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("long", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("mixed", DataType.getType(DataCell.class)).createSpec());
+
+    private static final String LONG_PREFIX = "x".repeat(StringCellDictionary.MAX_STRING_LENGTH);
+
+    private static DataRow createRow(final int i) {
+        final DataCell category = i % 7 == 0 ? DataType.getMissingCell() : new StringCell(CATEGORIES[i % 5]);
+        final DataCell mixed = i % 2 == 0 ? new IntCell(i % 3) : new StringCell("m" + (i % 3));
+        return new DefaultRow(RowKey.createRowKey((long)i), category, new StringCell("u" + i),
+            new StringCell(LONG_PREFIX + (i % 2)), mixed);
+    }
+
+    /** Writes a table that is flushed to disc right away. */
+    private static BufferedContainerTable createTable() {
+        final DataContainer container = new DataContainer(SPEC, true, 0);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            container.addRowToTable(createRow(i));
+        }
+        container.close();
+        return (BufferedContainerTable)container.getBufferedTable();
+    }
+
+    @Test
+    void testRoundtripSharesCells() {
+        final BufferedContainerTable table = createTable();
+        assertThat(table.getBuffer().getReadVersion()).isGreaterThanOrEqualTo(StringCellDictionary.FIRST_VERSION);
+        final Map<String, DataCell> categories = new HashMap<>();
+        try (CloseableRowIterator it = table.iterator()) {
+            for (int i = 0; i < NUM_ROWS; i++) {
+                final DataRow row = it.next();
+                final DataRow expected = createRow(i);
+                for (int c = 0; c < SPEC.getNumColumns(); c++) {
+                    assertThat(row.getCell(c)).isEqualTo(expected.getCell(c));
+                }
+                final DataCell category = row.getCell(0);
+                if (!category.isMissing()) {
+                    final DataCell first = categories.computeIfAbsent(category.toString(), k -> category);
+                    assertThat(category).isSameAs(first);
+                }
+            }
+            assertThat(it.hasNext()).isFalse();
+        }
+        assertThat(categories).hasSize(CATEGORIES.length);
+    }
+
+    @Test
+    void testCursorSkipsDictionaryEntries() {
+        final BufferedContainerTable table = createTable();
+        // all dictionary entries of the first column are written within the skipped rows
+        final long from = NUM_ROWS - 10;
+        final TableFilter filter = new TableFilter.Builder().withMaterializeColumnIndices(0, 1)
+            .withFromRowIndex(from).build();
+        try (RowCursor cursor = table.cursor(filter)) {
+            for (long i = from; i < NUM_ROWS; i++) {
+                assertThat(cursor.canForward()).isTrue();
+                final RowRead row = cursor.forward();
+                final DataRow expected = createRow((int)i);
+                assertThat(row.isMissing(0)).isEqualTo(expected.getCell(0).isMissing());
+                if (!row.isMissing(0)) {
+                    assertThat(row.<StringValue> getValue(0).getStringValue())
+                        .isEqualTo(((StringValue)expected.getCell(0)).getStringValue());
+                }
+                assertThat(row.<StringValue> getValue(1).getStringValue()).isEqualTo("u" + i);
+            }
+            assertThat(cursor.canForward()).isFalse();
+        }
+    }
+
+}
@@ -49,7 +49,9 @@
 package org.knime.core.data.convert;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -75,6 +77,9 @@ private class TestSuperclass implements TestSuperclassInterface {
     }
 
     private class TestClass extends TestSuperclass implements TestInterface {
+        @SuppressWarnings("unused")
+        private void hidden() {
+        }
     }
 
     @Test
@@ -116,6 +121,15 @@ public void testEnsureObjectType() {
         }
     }
 
+    @Test
+    public void testUnreflectGeneric() throws Throwable {
+        final MethodHandle length = ClassUtil.unreflectGeneric(String.class.getMethod("length")).orElseThrow();
+        assertEquals(5, (Object)length.invokeExact((Object)"KNIME"));
+        final MethodHandle abs = ClassUtil.unreflectGeneric(Math.class.getMethod("abs", int.class)).orElseThrow();
+        assertEquals(42, (Object)abs.invokeExact((Object)Integer.valueOf(-42)));
+        assertFalse(ClassUtil.unreflectGeneric(TestClass.class.getDeclaredMethod("hidden")).isPresent());
+    }
+
     @Test
     public void testGetArrayType() {
         String[] strArray = {};
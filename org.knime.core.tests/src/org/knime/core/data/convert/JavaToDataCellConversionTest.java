@@ -113,6 +113,24 @@ public void testKeysEqual() {
         assertEquals(key, key2);
     }
 
+    /**
+     * Test that resolved factories are cached but the returned collections are independent copies.
+     */
+    @Test
+    public void testConverterFactoriesCached() {
+        final JavaToDataCellConverterRegistry registry = JavaToDataCellConverterRegistry.getInstance();
+        final Collection<JavaToDataCellConverterFactory<Integer[]>> factories =
+            registry.getConverterFactories(Integer[].class, ListCell.getCollectionType(IntCell.TYPE));
+        assertThat(factories.size(), greaterThan(0));
+        factories.clear();
+        final Collection<JavaToDataCellConverterFactory<Integer[]>> again =
+            registry.getConverterFactories(Integer[].class, ListCell.getCollectionType(IntCell.TYPE));
+        assertThat(again.size(), greaterThan(0));
+        assertEquals(again.stream().map(JavaToDataCellConverterFactory::getIdentifier).collect(Collectors.toList()),
+            registry.getConverterFactories(Integer[].class, ListCell.getCollectionType(IntCell.TYPE)).stream()
+                .map(JavaToDataCellConverterFactory::getIdentifier).collect(Collectors.toList()));
+    }
+
     /**
      * Generic test for simple {@link JavaToDataCellConverterFactory}s.
      *
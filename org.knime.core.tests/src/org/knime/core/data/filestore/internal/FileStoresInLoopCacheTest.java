@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.filestore.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.filestore.FileStoreKey;
+
+/**
+ * Tests {@link FileStoresInLoopCache}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class FileStoresInLoopCacheTest {
+
+    private static final int[] OUTER_LOOP_PATH = new int[0];
+
+    /** Keys are tracked per store, duplicates are dropped and the insertion order is retained. */
+    @Test
+    void testAddAndContains() {
+        final UUID store1 = UUID.randomUUID();
+        final UUID store2 = UUID.randomUUID();
+        final FileStoresInLoopCache cache = new FileStoresInLoopCache();
+        cache.add(new FileStoreKey(store1, 5, OUTER_LOOP_PATH, 0, "a"));
+        cache.add(new FileStoreKey(store1, 2, OUTER_LOOP_PATH, 0, "b"));
+        cache.add(new FileStoreKey(store1, 5, OUTER_LOOP_PATH, 0, "a"));
+        cache.close();
+
+        assertThat(keysOf(cache)).extracting(FileStoreKey::getIndex).containsExactly(5, 2);
+        assertThat(cache.contains(new FileStoreKey(store1, 2, OUTER_LOOP_PATH, 0, "b"))).isTrue();
+        assertThat(cache.contains(new FileStoreKey(store1, 3, OUTER_LOOP_PATH, 0, "c"))).isFalse();
+        assertThat(cache.contains(new FileStoreKey(store2, 2, OUTER_LOOP_PATH, 0, "b"))).isFalse();
+    }
+
+    /** Keys of a nested loop end are merged into the outer cache. */
+    @Test
+    void testAddFileStoreKeysFromNestedLoops() {
+        final UUID store = UUID.randomUUID();
+        final FileStoresInLoopCache nested = new FileStoresInLoopCache();
+        nested.add(new FileStoreKey(store, 7, new int[]{0}, 1, "nested"));
+        nested.close();
+        final FileStoresInLoopCache outer = new FileStoresInLoopCache();
+        outer.add(new FileStoreKey(store, 1, OUTER_LOOP_PATH, 0, "outer"));
+        outer.addFileStoreKeysFromNestedLoops(nested);
+        outer.close();
+
+        assertThat(keysOf(outer)).extracting(FileStoreKey::getIndex).containsExactly(1, 7);
+        nested.dispose();
+        assertThat(keysOf(outer)).hasSize(2);
+    }
+
+    /** Keys beyond the in-memory limit are written to a temp file and read back in insertion order. */
+    @Test
+    void testSpillKeys() {
+        final UUID store = UUID.randomUUID();
+        final int nrKeys = FileStoresInLoopCache.MAX_KEYS_IN_MEMORY * 2 + 5;
+        final FileStoresInLoopCache cache = new FileStoresInLoopCache();
+        for (int i = nrKeys - 1; i >= 0; i--) {
+            cache.add(new FileStoreKey(store, i, new int[]{i % 3}, i, "fs-" + i));
+        }
+        cache.add(new FileStoreKey(store, 0, OUTER_LOOP_PATH, 0, "fs-0"));
+        cache.close();
+
+        final List<FileStoreKey> keys = keysOf(cache);
+        assertThat(keys).hasSize(nrKeys);
+        assertThat(cache.size()).isEqualTo(nrKeys);
+        assertThat(keys.get(0)).isEqualTo(new FileStoreKey(store, nrKeys - 1, new int[]{(nrKeys - 1) % 3},
+            nrKeys - 1, "fs-" + (nrKeys - 1)));
+        assertThat(keys.get(nrKeys - 1).getIndex()).isZero();
+        assertThat(cache.contains(new FileStoreKey(store, 17, OUTER_LOOP_PATH, 0, "fs-17"))).isTrue();
+        cache.dispose();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static List<FileStoreKey> keysOf(final FileStoresInLoopCache cache) {
+        final List<FileStoreKey> keys = new ArrayList<>();
+        cache.forEachKey(keys::add);
+        return keys;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.filestore.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.data.filestore.FileStoreUtil;
+
+/**
+ * Tests {@link WriteFileStoreHandler}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class WriteFileStoreHandlerTest {
+
+    /** Concurrent creation must hand out unique indices and create the parent folders of all file stores. */
+    @Test
+    void testConcurrentCreateFileStore() throws Exception {
+        final int nrThreads = 4;
+        final int nrPerThread = 1500;
+        final NotInWorkflowWriteFileStoreHandler handler = NotInWorkflowWriteFileStoreHandler.create();
+        handler.open();
+        final ExecutorService service = Executors.newFixedThreadPool(nrThreads);
+        try {
+            final Set<Integer> indices = ConcurrentHashMap.newKeySet();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < nrThreads; t++) {
+                final int thread = t;
+                futures.add(service.submit(() -> {
+                    for (int i = 0; i < nrPerThread; i++) {
+                        final FileStore fs = handler.createFileStore("fs-" + thread + "-" + i);
+                        assertThat(fs.getFile().getParentFile()).isDirectory();
+                        indices.add(FileStoreUtil.getFileStoreKey(fs).getIndex());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(indices).hasSize(nrThreads * nrPerThread);
+            assertThat(handler.getNextIndex()).isEqualTo(nrThreads * nrPerThread);
+            handler.close();
+        } finally {
+            service.shutdownNow();
+            handler.clearAndDispose();
+        }
+    }
+
+}
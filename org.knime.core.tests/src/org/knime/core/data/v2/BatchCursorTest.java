@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.v2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.statistics.StatisticsExtractors.CountMissingValuesExtractor;
+import org.knime.core.data.statistics.StatisticsExtractors.DoubleSumExtractor;
+import org.knime.core.data.statistics.StatisticsExtractors.ValidDoublesCounter;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.testing.core.ExecutionContextExtension;
+
+/**
+ * Tests {@link BatchCursor}, in particular the default implementation reading from a {@link RowCursor}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BatchCursorTest {
+
+    @RegisterExtension
+    static ExecutionContextExtension executionContextExtension = ExecutionContextExtension.create();
+
+    private static final int NUM_ROWS = 2500;
+
+    private static BufferedDataTable createTable() {
+        final var spec = new DataTableSpec(new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("long", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("double", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("string", StringCell.TYPE).createSpec());
+        final var container = executionContextExtension.getExecutionContext().createDataContainer(spec);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            final DataCell doubleCell = i % 7 == 0 ? DataType.getMissingCell() : new DoubleCell(i / 4d);
+            final DataCell stringCell = i % 3 == 0 ? DataType.getMissingCell() : new StringCell("s" + i);
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i), new LongCell(-i),
+                doubleCell, stringCell));
+        }
+        container.close();
+        return container.getTable();
+    }
+
+    @Test
+    void testReadBatches() {
+        final var table = createTable();
+        final var ints = new int[1000];
+        final var longs = new long[1000];
+        final var doubles = new double[1000];
+        final var missing = new long[16];
+        try (var cursor = table.batchCursor(null)) {
+            assertThat(cursor.getNumColumns()).isEqualTo(4);
+            int row = 0;
+            int batchSize;
+            while ((batchSize = cursor.forward(1000)) > 0) {
+                assertThat(batchSize).isEqualTo(Math.min(1000, NUM_ROWS - row));
+                cursor.readInts(0, ints, missing);
+                for (int i = 0; i < batchSize; i++) {
+                    assertThat(BatchCursor.isMissing(missing, i)).isFalse();
+                    assertThat(ints[i]).isEqualTo(row + i);
+                }
+                cursor.readLongs(1, longs, missing);
+                cursor.readDoubles(0, doubles, missing);
+                for (int i = 0; i < batchSize; i++) {
+                    assertThat(longs[i]).isEqualTo(-(row + i));
+                    assertThat(doubles[i]).isEqualTo(row + i);
+                }
+                cursor.readDoubles(2, doubles, missing);
+                for (int i = 0; i < batchSize; i++) {
+                    final int r = row + i;
+                    assertThat(BatchCursor.isMissing(missing, i)).isEqualTo(r % 7 == 0);
+                    if (r % 7 != 0) {
+                        assertThat(doubles[i]).isEqualTo(r / 4d);
+                    }
+                }
+                cursor.readMissing(3, missing);
+                for (int i = 0; i < batchSize; i++) {
+                    assertThat(BatchCursor.isMissing(missing, i)).isEqualTo((row + i) % 3 == 0);
+                }
+                row += batchSize;
+            }
+            assertThat(row).isEqualTo(NUM_ROWS);
+        }
+    }
+
+    @Test
+    void testIncompatibleOrUnmaterializedColumn() {
+        final var table = createTable();
+        final var filter = new TableFilter.Builder().withMaterializeColumnIndices(0, 3).withFromRowIndex(10)
+            .withToRowIndex(19).build();
+        try (var cursor = table.batchCursor(filter)) {
+            assertThat(cursor.forward(100)).isEqualTo(10);
+            final var ints = new int[100];
+            final var missing = new long[2];
+            cursor.readInts(0, ints, missing);
+            assertThat(ints[0]).isEqualTo(10);
+            assertThatThrownBy(() -> cursor.readInts(1, new int[100], missing))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> cursor.readDoubles(3, new double[100], missing))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> cursor.readDoubles(2, new double[100], missing))
+                .isInstanceOf(IllegalStateException.class);
+            assertThat(cursor.forward(100)).isZero();
+        }
+    }
+
+    @Test
+    void testBatchExtractors() {
+        final var table = createTable();
+        final var counter = new ValidDoublesCounter(2);
+        final var missingCounter = new CountMissingValuesExtractor(3);
+        final var sum = new DoubleSumExtractor(0);
+        TableExtractorUtil.extractData(table, counter, missingCounter, sum);
+        assertThat(counter.getOutput()).isEqualTo(NUM_ROWS - (NUM_ROWS + 6) / 7);
+        assertThat(missingCounter.getOutput()).isEqualTo((NUM_ROWS + 2) / 3);
+        assertThat(sum.getOutput()).isEqualTo(NUM_ROWS * (NUM_ROWS - 1) / 2d);
+    }
+
+}
@@ -824,6 +824,33 @@ public void testFactory() {
     }
 
 
+    /**
+     * Tests the constructor that takes an int array and the bulk accessors of
+     * the cell.
+     *
+     * @throws Exception if an error occurs
+     */
+    public void testIntConstructorAndBulkAccess() throws Exception {
+        int[] counts = new int[]{0, 1, 128, 255};
+        DenseByteVector bv = new DenseByteVector(counts);
+        assertTrue(Arrays.equals(counts, bv.getAllCounts()));
+        try {
+            new DenseByteVector(new int[]{256});
+            fail();
+        } catch (IllegalArgumentException iae) {
+            // OK
+        }
+
+        DenseByteVectorCell cell = DenseByteVectorCellFactory.createCell(counts);
+        assertEquals(new DenseByteVectorCellFactory(bv).createDataCell(), cell);
+        assertTrue(Arrays.equals(counts, cell.getAllCounts()));
+        assertTrue(cell.asByteBuffer().isReadOnly());
+        assertEquals(4, cell.asByteBuffer().remaining());
+        assertEquals(255, Byte.toUnsignedInt(cell.asByteBuffer().get(3)));
+        assertTrue(Arrays.equals(counts,
+            new ByteVectorValueToPrimitiveIntArrayConverterFactory().create().convert(cell)));
+    }
+
     /**
      * Checks that the hashCode of dense and sparse byte vectors are identical.
      *
@@ -50,6 +50,7 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.DoubleBuffer;
 import java.util.stream.IntStream;
 
 import org.hamcrest.CoreMatchers;
@@ -84,6 +85,27 @@ public void testCreation() throws Exception {
         IntStream.range(0, 10000).forEach(i -> Assert.assertEquals("value, index " + i, i, v.getValue(i), 0.0));
     }
 
+    @Test
+    public void testBulkAccess() throws Exception {
+        double[] d = IntStream.range(0, 100).mapToDouble(i -> i).toArray();
+        DenseDoubleVectorCell cell = DoubleVectorCellFactory.createCell(d);
+        DoubleBuffer buffer = cell.asDoubleBuffer();
+        Assert.assertTrue("buffer must be read-only", buffer.isReadOnly());
+        Assert.assertEquals("buffer length", 100, buffer.remaining());
+        Assert.assertEquals("buffer value", 42.0, buffer.get(42), 0.0);
+
+        double[] copy = cell.toDoubleArray();
+        Assert.assertArrayEquals(d, copy, 0.0);
+        copy[0] = -1.0;
+        Assert.assertEquals("copy must be independent", 0.0, cell.getValue(0), 0.0);
+
+        buffer.position(10);
+        DenseDoubleVectorCell fromBuffer = DoubleVectorCellFactory.createCell(buffer);
+        Assert.assertEquals("position must not change", 10, buffer.position());
+        Assert.assertEquals("length of cell from buffer", 90, fromBuffer.getLength());
+        Assert.assertEquals("value of cell from buffer", 10.0, fromBuffer.getValue(0), 0.0);
+    }
+
     @Test
     public void testSerialization() throws Exception {
         double[] d = IntStream.range(0, 10000).mapToDouble(i -> i).toArray();
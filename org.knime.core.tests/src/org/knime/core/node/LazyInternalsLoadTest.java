@@ -0,0 +1,299 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.workflow.NativeNodeContainer;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.util.FileUtil;
+import org.knime.testing.util.WorkflowManagerUtil;
+
+/**
+ * Tests deferred loading of node internals, see {@link KNIMEConstants#PROPERTY_LAZY_LOAD_INTERNALS}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class LazyInternalsLoadTest {
+
+    private static final AtomicInteger INTERNALS_LOAD_COUNT = new AtomicInteger();
+
+    private static final AtomicInteger HOLDER_LOAD_COUNT = new AtomicInteger();
+
+    private static final DataTableSpec SPEC = new DataTableSpec(new String[]{"value"}, new DataType[]{IntCell.TYPE});
+
+    private File m_workflowDir;
+
+    private WorkflowManager m_wfm;
+
+    @BeforeEach
+    void createExecutedWorkflow() throws Exception {
+        final WorkflowManager wfm = WorkflowManagerUtil.createEmptyWorkflow();
+        try {
+            WorkflowManagerUtil.createAndAddNode(wfm, new InternalsNodeFactory());
+            WorkflowManagerUtil.createAndAddNode(wfm, new HolderNodeFactory());
+            wfm.executeAllAndWaitUntilDone();
+            m_workflowDir = FileUtil.createTempDir("lazyInternals");
+            wfm.save(m_workflowDir, new ExecutionMonitor(), true);
+        } finally {
+            WorkflowManagerUtil.disposeWorkflow(wfm);
+        }
+        INTERNALS_LOAD_COUNT.set(0);
+        HOLDER_LOAD_COUNT.set(0);
+    }
+
+    @AfterEach
+    void disposeWorkflow() {
+        System.clearProperty(KNIMEConstants.PROPERTY_LAZY_LOAD_INTERNALS);
+        if (m_wfm != null) {
+            WorkflowManagerUtil.disposeWorkflow(m_wfm);
+        }
+        FileUtil.deleteRecursively(m_workflowDir);
+    }
+
+    /** Internals are read on first access of the model, type checks do not trigger the read. */
+    @Test
+    void testInternalsLoadedOnFirstAccess() throws Exception {
+        System.setProperty(KNIMEConstants.PROPERTY_LAZY_LOAD_INTERNALS, "true");
+        m_wfm = WorkflowManagerUtil.loadWorkflow(m_workflowDir);
+        final NativeNodeContainer nnc = getNode(InternalsNodeModel.class);
+        assertThat(nnc.getNodeContainerState().isExecuted()).isTrue();
+        assertThat(nnc.isModelCompatibleTo(InternalsNodeModel.class)).isTrue();
+        assertThat(INTERNALS_LOAD_COUNT).hasValue(0);
+
+        final InternalsNodeModel model = (InternalsNodeModel)nnc.getNodeModel();
+        assertThat(INTERNALS_LOAD_COUNT).hasValue(1);
+        assertThat(model.m_content).isEqualTo(InternalsNodeModel.CONTENT);
+        nnc.getNodeModel();
+        assertThat(INTERNALS_LOAD_COUNT).hasValue(1);
+    }
+
+    /** Nodes holding internal tables load their internals before the tables are set, as by contract. */
+    @Test
+    void testHolderLoadedEagerly() throws Exception {
+        System.setProperty(KNIMEConstants.PROPERTY_LAZY_LOAD_INTERNALS, "true");
+        m_wfm = WorkflowManagerUtil.loadWorkflow(m_workflowDir);
+        assertThat(HOLDER_LOAD_COUNT).hasValue(1);
+        final HolderNodeModel model = (HolderNodeModel)getNode(HolderNodeModel.class).getNodeModel();
+        assertThat(model.m_content).isEqualTo(InternalsNodeModel.CONTENT);
+        assertThat(model.m_internalsLoadedBeforeTables).isTrue();
+    }
+
+    /** Internals that were not read yet are discarded on reset. */
+    @Test
+    void testResetDiscardsInternals() throws Exception {
+        System.setProperty(KNIMEConstants.PROPERTY_LAZY_LOAD_INTERNALS, "true");
+        m_wfm = WorkflowManagerUtil.loadWorkflow(m_workflowDir);
+        m_wfm.resetAndConfigureAll();
+        final InternalsNodeModel model = (InternalsNodeModel)getNode(InternalsNodeModel.class).getNodeModel();
+        assertThat(INTERNALS_LOAD_COUNT).hasValue(0);
+        assertThat(model.m_content).isNull();
+    }
+
+    /** Without the property internals are loaded with the workflow. */
+    @Test
+    void testInternalsLoadedEagerlyByDefault() throws Exception {
+        m_wfm = WorkflowManagerUtil.loadWorkflow(m_workflowDir);
+        assertThat(INTERNALS_LOAD_COUNT).hasValue(1);
+        assertThat(HOLDER_LOAD_COUNT).hasValue(1);
+    }
+
+    private NativeNodeContainer getNode(final Class<? extends NodeModel> modelClass) {
+        for (NodeContainer nc : m_wfm.getNodeContainers()) {
+            if (nc instanceof NativeNodeContainer nnc && nnc.isModelCompatibleTo(modelClass)
+                && (modelClass == HolderNodeModel.class || !nnc.isModelCompatibleTo(HolderNodeModel.class))) {
+                return nnc;
+            }
+        }
+        throw new IllegalStateException("No node with model " + modelClass.getSimpleName());
+    }
+
+    /** Source node that keeps some content in its internals. */
+    static class InternalsNodeModel extends NodeModel {
+
+        static final String CONTENT = "executed";
+
+        private static final String FILE_NAME = "content.txt";
+
+        private final AtomicInteger m_loadCount;
+
+        String m_content;
+
+        InternalsNodeModel(final AtomicInteger loadCount) {
+            super(0, 1);
+            m_loadCount = loadCount;
+        }
+
+        @Override
+        protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws InvalidSettingsException {
+            return new DataTableSpec[]{SPEC};
+        }
+
+        @Override
+        protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+            throws Exception {
+            m_content = CONTENT;
+            final BufferedDataContainer container = exec.createDataContainer(SPEC);
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey(0L), new IntCell(42)));
+            container.close();
+            return new BufferedDataTable[]{container.getTable()};
+        }
+
+        @Override
+        protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec) throws IOException {
+            m_loadCount.incrementAndGet();
+            m_content = Files.readString(new File(nodeInternDir, FILE_NAME).toPath(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec) throws IOException {
+            Files.writeString(new File(nodeInternDir, FILE_NAME).toPath(), m_content, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected void saveSettingsTo(final NodeSettingsWO settings) {
+            // no settings
+        }
+
+        @Override
+        protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void reset() {
+            m_content = null;
+        }
+    }
+
+    /** Node that also holds its output table internally. */
+    static final class HolderNodeModel extends InternalsNodeModel implements BufferedDataTableHolder {
+
+        private BufferedDataTable[] m_internalTables;
+
+        boolean m_internalsLoadedBeforeTables;
+
+        HolderNodeModel() {
+            super(HOLDER_LOAD_COUNT);
+        }
+
+        @Override
+        protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+            throws Exception {
+            m_internalTables = super.execute(inData, exec);
+            return m_internalTables;
+        }
+
+        @Override
+        public BufferedDataTable[] getInternalTables() {
+            return m_internalTables;
+        }
+
+        @Override
+        public void setInternalTables(final BufferedDataTable[] tables) {
+            m_internalsLoadedBeforeTables = m_content != null;
+            m_internalTables = tables;
+        }
+    }
+
+    /** Factory for {@link InternalsNodeModel}, public as it is instantiated when the workflow is loaded. */
+    public static class InternalsNodeFactory extends NodeFactory<NodeModel> {
+
+        @Override
+        public NodeModel createNodeModel() {
+            return new InternalsNodeModel(INTERNALS_LOAD_COUNT);
+        }
+
+        @Override
+        protected int getNrNodeViews() {
+            return 0;
+        }
+
+        @Override
+        public NodeView<NodeModel> createNodeView(final int viewIndex, final NodeModel nodeModel) {
+            return null;
+        }
+
+        @Override
+        protected boolean hasDialog() {
+            return false;
+        }
+
+        @Override
+        protected NodeDialogPane createNodeDialogPane() {
+            return null;
+        }
+    }
+
+    /** Factory for {@link HolderNodeModel}. */
+    public static final class HolderNodeFactory extends InternalsNodeFactory {
+
+        @Override
+        public NodeModel createNodeModel() {
+            return new HolderNodeModel();
+        }
+    }
+}
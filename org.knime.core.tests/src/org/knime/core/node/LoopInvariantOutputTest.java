@@ -0,0 +1,293 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.workflow.LoopEndNode;
+import org.knime.core.node.workflow.LoopStartNodeTerminator;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.testing.util.WorkflowManagerUtil;
+
+/**
+ * Tests the reuse of loop invariant output of {@link DeterministicNodeModel} nodes.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class LoopInvariantOutputTest {
+
+    private static final int ITERATIONS = 3;
+
+    private static final DataTableSpec SPEC = new DataTableSpec(new String[]{"value"}, new DataType[]{IntCell.TYPE});
+
+    private WorkflowManager m_wfm;
+
+    private NodeID m_loopStart;
+
+    private NodeID m_loopEnd;
+
+    @BeforeEach
+    void createLoop() throws IOException {
+        m_wfm = WorkflowManagerUtil.createEmptyWorkflow();
+        final NodeID source = addNode(new TestNodeModel(0, 1, new AtomicInteger()));
+        m_loopStart = addNode(new TestLoopStartNodeModel());
+        m_loopEnd = addNode(new TestLoopEndNodeModel());
+        m_wfm.addConnection(source, 1, m_loopStart, 1);
+    }
+
+    @AfterEach
+    void disposeWorkflow() {
+        WorkflowManagerUtil.disposeWorkflow(m_wfm);
+    }
+
+    /** A deterministic node whose input does not change is only executed in the first iteration. */
+    @Test
+    void testDeterministicNodeIsReused() {
+        final AtomicInteger executions = new AtomicInteger();
+        final NodeID body = addNode(new DeterministicTestNodeModel(1, 1, executions));
+        m_wfm.addConnection(m_loopStart, 1, body, 1);
+        m_wfm.addConnection(body, 1, m_loopEnd, 1);
+        executeLoop();
+        assertThat(executions).hasValue(1);
+    }
+
+    /** Nodes that do not opt in (e.g. random sampling without seed) are executed in every iteration. */
+    @Test
+    void testNonDeterministicNodeIsExecuted() {
+        final AtomicInteger executions = new AtomicInteger();
+        final NodeID body = addNode(new TestNodeModel(1, 1, executions));
+        m_wfm.addConnection(m_loopStart, 1, body, 1);
+        m_wfm.addConnection(body, 1, m_loopEnd, 1);
+        executeLoop();
+        assertThat(executions).hasValue(ITERATIONS);
+    }
+
+    /** Source nodes (e.g. readers connected via flow variable port only) are executed in every iteration. */
+    @Test
+    void testSourceNodeIsExecuted() {
+        final AtomicInteger executions = new AtomicInteger();
+        final NodeID body = addNode(new DeterministicTestNodeModel(0, 1, executions));
+        m_wfm.addConnection(m_loopStart, 0, body, 0);
+        m_wfm.addConnection(body, 1, m_loopEnd, 1);
+        executeLoop();
+        assertThat(executions).hasValue(ITERATIONS);
+    }
+
+    /** Sink nodes (e.g. writers) are executed in every iteration. */
+    @Test
+    void testSinkNodeIsExecuted() {
+        final AtomicInteger executions = new AtomicInteger();
+        final NodeID body = addNode(new DeterministicTestNodeModel(1, 0, executions));
+        m_wfm.addConnection(m_loopStart, 1, body, 1);
+        m_wfm.addConnection(body, 0, m_loopEnd, 0);
+        m_wfm.addConnection(m_loopStart, 1, m_loopEnd, 1);
+        executeLoop();
+        assertThat(executions).hasValue(ITERATIONS);
+    }
+
+    private void executeLoop() {
+        m_wfm.executeAllAndWaitUntilDone();
+        assertThat(m_wfm.getNodeContainer(m_loopEnd).getNodeContainerState().isExecuted()).isTrue();
+    }
+
+    private NodeID addNode(final NodeModel model) {
+        return WorkflowManagerUtil.createAndAddNode(m_wfm, new TestNodeFactory(model)).getID();
+    }
+
+    private static BufferedDataTable createTable(final ExecutionContext exec) {
+        final BufferedDataContainer container = exec.createDataContainer(SPEC);
+        container.addRowToTable(new DefaultRow(RowKey.createRowKey(0L), new IntCell(42)));
+        container.close();
+        return container.getTable();
+    }
+
+    private static class TestNodeModel extends NodeModel {
+
+        private final AtomicInteger m_executions;
+
+        TestNodeModel(final int nrInputs, final int nrOutputs, final AtomicInteger executions) {
+            super(nrInputs, nrOutputs);
+            m_executions = executions;
+        }
+
+        @Override
+        protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws InvalidSettingsException {
+            return getNrOutPorts() == 0 ? new DataTableSpec[0] : new DataTableSpec[]{SPEC};
+        }
+
+        @Override
+        protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
+            throws Exception {
+            m_executions.incrementAndGet();
+            return getNrOutPorts() == 0 ? new BufferedDataTable[0] : new BufferedDataTable[]{createTable(exec)};
+        }
+
+        @Override
+        protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec) {
+            // no internals
+        }
+
+        @Override
+        protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec) {
+            // no internals
+        }
+
+        @Override
+        protected void saveSettingsTo(final NodeSettingsWO settings) {
+            // no settings
+        }
+
+        @Override
+        protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void reset() {
+            // nothing to reset
+        }
+    }
+
+    private static final class DeterministicTestNodeModel extends TestNodeModel implements DeterministicNodeModel {
+
+        DeterministicTestNodeModel(final int nrInputs, final int nrOutputs, final AtomicInteger executions) {
+            super(nrInputs, nrOutputs, executions);
+        }
+    }
+
+    private static final class TestLoopStartNodeModel extends TestNodeModel implements LoopStartNodeTerminator {
+
+        private int m_iteration;
+
+        TestLoopStartNodeModel() {
+            super(1, 1, new AtomicInteger());
+        }
+
+        @Override
+        protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec) {
+            m_iteration++;
+            return inData;
+        }
+
+        @Override
+        public boolean terminateLoop() {
+            return m_iteration >= ITERATIONS;
+        }
+
+        @Override
+        protected void reset() {
+            m_iteration = 0;
+        }
+    }
+
+    private static final class TestLoopEndNodeModel extends TestNodeModel implements LoopEndNode {
+
+        TestLoopEndNodeModel() {
+            super(1, 1, new AtomicInteger());
+        }
+
+        @Override
+        protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec) {
+            if (!((LoopStartNodeTerminator)getLoopStartNode()).terminateLoop()) {
+                continueLoop();
+                return null;
+            }
+            return new BufferedDataTable[]{createTable(exec)};
+        }
+    }
+
+    private static final class TestNodeFactory extends NodeFactory<NodeModel> {
+
+        private final NodeModel m_model;
+
+        TestNodeFactory(final NodeModel model) {
+            m_model = model;
+        }
+
+        @Override
+        public NodeModel createNodeModel() {
+            return m_model;
+        }
+
+        @Override
+        protected int getNrNodeViews() {
+            return 0;
+        }
+
+        @Override
+        public NodeView<NodeModel> createNodeView(final int viewIndex, final NodeModel nodeModel) {
+            return null;
+        }
+
+        @Override
+        protected boolean hasDialog() {
+            return false;
+        }
+
+        @Override
+        protected NodeDialogPane createNodeDialogPane() {
+            return null;
+        }
+    }
+}
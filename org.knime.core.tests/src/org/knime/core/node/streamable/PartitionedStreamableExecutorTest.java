@@ -0,0 +1,314 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.streamable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.BufferedDataTableHolder;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.port.flowvariable.FlowVariablePortObject;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Tests {@link PartitionedStreamableExecutor}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class PartitionedStreamableExecutorTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(new String[]{"value"}, new DataType[]{IntCell.TYPE});
+
+    private static final PortType[] TABLE_OUTPUT = new PortType[]{BufferedDataTable.TYPE};
+
+    private ExecutionContext m_exec;
+
+    @BeforeEach
+    void createExecutionContext() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        NodeFactory<NodeModel> dummyFactory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        m_exec = new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(dummyFactory),
+            SingleNodeContainer.MemoryPolicy.CacheOnDisc, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** Rows are processed on several partitions and the distributed output is concatenated in input order. */
+    @Test
+    void testOutputConcatenatedInOrder() throws Exception {
+        final BufferedDataContainer container = m_exec.createDataContainer(SPEC);
+        for (var i = 0; i < 1000; i++) {
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i)));
+        }
+        container.close();
+        final PortObject[] inData = new PortObject[]{container.getTable()};
+
+        final var model = new PartitionableAddOneNodeModel(TABLE_OUTPUT);
+        assertThat(PartitionedStreamableExecutor.canExecute(model, inData, TABLE_OUTPUT)).isTrue();
+        final PortObject[] outData = PartitionedStreamableExecutor.execute(model, inData, TABLE_OUTPUT, 4, m_exec);
+
+        final var result = (BufferedDataTable)outData[0];
+        assertThat(result.size()).isEqualTo(1000);
+        try (CloseableRowIterator it = result.iterator()) {
+            for (var i = 0; i < 1000; i++) {
+                final DataRow row = it.next();
+                assertThat(row.getKey()).isEqualTo(RowKey.createRowKey((long)i));
+                assertThat(((IntCell)row.getCell(0)).getIntValue()).isEqualTo(i + 1);
+            }
+        }
+    }
+
+    /** The failure of the partitions fails the execution, their partial outputs are discarded. */
+    @Test
+    void testPartitionFailure() {
+        final BufferedDataContainer container = m_exec.createDataContainer(SPEC);
+        for (var i = 0; i < 100; i++) {
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i)));
+        }
+        container.close();
+        final PortObject[] inData = new PortObject[]{container.getTable()};
+
+        final var model = new PartitionableAddOneNodeModel(TABLE_OUTPUT) {
+            @Override
+            public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+                final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+                return new StreamableOperator() {
+                    @Override
+                    public void runFinal(final PortInput[] inputs, final PortOutput[] outputs,
+                        final ExecutionContext exec) throws Exception {
+                        ((RowOutput)outputs[0]).push(new DefaultRow("partial", new IntCell(-1)));
+                        throw new IllegalStateException("partition failed");
+                    }
+                };
+            }
+        };
+        assertThatThrownBy(() -> PartitionedStreamableExecutor.execute(model, inData, TABLE_OUTPUT, 4, m_exec))
+            .isInstanceOf(IllegalStateException.class).hasMessage("partition failed");
+    }
+
+    /** Nodes are only executed on partitions if they opt in and their output can be assembled from the partitions. */
+    @Test
+    void testCanExecute() {
+        final PortObject[] inData = new PortObject[]{createEmptyTable()};
+        assertThat(PartitionedStreamableExecutor.canExecute(new AddOneNodeModel(TABLE_OUTPUT), inData, TABLE_OUTPUT))
+            .as("node not implementing PartitionableNodeModel").isFalse();
+        assertThat(PartitionedStreamableExecutor.canExecute(new HolderNodeModel(), inData, TABLE_OUTPUT))
+            .as("node holding internal tables").isFalse();
+        final PortType[] flowVariableOutput = new PortType[]{FlowVariablePortObject.TYPE};
+        assertThat(PartitionedStreamableExecutor.canExecute(new PartitionableAddOneNodeModel(flowVariableOutput),
+            inData, flowVariableOutput)).as("distributable output that is not a table").isFalse();
+        assertThat(PartitionedStreamableExecutor.canExecute(new LocalOutputNodeModel(), inData, TABLE_OUTPUT))
+            .as("non-distributable output without merge operator").isFalse();
+        assertThat(PartitionedStreamableExecutor.canExecute(new IteratingNodeModel(), inData, TABLE_OUTPUT))
+            .as("iterations without merge operator").isFalse();
+        assertThat(PartitionedStreamableExecutor.canExecute(new PartitionableAddOneNodeModel(TABLE_OUTPUT),
+            new PortObject[]{null}, TABLE_OUTPUT)).as("no input table").isFalse();
+    }
+
+    private BufferedDataTable createEmptyTable() {
+        final BufferedDataContainer container = m_exec.createDataContainer(SPEC);
+        container.close();
+        return container.getTable();
+    }
+
+    /** Adds one to the int column; its execute method must not be called. */
+    private static class AddOneNodeModel extends NodeModel {
+
+        AddOneNodeModel(final PortType[] outTypes) {
+            super(new PortType[]{BufferedDataTable.TYPE}, outTypes);
+        }
+
+        @Override
+        protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+            return new PortObjectSpec[]{inSpecs[0]};
+        }
+
+        @Override
+        protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+            throw new IllegalStateException("execute must not be called");
+        }
+
+        @Override
+        public InputPortRole[] getInputPortRoles() {
+            return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+        }
+
+        @Override
+        public OutputPortRole[] getOutputPortRoles() {
+            return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+        }
+
+        @Override
+        public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+            return new StreamableOperator() {
+                @Override
+                public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                    throws Exception {
+                    final var in = (RowInput)inputs[0];
+                    final var out = (RowOutput)outputs[0];
+                    DataRow row;
+                    while ((row = in.poll()) != null) {
+                        final int value = ((IntCell)row.getCell(0)).getIntValue();
+                        out.push(new DefaultRow(row.getKey(), new IntCell(value + 1)));
+                    }
+                    in.close();
+                    out.close();
+                }
+            };
+        }
+
+        @Override
+        protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec) {
+            // no internals
+        }
+
+        @Override
+        protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec) {
+            // no internals
+        }
+
+        @Override
+        protected void saveSettingsTo(final NodeSettingsWO settings) {
+            // no settings
+        }
+
+        @Override
+        protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void reset() {
+            // nothing to reset
+        }
+    }
+
+    private static class PartitionableAddOneNodeModel extends AddOneNodeModel implements PartitionableNodeModel {
+
+        PartitionableAddOneNodeModel(final PortType[] outTypes) {
+            super(outTypes);
+        }
+
+        @Override
+        public boolean isSingleIteration() {
+            return true;
+        }
+    }
+
+    private static final class HolderNodeModel extends PartitionableAddOneNodeModel
+        implements BufferedDataTableHolder {
+
+        HolderNodeModel() {
+            super(TABLE_OUTPUT);
+        }
+
+        @Override
+        public BufferedDataTable[] getInternalTables() {
+            return new BufferedDataTable[0];
+        }
+
+        @Override
+        public void setInternalTables(final BufferedDataTable[] tables) {
+            // not used
+        }
+    }
+
+    private static final class IteratingNodeModel extends PartitionableAddOneNodeModel {
+
+        IteratingNodeModel() {
+            super(TABLE_OUTPUT);
+        }
+
+        @Override
+        public boolean isSingleIteration() {
+            return false;
+        }
+    }
+
+    private static final class LocalOutputNodeModel extends PartitionableAddOneNodeModel {
+
+        LocalOutputNodeModel() {
+            super(TABLE_OUTPUT);
+        }
+
+        @Override
+        public OutputPortRole[] getOutputPortRoles() {
+            return new OutputPortRole[]{OutputPortRole.NONDISTRIBUTED};
+        }
+    }
+}
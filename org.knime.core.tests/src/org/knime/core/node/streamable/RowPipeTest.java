@@ -0,0 +1,187 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.streamable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+
+/**
+ * Tests {@link RowPipe}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class RowPipeTest {
+
+    private static DataRow row(final int i) {
+        return new DefaultRow("Row" + i, new IntCell(i));
+    }
+
+    /** All rows arrive in order, including a last partial batch. */
+    @Test
+    void testTransportInOrder() throws Exception {
+        final var pipe = new RowPipe(new DataTableSpec(), 3, 2);
+        final var producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (var i = 0; i < 100; i++) {
+                    pipe.getOutput().push(row(i));
+                }
+                pipe.getOutput().close();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        final RowInput input = pipe.getInput();
+        var count = 0;
+        DataRow r;
+        while ((r = input.poll()) != null) {
+            assertThat(r.getKey().getString()).isEqualTo("Row" + count);
+            count++;
+        }
+        assertThat(count).isEqualTo(100);
+        assertThat(input.poll()).isNull();
+        producer.get(10, TimeUnit.SECONDS);
+    }
+
+    /** Batches pushed and polled with arrays of a size different from the pipe's batch size keep all rows. */
+    @Test
+    void testBatchedTransport() throws Exception {
+        final var pipe = new RowPipe(new DataTableSpec(), 7, 2);
+        final var producer = CompletableFuture.runAsync(() -> {
+            try {
+                final var rows = new DataRow[5];
+                for (var i = 0; i < 100; i += rows.length) {
+                    for (var j = 0; j < rows.length; j++) {
+                        rows[j] = row(i + j);
+                    }
+                    pipe.getOutput().push(rows, rows.length);
+                }
+                pipe.getOutput().close();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        final var rows = new DataRow[3];
+        var total = 0;
+        int count;
+        while ((count = pipe.getInput().poll(rows)) > 0) {
+            for (var j = 0; j < count; j++) {
+                assertThat(rows[j].getKey().getString()).isEqualTo("Row" + total++);
+            }
+        }
+        assertThat(total).isEqualTo(100);
+        producer.get(10, TimeUnit.SECONDS);
+    }
+
+    /** A consumer closing its input early releases a blocked producer. */
+    @Test
+    void testConsumerClosesEarly() throws Exception {
+        final var pipe = new RowPipe(new DataTableSpec(), 1, 1);
+        final var producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (var i = 0; i < 1000; i++) {
+                    pipe.getOutput().push(row(i));
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(pipe.getInput().poll()).isNotNull();
+        pipe.getInput().close();
+        assertThatThrownBy(() -> producer.get(10, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(RowOutput.OutputClosedException.class);
+        assertThat(pipe.getInput().poll()).isNull();
+    }
+
+    /** A producer aborting the pipe makes the consumer fail after the rows pushed before instead of blocking. */
+    @Test
+    void testProducerAborts() throws Exception {
+        final var pipe = new RowPipe(new DataTableSpec(), 2, 2);
+        final var producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (var i = 0; i < 3; i++) {
+                    pipe.getOutput().push(row(i));
+                }
+                throw new IllegalStateException("producer failure");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                pipe.abort();
+            }
+        });
+        final RowInput input = pipe.getInput();
+        assertThat(input.poll().getKey().getString()).isEqualTo("Row0");
+        assertThat(input.poll().getKey().getString()).isEqualTo("Row1");
+        assertThatThrownBy(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return input.poll();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> producer.get(10, TimeUnit.SECONDS)).hasMessageContaining("producer failure");
+    }
+
+    /** Aborting after a regular close has no effect. */
+    @Test
+    void testAbortAfterClose() throws Exception {
+        final var pipe = new RowPipe(new DataTableSpec(), 2, 2);
+        pipe.getOutput().push(row(0));
+        pipe.getOutput().close();
+        pipe.abort();
+        assertThat(pipe.getInput().poll()).isNotNull();
+        assertThat(pipe.getInput().poll()).isNull();
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.knime.core.node.workflow.FlowVariable.Scope;
+
+/**
+ * Tests {@link FlowObjectStack}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class FlowObjectStackTest {
+
+    private static FlowObjectStack createStack(final int id, final String prefix, final int nrVariables) {
+        final List<FlowVariable> variables = new ArrayList<>();
+        for (int i = 0; i < nrVariables; i++) {
+            variables.add(new FlowVariable(prefix + i, i));
+        }
+        return FlowObjectStack.createFromFlowVariableList(variables, new NodeID(id));
+    }
+
+    /** Successor stacks see the variables of their predecessor, pushing onto them doesn't affect the predecessor. */
+    @Test
+    void testPushOnMergedStack() {
+        final FlowObjectStack pred = createStack(1, "var", 3);
+        final FlowObjectStack succ1 = new FlowObjectStack(new NodeID(2), new FlowObjectStack[]{pred});
+        final FlowObjectStack succ2 = new FlowObjectStack(new NodeID(3), new FlowObjectStack[]{pred});
+        assertThat(succ1.getAllAvailableFlowVariables()).isEqualTo(pred.getAllAvailableFlowVariables());
+
+        succ1.push(new FlowVariable("var1", "overwritten"));
+        assertThat(succ1.peekFlowVariable("var1", VariableType.StringType.INSTANCE)).isPresent();
+        assertThat(succ1.size()).isEqualTo(pred.size() + 1);
+        assertThat(pred.peekFlowVariable("var1", VariableType.StringType.INSTANCE)).isEmpty();
+        assertThat(succ2.getAllAvailableFlowVariables().get("var1").getIntValue()).isEqualTo(1);
+    }
+
+    /** Local variables are not propagated; the first input stack (flow variable port) overrules the others. */
+    @Test
+    void testMerge() {
+        final FlowObjectStack first = createStack(1, "var", 2);
+        first.push(new FlowVariable("local", 1, Scope.Local));
+        final FlowObjectStack second = createStack(2, "var", 3);
+        second.push(new FlowVariable("var0", 42));
+
+        final FlowObjectStack merged = new FlowObjectStack(new NodeID(3), new FlowObjectStack[]{first, second});
+        assertThat(merged.getAllAvailableFlowVariables()).doesNotContainKey("local").containsKeys("var1", "var2");
+        assertThat(merged.peekFlowVariable("var0", VariableType.IntType.INSTANCE).get().getIntValue()).isZero();
+    }
+
+    /** Popping a context removes everything above it, other stacks sharing the entries are unaffected. */
+    @Test
+    void testPop() {
+        final FlowObjectStack pred = createStack(1, "var", 1);
+        pred.push(new FlowLoopContext());
+        pred.push(new FlowVariable("inLoop", 1));
+        final FlowObjectStack succ = new FlowObjectStack(new NodeID(2), new FlowObjectStack[]{pred});
+
+        assertThat(succ.pop(FlowLoopContext.class)).isNotNull();
+        assertThat(succ.getAllAvailableFlowVariables()).doesNotContainKey("inLoop").containsKey("var0");
+        assertThat(pred.peek(FlowLoopContext.class)).isNotNull();
+        assertThat(pred.getAllAvailableFlowVariables()).containsKey("inLoop");
+    }
+
+    /**
+     * Micro-benchmark merging stacks along a chain of nodes (as done on configure), enabled with
+     * <code>-Dknime.benchmark.flowObjectStack=true</code>.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "knime.benchmark.flowObjectStack", matches = "true")
+    void benchmarkMergeChain() {
+        for (int nrVariables : new int[]{10, 100, 1000}) {
+            for (int depth : new int[]{10, 100}) {
+                final FlowObjectStack source = createStack(1, "var", nrVariables);
+                final long start = System.nanoTime();
+                for (int rep = 0; rep < 100; rep++) {
+                    FlowObjectStack stack = source;
+                    for (int d = 0; d < depth; d++) {
+                        stack = new FlowObjectStack(new NodeID(d + 2), new FlowObjectStack[]{stack});
+                        stack.getAllAvailableFlowVariables();
+                    }
+                }
+                System.out.printf("variables: %5d, depth: %4d - %8.3f ms per chain%n", nrVariables, depth,
+                    (System.nanoTime() - start) / 100 / 1e6);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.workflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests {@link NodeExecutionTracer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class NodeExecutionTracerTest {
+
+    private static final NodeExecutionTracer TRACER = NodeExecutionTracer.getInstance();
+
+    @AfterEach
+    void stopTracer() {
+        TRACER.stop();
+        TRACER.clear();
+    }
+
+    /** Events are only recorded while the tracer is started. */
+    @Test
+    void testRecordOnlyWhenEnabled() {
+        TRACER.stop();
+        TRACER.clear();
+        final long now = System.nanoTime();
+        TRACER.recordStep("Node (#1)", "execute", now, now + 1000, null);
+        assertThat(TRACER.getEventCount()).isZero();
+
+        TRACER.start();
+        TRACER.recordStep("Node (#1)", "execute", now, now + 1000, null);
+        assertThat(TRACER.getEventCount()).isEqualTo(1);
+    }
+
+    /** The written trace is a valid Chrome Trace Event JSON object including durations and arguments. */
+    @Test
+    void testWriteChromeTrace() throws IOException {
+        TRACER.start();
+        final long start = System.nanoTime();
+        TRACER.recordStep("Node (#1)", "NodeModel.execute", start, start + 5_000_000L, Map.of("rows_port1", 42L));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TRACER.writeChromeTrace(out);
+        final JsonNode root = new ObjectMapper().readTree(out.toByteArray());
+        final JsonNode events = root.get("traceEvents");
+        assertThat(events.isArray()).isTrue();
+
+        JsonNode executeEvent = null;
+        boolean hasThreadName = false;
+        for (JsonNode event : events) {
+            if ("M".equals(event.get("ph").asText())) {
+                hasThreadName = true;
+            } else if ("X".equals(event.get("ph").asText())) {
+                executeEvent = event;
+            }
+        }
+        assertThat(hasThreadName).as("thread name metadata event").isTrue();
+        assertThat(executeEvent).isNotNull();
+        assertThat(executeEvent.get("name").asText()).isEqualTo("Node (#1) - NodeModel.execute");
+        assertThat(executeEvent.get("cat").asText()).isEqualTo(NodeExecutionTracer.CATEGORY_NODE);
+        assertThat(executeEvent.get("dur").asLong()).isEqualTo(5000L);
+        assertThat(executeEvent.get("args").get("rows_port1").asLong()).isEqualTo(42L);
+    }
+
+    /** When the buffer is full the oldest events are dropped and their number is written with the trace. */
+    @Test
+    void testDropOldestEvents() throws IOException {
+        final NodeExecutionTracer tracer = new NodeExecutionTracer(3);
+        tracer.start();
+        try {
+            final long now = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                tracer.recordStep("Node (#1)", "step" + i, now, now + 1000, null);
+            }
+        } finally {
+            tracer.stop();
+        }
+        assertThat(tracer.getEventCount()).isEqualTo(3);
+        assertThat(tracer.getDroppedEventCount()).isEqualTo(2);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tracer.writeChromeTrace(out);
+        final JsonNode root = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(root.get("otherData").get("droppedEvents").asLong()).isEqualTo(2L);
+        final List<String> names = new ArrayList<>();
+        for (JsonNode event : root.get("traceEvents")) {
+            if ("X".equals(event.get("ph").asText())) {
+                names.add(event.get("name").asText());
+            }
+        }
+        assertThat(names).containsExactly("Node (#1) - step2", "Node (#1) - step3", "Node (#1) - step4");
+
+        tracer.clear();
+        assertThat(tracer.getEventCount()).isZero();
+        assertThat(tracer.getDroppedEventCount()).isZero();
+    }
+
+}
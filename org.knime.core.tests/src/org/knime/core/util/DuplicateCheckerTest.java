@@ -54,6 +54,7 @@
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.knime.core.data.RowKey;
 import org.knime.core.node.NodeLogger;
 
 import junit.framework.Assert;
@@ -96,6 +97,68 @@ public void testNoDuplicateManyRows() throws IOException {
         NodeLogger.getLogger(getClass()).info((System.currentTimeMillis() - t) + "ms");
     }
 
+    @Test
+    public void testGeneratedKeysNoDuplicates() throws DuplicateKeyException, IOException {
+        DuplicateChecker dc = new DuplicateChecker(100, 50);
+        for (long i = 0; i < 10000; i++) {
+            dc.addKey(RowKey.createRowKey(2 * i));
+        }
+        // fill the gaps, out of order and as strings
+        for (long i = 9999; i >= 0; i--) {
+            dc.addKey(RowKey.createRowKey(2 * i + 1));
+        }
+        dc.addKey("Row-1");
+        dc.addKey("Row00");
+        dc.checkForDuplicates();
+        dc.clear();
+    }
+
+    @Test
+    public void testGeneratedKeysDuplicateInRange() throws DuplicateKeyException, IOException {
+        DuplicateChecker dc = new DuplicateChecker();
+        for (long i = 0; i < 1000; i++) {
+            dc.addKey(RowKey.createRowKey(i));
+        }
+        expectedException.expect(DuplicateKeyException.class);
+        dc.addKey("Row500");
+    }
+
+    @Test
+    public void testGeneratedKeysDuplicateOutOfOrder() throws DuplicateKeyException, IOException {
+        DuplicateChecker dc = new DuplicateChecker(10, 50);
+        dc.addKey(RowKey.createRowKey(100));
+        for (long i = 0; i < 50; i++) {
+            dc.addKey(RowKey.createRowKey(i));
+        }
+        dc.addKey("Row25");
+        expectedException.expect(DuplicateKeyException.class);
+        dc.checkForDuplicates();
+    }
+
+    @Test
+    public void testGeneratedKeysBeyondMaxRanges() throws DuplicateKeyException, IOException {
+        DuplicateChecker dc = new DuplicateChecker(10, 50);
+        // one range per key, ranges are closed after 10 keys and later keys are spilled as strings
+        for (long i = 0; i < 100; i++) {
+            dc.addKey(RowKey.createRowKey(2 * i));
+        }
+        // adjacent to the last range but must not extend the ranges over the string keys
+        dc.addKey(RowKey.createRowKey(19));
+        expectedException.expect(DuplicateKeyException.class);
+        dc.addKey(RowKey.createRowKey(20));
+        dc.checkForDuplicates();
+    }
+
+    @Test
+    public void testGeneratedKeysDuplicateInClosedRanges() throws DuplicateKeyException, IOException {
+        DuplicateChecker dc = new DuplicateChecker(10, 50);
+        for (long i = 0; i < 100; i++) {
+            dc.addKey(RowKey.createRowKey(2 * i));
+        }
+        expectedException.expect(DuplicateKeyException.class);
+        dc.addKey("Row6");
+    }
+
     @Test
     public void testNoStringsAtAll() throws DuplicateKeyException, IOException {
         DuplicateChecker dc = new DuplicateChecker();
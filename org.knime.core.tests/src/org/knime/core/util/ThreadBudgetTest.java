@@ -0,0 +1,106 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ThreadBudget}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class ThreadBudgetTest {
+
+    /** A single consumer gets what it requested, limited by the total. */
+    @Test
+    void testSingleConsumer() {
+        final ThreadBudget budget = new ThreadBudget(() -> 8);
+        try (ThreadBudget.Lease lease = budget.acquire(4)) {
+            assertThat(lease.getWorkerCount()).isEqualTo(4);
+        }
+        try (ThreadBudget.Lease lease = budget.acquire(12)) {
+            assertThat(lease.getWorkerCount()).isEqualTo(8);
+        }
+        assertThat(budget.getActiveLeaseCount()).isZero();
+    }
+
+    /** Shares shrink when more consumers are active and grow again when they release their lease. */
+    @Test
+    void testRebalancing() {
+        final ThreadBudget budget = new ThreadBudget(() -> 8);
+        final ThreadBudget.Lease first = budget.acquire(8);
+        final ThreadBudget.Lease second = budget.acquire(8);
+        final ThreadBudget.Lease third = budget.acquire(8);
+        assertThat(first.getWorkerCount()).isEqualTo(3);
+        assertThat(third.getWorkerCount()).isEqualTo(3);
+
+        third.close();
+        third.close(); // idempotent
+        assertThat(budget.getActiveLeaseCount()).isEqualTo(2);
+        assertThat(first.getWorkerCount()).isEqualTo(4);
+
+        second.close();
+        assertThat(first.getWorkerCount()).isEqualTo(8);
+        first.close();
+    }
+
+    /** Every consumer gets at least one worker, even if there are more consumers than threads. */
+    @Test
+    void testAtLeastOneWorker() {
+        final ThreadBudget budget = new ThreadBudget(() -> 2);
+        final ThreadBudget.Lease[] leases = new ThreadBudget.Lease[5];
+        for (int i = 0; i < leases.length; i++) {
+            leases[i] = budget.acquire(4);
+        }
+        for (ThreadBudget.Lease lease : leases) {
+            assertThat(lease.getWorkerCount()).isEqualTo(1);
+            lease.close();
+        }
+    }
+
+}
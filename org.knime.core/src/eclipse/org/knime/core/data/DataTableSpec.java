@@ -369,9 +369,14 @@ public void verifyIndices(final int... indices) {
         }
     }
 
-    /** Keeps column name to column index mapping for faster access. */
-    private final Map<String, Integer> m_colIndexMap =
-            new HashMap<String, Integer>();
+    /**
+     * Keeps column name to column index mapping for faster access. Built lazily on first lookup if the column names
+     * were already verified to be unique by the caller (see {@link DataTableSpecCreator#createSpec()}).
+     */
+    private volatile Map<String, Integer> m_colIndexMap;
+
+    /** Cached result of {@link #hashCode()}, 0 if not yet computed. */
+    private int m_hashCode;
 
     /** The index of the column holding the ColorHandler (used to determine the color of a row) or -1 if not set. */
     private final int m_colorHandlerColIndex;
@@ -482,6 +487,22 @@ public DataTableSpec(final String name, final DataColumnSpec... colSpecs) {
      */
     DataTableSpec(final String name, final DataColumnSpec[] colSpecs, final Map<String, String> properties,
         final ColorHandler columnColorHandler) {
+        this(name, colSpecs, properties, columnColorHandler, false);
+    }
+
+    /**
+     * Constructor used eventually also by other constructors and the creator. Column specs are shared with the
+     * argument array (column specs are immutable), only columns whose handlers need to be removed are copied.
+     *
+     * @param name Name of spec.
+     * @param colSpecs Columns.
+     * @param properties Properties.
+     * @param columnColorHandler The {@link ColorHandler} to use on this spec, or {@code null}.
+     * @param namesAreUnique If true the caller guarantees that the column names are unique, the name to index map is
+     *            then only built when first needed.
+     */
+    DataTableSpec(final String name, final DataColumnSpec[] colSpecs, final Map<String, String> properties,
+        final ColorHandler columnColorHandler, final boolean namesAreUnique) {
         m_name = (name == null ? DFT_SPEC_NAME : name);
         final int colCount = colSpecs.length;
         m_columnSpecs = new DataColumnSpec[colCount];
@@ -489,22 +510,22 @@ public DataTableSpec(final String name, final DataColumnSpec... colSpecs) {
         int sizeHdlIdx  = -1;
         int shapeHdlIdx = -1;
         List<Integer> filterHandlerIndices = new ArrayList<>();
+        final Map<String, Integer> colIndexMap = namesAreUnique ? null : new HashMap<>(capacityFor(colCount));
 
         for (var i = 0; i < colCount; i++) {
             // disallow duplicates
             String currentName = colSpecs[i].getName();
 
             // if the value is not null, duplicate column name found
-            final Integer duplicateValue =
-                    m_colIndexMap.put(colSpecs[i].getName(), i);
+            final Integer duplicateValue = colIndexMap == null ? null : colIndexMap.put(currentName, i);
             if (duplicateValue != null) {
                 throw new IllegalArgumentException("Duplicate column name \""
                         + currentName + "\" at positions "
                         + duplicateValue + " and " + i + ".");
             }
 
-            // creator used to remove handlers
-            var cr = new DataColumnSpecCreator(colSpecs[i]);
+            // creator used to remove handlers, only instantiated if needed
+            DataColumnSpecCreator cr = null;
 
             // allow multiple color handlers (changed in 5.1 - as per AP-20239), use "left-most" column as primary
             if (colSpecs[i].getColorHandler() != null && colorHdlIdx < 0) {
@@ -517,6 +538,7 @@ public DataTableSpec(final String name, final DataColumnSpec... colSpecs) {
                     LOGGER.warn("Found multiple size handlers at columns "
                             + "index " + sizeHdlIdx + " and "
                             + i + ", removed second one.");
+                    cr = new DataColumnSpecCreator(colSpecs[i]);
                     cr.setSizeHandler(null);
                 } else {
                     sizeHdlIdx = i;
@@ -529,6 +551,9 @@ public DataTableSpec(final String name, final DataColumnSpec... colSpecs) {
                     LOGGER.warn("Found multiple shape handlers at columns "
                             + "index " + shapeHdlIdx + " and "
                             + i + ", removed second one.");
+                    if (cr == null) {
+                        cr = new DataColumnSpecCreator(colSpecs[i]);
+                    }
                     cr.setShapeHandler(null);
                 } else {
                     shapeHdlIdx = i;
@@ -539,8 +564,10 @@ public DataTableSpec(final String name, final DataColumnSpec... colSpecs) {
                 filterHandlerIndices.add(i);
             }
 
-            m_columnSpecs[i] = cr.createSpec();
+            m_columnSpecs[i] = cr == null ? colSpecs[i] : cr.createSpec();
         }
+        assert !namesAreUnique || createColIndexMap(m_columnSpecs).size() == colCount : "Duplicate column names";
+        m_colIndexMap = colIndexMap;
         m_sizeHandlerColIndex  = sizeHdlIdx;
         m_colorHandlerColIndex = colorHdlIdx;
         m_shapeHandlerColIndex = shapeHdlIdx;
@@ -730,6 +757,10 @@ public boolean equals(final Object obj) {
         if (!m_name.equals(spec.m_name)) {
             return false;
         }
+        // only compare hash codes if both are known already - computing them is as expensive as the comparison
+        if (m_hashCode != 0 && spec.m_hashCode != 0 && m_hashCode != spec.m_hashCode) {
+            return false;
+        }
         if (m_shapeHandlerColIndex != spec.m_shapeHandlerColIndex
                 || m_colorHandlerColIndex != spec.m_colorHandlerColIndex
                 || m_sizeHandlerColIndex != spec.m_sizeHandlerColIndex) {
@@ -782,10 +813,30 @@ public int findColumnIndex(final String columnName) {
         if (columnName == null) {
             return -1;
         }
-        Integer result = m_colIndexMap.get(columnName);
+        Map<String, Integer> colIndexMap = m_colIndexMap;
+        if (colIndexMap == null) {
+            // concurrent callers may both build the map, which is harmless as the result is the same
+            colIndexMap = createColIndexMap(m_columnSpecs);
+            m_colIndexMap = colIndexMap;
+        }
+        Integer result = colIndexMap.get(columnName);
         return result == null ? -1 : result;
     }
 
+    /** Creates the column name to index map for the argument columns (later duplicates replace earlier ones). */
+    private static Map<String, Integer> createColIndexMap(final DataColumnSpec[] colSpecs) {
+        final Map<String, Integer> result = new HashMap<>(capacityFor(colSpecs.length));
+        for (int i = 0; i < colSpecs.length; i++) {
+            result.put(colSpecs[i].getName(), i);
+        }
+        return result;
+    }
+
+    /** Initial capacity for a hash map that is to hold the given number of entries without rehashing. */
+    private static int capacityFor(final int size) {
+        return (int)(size / 0.75f) + 1;
+    }
+
     /**
      * Returns an array of strings retrieved by {@link DataColumnSpec#getName()}
      * for all column specs with this spec (ordered by index).
@@ -963,7 +1014,12 @@ public int hashCode() {
          * this hash code ignores the order of the columns. Thus, two specs
          * having the same columns (but in different order) end up with the same
          * hash code. Hopefully, this is ok anyway.
+         * The hash is cached as the spec is immutable (same idiom as String#hashCode).
          */
+        int hash = m_hashCode;
+        if (hash != 0) {
+            return hash;
+        }
         int tempHash = 0;
         for (int i = 0; i < getNumColumns(); i++) {
             int colHash = getColumnSpec(i).hashCode();
@@ -971,6 +1027,7 @@ public int hashCode() {
         }
         tempHash ^= m_properties.hashCode();
         tempHash ^= m_columnNamesColorHandler.hashCode();
+        m_hashCode = tempHash;
         return tempHash;
     }
 
@@ -1071,22 +1128,27 @@ public static DataTableSpec mergeDataTableSpecs(
         }
         DataColumnSpecCreator[] mergedColSpecCreators =
                 new DataColumnSpecCreator[firstSpec.getNumColumns()];
-        for (int i = 0; i < mergedColSpecCreators.length; i++) {
-            mergedColSpecCreators[i] =
-                    new DataColumnSpecCreator(firstSpec.getColumnSpec(i));
-        }
 
-        // merge with ColumnSpecs from other DataTableSpecs
+        // merge with ColumnSpecs from other DataTableSpecs; columns that are shared (same instance) by all
+        // specs need no merging (common for specs derived from the same input)
         for (int i = 1; i < specs.length; i++) {
             DataTableSpec spec = specs[i];
             for (int c = 0; c < spec.getNumColumns(); c++) {
-                mergedColSpecCreators[c].merge(spec.getColumnSpec(c));
+                DataColumnSpec colSpec = spec.getColumnSpec(c);
+                if (mergedColSpecCreators[c] == null) {
+                    if (colSpec == firstSpec.getColumnSpec(c)) {
+                        continue;
+                    }
+                    mergedColSpecCreators[c] = new DataColumnSpecCreator(firstSpec.getColumnSpec(c));
+                }
+                mergedColSpecCreators[c].merge(colSpec);
             }
         }
         DataColumnSpec[] mergedcolspecs =
                 new DataColumnSpec[mergedColSpecCreators.length];
         for (int i = 0; i < mergedcolspecs.length; i++) {
-            mergedcolspecs[i] = mergedColSpecCreators[i].createSpec();
+            mergedcolspecs[i] = mergedColSpecCreators[i] == null ? firstSpec.getColumnSpec(i)
+                : mergedColSpecCreators[i].createSpec();
         }
 
         // append first column color handler
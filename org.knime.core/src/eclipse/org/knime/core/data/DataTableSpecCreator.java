@@ -255,8 +255,9 @@ public DataTableSpecCreator dropAllColumns() {
      * @return A new table spec.
      */
     public DataTableSpec createSpec() {
+        // column names are unique as guaranteed by addColumns and replaceColumn
         return new DataTableSpec(m_name, m_columnSpecs.toArray(new DataColumnSpec[m_columnSpecs.size()]), m_properties,
-            m_columnNamesColorHandler);
+            m_columnNamesColorHandler, true);
     }
 
 }
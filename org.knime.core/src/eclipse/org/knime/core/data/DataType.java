@@ -225,7 +225,7 @@ public String toString() {
      * {@link org.knime.core.data.DataValue} implementation.
      */
     private static final Map<ClassAndSubDataTypePair, DataType>
-        CLASS_TO_TYPE_MAP = new HashMap<ClassAndSubDataTypePair, DataType>();
+        CLASS_TO_TYPE_MAP = new ConcurrentHashMap<ClassAndSubDataTypePair, DataType>();
 
     /** Checks whether the given package name starts with either {@code "com.knime."} or {@code "org.knime."}. */
     private static final Predicate<String> IS_KNIME_PACKAGE = Pattern.compile("^(?:com|org)\\.knime\\.").asPredicate();
@@ -392,6 +392,16 @@ public static DataType getCommonSuperType(final DataType type1, final DataType t
             return type2;
         }
 
+        // the lookup in the registry is expensive and done for each column when specs are merged, hence cached
+        DataType superType = type1.m_commonSuperTypes.get(type2);
+        if (superType == null) {
+            superType = computeCommonSuperType(type1, type2);
+            type1.m_commonSuperTypes.putIfAbsent(type2, superType);
+        }
+        return superType;
+    }
+
+    private static DataType computeCommonSuperType(final DataType type1, final DataType type2) {
         /*
          * We exclude "impostor" data types here because those can be introduced by badly implemented extensions and
          * would then lead to bogus "super-types" which can break workflows (see AP-21471).
@@ -535,7 +545,11 @@ public static DataType getType(final Class<? extends DataCell> cell) {
         DataType result = CLASS_TO_TYPE_MAP.get(key);
         if (result == null) {
             result = new DataType(cell, null, Collections.EMPTY_LIST);
-            CLASS_TO_TYPE_MAP.put(key, result);
+            // not computeIfAbsent, creating a type may create (and cache) other types
+            final DataType existing = CLASS_TO_TYPE_MAP.putIfAbsent(key, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
         return result;
     }
@@ -589,7 +603,11 @@ public static DataType getType(final Class<? extends DataCell> cellClass,
         DataType result = CLASS_TO_TYPE_MAP.get(key);
         if (result == null) {
             result = new DataType(cellClass, collectionElementType, adapterList);
-            CLASS_TO_TYPE_MAP.put(key, result);
+            // not computeIfAbsent, creating a type may create (and cache) other types
+            final DataType existing = CLASS_TO_TYPE_MAP.putIfAbsent(key, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
         return result;
     }
@@ -732,6 +750,12 @@ public static DataType createNonNativeType(final List<Class<? extends DataValue>
     /** a map that caches whether certain encountered types are subtypes of this type */
     private final Map<DataType, Boolean> m_subTypes = new ConcurrentHashMap<>(100, 1 / 3f);
 
+    /** a map that caches the common super types of this type and certain encountered types */
+    private final Map<DataType, DataType> m_commonSuperTypes = new ConcurrentHashMap<>();
+
+    /** a map that caches whether this type is compatible to certain value classes */
+    private final Map<Class<? extends DataValue>, Boolean> m_compatibleValueClasses = new ConcurrentHashMap<>();
+
     private String m_name;
 
     /** the cached hash code of this type */
@@ -1226,6 +1250,10 @@ private boolean isASuperTypeOfInternal(final DataType type) {
      * @throws NullPointerException If the argument is null.
      */
     public boolean isCompatible(final Class<? extends DataValue> valueClass) {
+        return m_compatibleValueClasses.computeIfAbsent(valueClass, this::isCompatibleInternal);
+    }
+
+    private boolean isCompatibleInternal(final Class<? extends DataValue> valueClass) {
         for (Class<? extends DataValue> cl : m_valueClasses) {
             // a missing value is by definition always compatible, see also DataCell#isMissing()
             if (MissingValue.class.equals(cl) || valueClass.isAssignableFrom(cl)) {
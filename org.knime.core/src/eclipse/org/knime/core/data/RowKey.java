@@ -55,13 +55,24 @@
 /**
  * Key for a specific row which holds an identifier of type {@link String}.
  *
+ * <p>
+ * Keys created by {@link #createRowKey(long)} only keep the row index; their
+ * string is created when first requested via {@link #getString()}.
+ *
  * @see DataRow
  * @author Michael Berthold, University of Konstanz
  */
 public final class RowKey implements RowKeyValue {
 
-    /** Private member holding non-null row id. */
-    private final String m_id;
+    /** Prefix of keys created by {@link #createRowKey(long)}. */
+    private static final String GENERATED_PREFIX = "Row";
+
+    private static final int GENERATED_PREFIX_HASH = GENERATED_PREFIX.hashCode();
+
+    /** Row id, either a {@link String} or, for keys created by
+     * {@link #createRowKey(long)}, a {@link GeneratedId}. A single field keeps
+     * string based keys at their previous size. */
+    private final Object m_id;
 
     /**
      * Creates a row key based on a {@link String}.
@@ -76,10 +87,104 @@ public RowKey(final String id) {
         m_id = id;
     }
 
+    private RowKey(final long index) {
+        m_id = new GeneratedId(index);
+    }
+
     /** @return Underlying string of this row key. */
     @Override
     public String getString() {
-        return m_id;
+        final Object id = m_id;
+        return id instanceof GeneratedId ? ((GeneratedId)id).getString() : (String)id;
+    }
+
+    /**
+     * Whether this key has the form of the keys created by
+     * {@link #createRowKey(long)}, i.e. <code>"Row" + rowIndex</code>. This
+     * is also true for equal keys created from a {@link String}.
+     *
+     * @return whether this is a generated key
+     * @since 5.3
+     */
+    public boolean isGeneratedKey() {
+        return m_id instanceof GeneratedId || parseGeneratedIndex((String)m_id) != null;
+    }
+
+    /**
+     * Returns the row index of a generated key.
+     *
+     * @return the index, such that this key equals
+     *         <code>createRowKey(index)</code>
+     * @throws IllegalStateException if this is not a generated key
+     * @see #isGeneratedKey()
+     * @since 5.3
+     */
+    public long getGeneratedIndex() {
+        if (m_id instanceof GeneratedId) {
+            return ((GeneratedId)m_id).m_index;
+        }
+        final Long index = parseGeneratedIndex((String)m_id);
+        if (index == null) {
+            throw new IllegalStateException(
+                "Not a generated row key: \"" + m_id + "\"");
+        }
+        return index;
+    }
+
+    /**
+     * @return the index if the argument equals <code>"Row" + index</code>
+     *         (no leading zeros or plus sign), otherwise null
+     */
+    private static Long parseGeneratedIndex(final String id) {
+        final int length = id.length();
+        if (length <= GENERATED_PREFIX.length()
+            || length > GENERATED_PREFIX.length() + 20
+            || !id.startsWith(GENERATED_PREFIX)) {
+            return null;
+        }
+        int start = GENERATED_PREFIX.length();
+        if (id.charAt(start) == '-') {
+            start++;
+        }
+        for (int i = start; i < length; i++) {
+            final char c = id.charAt(i);
+            if (c < '0' || c > '9' || (c == '0' && i == start
+                && (length - start > 1 || start > GENERATED_PREFIX.length()))) {
+                return null;
+            }
+        }
+        if (start == length) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id, GENERATED_PREFIX.length(), length, 10);
+        } catch (NumberFormatException nfe) { // NOSONAR out of long range
+            return null;
+        }
+    }
+
+    /** @return the hash code of <code>"Row" + index</code>, computed without
+     * creating the string */
+    private static int generatedHashCode(final long index) {
+        int hash = GENERATED_PREFIX_HASH;
+        // work on non-positive numbers to support Long.MIN_VALUE
+        long q = index;
+        if (q < 0) {
+            hash = 31 * hash + '-';
+        } else {
+            q = -q;
+        }
+        long divisor = -1;
+        while (divisor >= Long.MIN_VALUE / 10 && q <= divisor * 10) {
+            divisor *= 10;
+        }
+        while (divisor != 0) {
+            final long digit = q / divisor;
+            hash = 31 * hash + (int)('0' + digit);
+            q -= digit * divisor;
+            divisor /= 10;
+        }
+        return hash;
     }
 
     /** {@inheritDoc} */
@@ -95,9 +200,13 @@ public boolean equals(final Object obj) {
             return true;
         }
         if (obj instanceof RowKey) {
-            return ((RowKey)obj).m_id.equals(m_id);
+            final RowKey other = (RowKey)obj;
+            if (m_id instanceof GeneratedId && other.m_id instanceof GeneratedId) {
+                return ((GeneratedId)m_id).m_index == ((GeneratedId)other.m_id).m_index;
+            }
+            return other.getString().equals(getString());
         } else if (obj instanceof RowKeyValue) {
-            return ((RowKeyValue)obj).getString().equals(m_id);
+            return ((RowKeyValue)obj).getString().equals(getString());
         }
         return false;
     }
@@ -110,6 +219,54 @@ public int hashCode() {
         return m_id.hashCode();
     }
 
+    /** Id of a key created by {@link #createRowKey(long)}. Its hash code and
+     * string equal those of <code>"Row" + index</code>; both are computed on
+     * first request and cached. Concurrent lazy assignments store equal
+     * values. */
+    private static final class GeneratedId {
+
+        private final long m_index;
+
+        /** Cached hash code, 0 if not computed yet. */
+        private int m_hash;
+
+        /** Cached string, null if not requested yet. */
+        private String m_string;
+
+        GeneratedId(final long index) {
+            m_index = index;
+        }
+
+        String getString() {
+            String string = m_string;
+            if (string == null) {
+                string = GENERATED_PREFIX + m_index;
+                m_string = string;
+            }
+            return string;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = m_hash;
+            if (hash == 0) {
+                hash = generatedHashCode(m_index);
+                m_hash = hash;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof GeneratedId && ((GeneratedId)obj).m_index == m_index;
+        }
+
+        @Override
+        public String toString() {
+            return getString();
+        }
+    }
+
     /**
      * Converts the given array of <code>RowKey</code>s to an array of
      * <code>String</code> elements by calling {@link RowKey#getString()}.
@@ -159,7 +316,7 @@ public static RowKey[] toRowKeys(final String... strs) {
      */
     @Deprecated
     public static RowKey createRowKey(final int rowIndex) {
-        return new RowKey("Row" + rowIndex);
+        return new RowKey((long)rowIndex);
     }
 
     /**
@@ -176,6 +333,6 @@ public static RowKey createRowKey(final int rowIndex) {
      * @since 3.0
      */
     public static RowKey createRowKey(final long rowIndex) {
-        return new RowKey("Row" + rowIndex);
+        return new RowKey(rowIndex);
     }
 }
@@ -99,6 +99,12 @@ protected BlobSupportDataCellList(
         init(coll);
     }
 
+    private BlobSupportDataCellList(final List<DataCell> cellList,
+            final DataType elementType) {
+        m_cellList = cellList;
+        m_elementType = elementType;
+    }
+
     private void init(final Collection<? extends DataCell> coll) {
         ArrayList<DataCell> cellList = new ArrayList<DataCell>(coll.size());
         DataType commonType = null;
@@ -231,6 +237,9 @@ public int hashCode() {
      * @throws IOException If that fails.
      */
     public void serialize(final DataCellDataOutput output) throws IOException {
+        if (PrimitiveElementEncoding.write(m_cellList, size(), output)) {
+            return;
+        }
         output.writeInt(size());
         for (DataCell c : m_cellList) {
             output.writeDataCell(c);
@@ -248,6 +257,10 @@ public void serialize(final DataCellDataOutput output) throws IOException {
     public static BlobSupportDataCellList deserialize(
             final DataCellDataInput input) throws IOException {
         int size = input.readInt();
+        if (PrimitiveElementEncoding.isMarker(size)) {
+            return createUnchecked(PrimitiveElementEncoding.read(size, input),
+                    PrimitiveElementEncoding.getElementType(size));
+        }
         if (size < 0) {
             throw new IOException("Invalid size: " + size);
         }
@@ -275,6 +288,22 @@ public static BlobSupportDataCellList create(
         return new BlobSupportDataCellList(coll);
     }
 
+    /**
+     * Creates a new list taking over the argument list without inspecting its
+     * elements. Only to be used for lists of non-missing, non-blob cells that
+     * are all of the given type (as created by the bulk factory methods in
+     * {@link CollectionCellFactory}).
+     *
+     * @param cells The cells, not copied.
+     * @param elementType The type of all cells.
+     * @return The newly created list.
+     */
+    static BlobSupportDataCellList createUnchecked(final List<DataCell> cells,
+            final DataType elementType) {
+        return new BlobSupportDataCellList(cells, cells.isEmpty()
+                ? DataType.getMissingCell().getType() : elementType);
+    }
+
     /**
      * Create new list based on selected cell from a {@link DataRow}. Using
      * this method will check if the row is returned by a
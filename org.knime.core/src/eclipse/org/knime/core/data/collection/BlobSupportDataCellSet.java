@@ -237,6 +237,10 @@ public int size() {
      * @throws IOException If that fails.
      */
     public void serialize(final DataCellDataOutput output) throws IOException {
+        if (PrimitiveElementEncoding.write(
+                () -> m_set.stream().map(Wrapper::getCell).iterator(), size(), output)) {
+            return;
+        }
         output.writeInt(size());
         for (Wrapper w : m_set) {
             DataCell c = w.getCell();
@@ -255,6 +259,10 @@ public void serialize(final DataCellDataOutput output) throws IOException {
     public static BlobSupportDataCellSet deserialize(
             final DataCellDataInput input) throws IOException {
         int size = input.readInt();
+        if (PrimitiveElementEncoding.isMarker(size)) {
+            return new BlobSupportDataCellSet(
+                    PrimitiveElementEncoding.read(size, input));
+        }
         if (size < 0) {
             throw new IOException("Invalid size: " + size);
         }
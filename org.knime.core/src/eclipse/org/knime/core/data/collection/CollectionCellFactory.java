@@ -52,12 +52,20 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
 import org.knime.core.data.container.BlobSupportDataRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.vector.doublevector.DenseDoubleVectorCell;
 import org.knime.core.node.BufferedDataTable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Factory class used to create {@link DataCell}s that contain a collection of
@@ -90,6 +98,63 @@ public static ListCell createListCell(
         return new ListCell(l);
     }
 
+    /**
+     * Creates a {@link ListCell} of {@link IntCell}s from the argument values.
+     * Other than {@link #createListCell(Collection)} this does not need to
+     * inspect each element to determine the element type.
+     *
+     * @param values The values of the list.
+     * @return The newly created {@link ListCell}.
+     * @throws NullPointerException If the argument is null.
+     * @since 5.3
+     */
+    public static ListCell createListCell(final int[] values) {
+        final List<DataCell> cells = new ArrayList<DataCell>(values.length);
+        for (final int v : values) {
+            cells.add(new IntCell(v));
+        }
+        return new ListCell(
+            BlobSupportDataCellList.createUnchecked(cells, IntCell.TYPE));
+    }
+
+    /**
+     * Creates a {@link ListCell} of {@link LongCell}s from the argument
+     * values.
+     *
+     * @param values The values of the list.
+     * @return The newly created {@link ListCell}.
+     * @throws NullPointerException If the argument is null.
+     * @see #createListCell(int[])
+     * @since 5.3
+     */
+    public static ListCell createListCell(final long[] values) {
+        final List<DataCell> cells = new ArrayList<DataCell>(values.length);
+        for (final long v : values) {
+            cells.add(new LongCell(v));
+        }
+        return new ListCell(
+            BlobSupportDataCellList.createUnchecked(cells, LongCell.TYPE));
+    }
+
+    /**
+     * Creates a {@link ListCell} of {@link DoubleCell}s from the argument
+     * values.
+     *
+     * @param values The values of the list.
+     * @return The newly created {@link ListCell}.
+     * @throws NullPointerException If the argument is null.
+     * @see #createListCell(int[])
+     * @since 5.3
+     */
+    public static ListCell createListCell(final double[] values) {
+        final List<DataCell> cells = new ArrayList<DataCell>(values.length);
+        for (final double v : values) {
+            cells.add(new DoubleCell(v));
+        }
+        return new ListCell(
+            BlobSupportDataCellList.createUnchecked(cells, DoubleCell.TYPE));
+    }
+
     /**
      * Creates a new {@link ListCell} based on selected cells from a
      * {@link DataRow}. Using this method will check if the row is returned by
@@ -246,6 +311,83 @@ public static SetCell createSetCell(final DataRow row, final int[] cols) {
         return new SetCell(l);
     }
 
+    /**
+     * Copies the elements of a collection of {@link IntValue}s into a new
+     * array, without going through boxed objects.
+     *
+     * @param coll The collection, e.g. a list of {@link IntCell}s.
+     * @return A new array holding the elements in iteration order.
+     * @throws IllegalArgumentException If the collection contains missing
+     *             values.
+     * @throws ClassCastException If an element is not an {@link IntValue}.
+     * @since 5.3
+     */
+    public static int[] getIntValues(final CollectionDataValue coll) {
+        final int[] result = new int[coll.size()];
+        int i = 0;
+        for (final DataCell c : coll) {
+            result[i] = ((IntValue)checkNotMissing(c, i)).getIntValue();
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Copies the elements of a collection of {@link LongValue}s into a new
+     * array.
+     *
+     * @param coll The collection, e.g. a list of {@link LongCell}s.
+     * @return A new array holding the elements in iteration order.
+     * @throws IllegalArgumentException If the collection contains missing
+     *             values.
+     * @throws ClassCastException If an element is not a {@link LongValue}.
+     * @see #getIntValues(CollectionDataValue)
+     * @since 5.3
+     */
+    public static long[] getLongValues(final CollectionDataValue coll) {
+        final long[] result = new long[coll.size()];
+        int i = 0;
+        for (final DataCell c : coll) {
+            result[i] = ((LongValue)checkNotMissing(c, i)).getLongValue();
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Copies the elements of a collection of {@link DoubleValue}s into a new
+     * array. For a {@link DenseDoubleVectorCell} the underlying array is
+     * copied directly.
+     *
+     * @param coll The collection, e.g. a list of {@link DoubleCell}s.
+     * @return A new array holding the elements in iteration order.
+     * @throws IllegalArgumentException If the collection contains missing
+     *             values.
+     * @throws ClassCastException If an element is not a {@link DoubleValue}.
+     * @see #getIntValues(CollectionDataValue)
+     * @since 5.3
+     */
+    public static double[] getDoubleValues(final CollectionDataValue coll) {
+        if (coll instanceof DenseDoubleVectorCell) {
+            return ((DenseDoubleVectorCell)coll).toDoubleArray();
+        }
+        final double[] result = new double[coll.size()];
+        int i = 0;
+        for (final DataCell c : coll) {
+            result[i] = ((DoubleValue)checkNotMissing(c, i)).getDoubleValue();
+            i++;
+        }
+        return result;
+    }
+
+    private static DataCell checkNotMissing(final DataCell c, final int index) {
+        if (c.isMissing()) {
+            throw new IllegalArgumentException(
+                "Collection contains missing value at index " + index);
+        }
+        return c;
+    }
+
     /**
      * Determines the super type of the specified columns. This type will be the
      * element type if a collection is created from the elements in the
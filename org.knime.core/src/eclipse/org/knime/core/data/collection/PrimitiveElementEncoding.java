@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.collection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.DCObjectOutputVersion2.DCLongUTFDataOutputStream;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.util.VarLongCoding;
+import org.knime.core.node.KNIMEConstants;
+
+/**
+ * Compact encoding of the elements of a collection whose elements are all {@link IntCell}s, {@link LongCell}s,
+ * {@link DoubleCell}s or {@link StringCell}s (exactly these classes, no missing values). Instead of writing each
+ * element as a full {@link DataCell} (with control bytes, type information and file store handling), the values are
+ * written as a length-prefixed primitive array; longs are delta and variable-length encoded.
+ *
+ * <p>
+ * The plain encoding of {@link BlobSupportDataCellList} and {@link BlobSupportDataCellSet} starts with the
+ * (non-negative) number of elements. The compact encoding starts with a negative marker identifying the element type,
+ * followed by the number of elements and the values. Readers therefore handle both encodings transparently. The
+ * compact encoding is only written to tables in the current default table format, as older versions can't read it;
+ * all other outputs (port objects, other table formats) get the plain encoding.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PrimitiveElementEncoding {
+
+    /** Whether the compact encoding is used when writing collections, see {@link KNIMEConstants}. */
+    static final boolean IS_ENABLED =
+        !Boolean.getBoolean(KNIMEConstants.PROPERTY_TABLE_DISABLE_COMPACT_COLLECTION_ENCODING);
+
+    private static final int MARKER_INT = -1;
+
+    private static final int MARKER_LONG = -2;
+
+    private static final int MARKER_DOUBLE = -3;
+
+    private static final int MARKER_STRING = -4;
+
+    private PrimitiveElementEncoding() {
+    }
+
+    /**
+     * @param sizeOrMarker the first int read from the stream
+     * @return whether it's the marker of a compact encoding (rather than the size of a plainly encoded collection)
+     */
+    static boolean isMarker(final int sizeOrMarker) {
+        return sizeOrMarker <= MARKER_INT && sizeOrMarker >= MARKER_STRING;
+    }
+
+    /**
+     * @param marker the marker read from the stream
+     * @return the type of all elements in a collection of that encoding
+     */
+    static DataType getElementType(final int marker) {
+        switch (marker) {
+            case MARKER_INT:
+                return IntCell.TYPE;
+            case MARKER_LONG:
+                return LongCell.TYPE;
+            case MARKER_DOUBLE:
+                return DoubleCell.TYPE;
+            case MARKER_STRING:
+                return StringCell.TYPE;
+            default:
+                throw new IllegalArgumentException("Invalid marker: " + marker);
+        }
+    }
+
+    /**
+     * Writes the cells in the compact encoding, if applicable and the output is a table in the current default table
+     * format.
+     *
+     * @param cells the elements of the collection
+     * @param size the number of elements
+     * @param output to write to
+     * @return true if the cells have been written, false if the encoding is not applicable (nothing written then)
+     * @throws IOException if writing fails
+     */
+    static boolean write(final Iterable<DataCell> cells, final int size, final DataCellDataOutput output)
+        throws IOException {
+        final int marker = IS_ENABLED && size > 0 && isDefaultTableFormat(output) ? getMarker(cells) : 0;
+        if (marker == 0) {
+            return false;
+        }
+        output.writeInt(marker);
+        output.writeInt(size);
+        final Iterator<DataCell> it = cells.iterator();
+        switch (marker) {
+            case MARKER_INT:
+                while (it.hasNext()) {
+                    output.writeInt(((IntCell)it.next()).getIntValue());
+                }
+                break;
+            case MARKER_LONG:
+                long previous = 0;
+                while (it.hasNext()) {
+                    final long value = ((LongCell)it.next()).getLongValue();
+                    VarLongCoding.write(output, value - previous);
+                    previous = value;
+                }
+                break;
+            case MARKER_DOUBLE:
+                while (it.hasNext()) {
+                    output.writeDouble(((DoubleCell)it.next()).getDoubleValue());
+                }
+                break;
+            default:
+                while (it.hasNext()) {
+                    output.writeUTF(((StringCell)it.next()).getStringValue());
+                }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the elements of a compactly encoded collection.
+     *
+     * @param marker the marker, already read from the stream
+     * @param input to read from
+     * @return the elements, all of type {@link #getElementType(int)}
+     * @throws IOException if reading fails or the stream is corrupt
+     */
+    static List<DataCell> read(final int marker, final DataCellDataInput input) throws IOException {
+        final int size = input.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid size: " + size);
+        }
+        final List<DataCell> cells = new ArrayList<DataCell>(size);
+        switch (marker) {
+            case MARKER_INT:
+                for (int i = 0; i < size; i++) {
+                    cells.add(new IntCell(input.readInt()));
+                }
+                break;
+            case MARKER_LONG:
+                long value = 0;
+                for (int i = 0; i < size; i++) {
+                    value += VarLongCoding.read(input);
+                    cells.add(new LongCell(value));
+                }
+                break;
+            case MARKER_DOUBLE:
+                for (int i = 0; i < size; i++) {
+                    cells.add(new DoubleCell(input.readDouble()));
+                }
+                break;
+            case MARKER_STRING:
+                for (int i = 0; i < size; i++) {
+                    cells.add(new StringCell(input.readUTF()));
+                }
+                break;
+            default:
+                throw new IOException("Invalid marker: " + marker);
+        }
+        return cells;
+    }
+
+    private static boolean isDefaultTableFormat(final DataCellDataOutput output) {
+        return output instanceof DCLongUTFDataOutputStream
+            && ((DCLongUTFDataOutputStream)output).isDefaultTableFormat();
+    }
+
+    /** @return the marker of the encoding applicable to all cells or 0 if none applies */
+    private static int getMarker(final Iterable<DataCell> cells) {
+        Class<?> cellClass = null;
+        for (DataCell c : cells) {
+            if (cellClass == null) {
+                cellClass = c.getClass();
+            } else if (c.getClass() != cellClass) {
+                return 0;
+            }
+        }
+        if (cellClass == IntCell.class) {
+            return MARKER_INT;
+        } else if (cellClass == LongCell.class) {
+            return MARKER_LONG;
+        } else if (cellClass == DoubleCell.class) {
+            return MARKER_DOUBLE;
+        } else if (cellClass == StringCell.class) {
+            return MARKER_STRING;
+        }
+        return 0;
+    }
+}
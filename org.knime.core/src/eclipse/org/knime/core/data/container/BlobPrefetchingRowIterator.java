@@ -0,0 +1,238 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Iterator that reads a configurable number of rows ahead of the consumer and loads the blob cells contained in these
+ * rows concurrently, so that accessing a blob cell usually does not need to open its file anymore. Rows are returned in
+ * the order of the underlying iterator; {@link #next()} waits until the blobs of the returned row are loaded (or
+ * failed to load, in which case the error is reported on access, as without prefetching).
+ *
+ * <p>
+ * Tables use this iterator if {@link KNIMEConstants#PROPERTY_BLOB_PREFETCH_ROWS} is set, see
+ * {@link #wrapIfEnabled(CloseableRowIterator, DataTableSpec)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BlobPrefetchingRowIterator extends CloseableRowIterator {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BlobPrefetchingRowIterator.class);
+
+    /** Value of {@link KNIMEConstants#PROPERTY_BLOB_PREFETCH_ROWS}. */
+    static final int PREFETCH_ROWS = Math.max(0, Integer.getInteger(KNIMEConstants.PROPERTY_BLOB_PREFETCH_ROWS, 0));
+
+    /** Reading blobs is mostly waiting for I/O, hence more threads than cores. */
+    private static final int MAX_THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static ThreadPoolExecutor prefetchExecutor;
+
+    private final CloseableRowIterator m_delegate;
+
+    private final int[] m_blobColumns;
+
+    private final int m_prefetchRows;
+
+    private final Deque<PrefetchedRow> m_window;
+
+    private boolean m_isClosed;
+
+    /** A row read from the delegate iterator along with the task loading its blobs (null if none to load). */
+    private record PrefetchedRow(DataRow row, Future<?> task) {
+    }
+
+    /**
+     * @param delegate the iterator to read rows from, closed along with this iterator
+     * @param blobColumns indices of the columns that may contain blob cells
+     * @param prefetchRows number of rows to read ahead, positive
+     */
+    BlobPrefetchingRowIterator(final CloseableRowIterator delegate, final int[] blobColumns,
+        final int prefetchRows) {
+        if (prefetchRows <= 0) {
+            throw new IllegalArgumentException("Number of rows to prefetch must be positive: " + prefetchRows);
+        }
+        m_delegate = delegate;
+        m_blobColumns = blobColumns;
+        m_prefetchRows = prefetchRows;
+        m_window = new ArrayDeque<>(prefetchRows + 1);
+    }
+
+    /**
+     * Wraps the argument iterator into a prefetching iterator if {@link KNIMEConstants#PROPERTY_BLOB_PREFETCH_ROWS} is
+     * set and the table contains blob columns.
+     *
+     * @param iterator the iterator to wrap
+     * @param spec the spec of the table being iterated
+     * @return the argument or a {@link BlobPrefetchingRowIterator} wrapping it
+     */
+    static CloseableRowIterator wrapIfEnabled(final CloseableRowIterator iterator, final DataTableSpec spec) {
+        if (PREFETCH_ROWS == 0) {
+            return iterator;
+        }
+        final int[] blobColumns = getBlobColumns(spec);
+        return blobColumns.length == 0 ? iterator
+            : new BlobPrefetchingRowIterator(iterator, blobColumns, PREFETCH_ROWS);
+    }
+
+    /**
+     * @param spec a table spec
+     * @return the indices of the columns whose type is a blob type
+     */
+    static int[] getBlobColumns(final DataTableSpec spec) {
+        return IntStream.range(0, spec.getNumColumns()).filter(i -> {
+            final Class<? extends DataCell> cellClass = spec.getColumnSpec(i).getType().getCellClass();
+            return cellClass != null && BlobDataCell.class.isAssignableFrom(cellClass);
+        }).toArray();
+    }
+
+    private static synchronized ThreadPoolExecutor getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 10L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicLong m_threadCount = new AtomicLong();
+
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        final Thread t = new Thread(r, "KNIME-Blob-Prefetcher-" + m_threadCount.getAndIncrement());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+            prefetchExecutor.allowCoreThreadTimeOut(true);
+        }
+        return prefetchExecutor;
+    }
+
+    private void fillWindow() {
+        while (!m_isClosed && m_window.size() < m_prefetchRows && m_delegate.hasNext()) {
+            final DataRow row = m_delegate.next();
+            m_window.add(new PrefetchedRow(row, submitPrefetch(row)));
+        }
+    }
+
+    private Future<?> submitPrefetch(final DataRow row) {
+        if (!(row instanceof BlobSupportDataRow blobRow)) {
+            return null;
+        }
+        BlobWrapperDataCell[] blobs = null;
+        int count = 0;
+        for (int col : m_blobColumns) {
+            if (col < blobRow.getNumCells() && blobRow.getRawCell(col) instanceof BlobWrapperDataCell blob) {
+                if (blobs == null) {
+                    blobs = new BlobWrapperDataCell[m_blobColumns.length];
+                }
+                blobs[count++] = blob;
+            }
+        }
+        if (blobs == null) {
+            return null;
+        }
+        final BlobWrapperDataCell[] toLoad = blobs;
+        final int length = count;
+        return getPrefetchExecutor().submit(() -> {
+            for (int i = 0; i < length; i++) {
+                toLoad[i].prefetch();
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        fillWindow();
+        return !m_window.isEmpty();
+    }
+
+    @Override
+    public DataRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows");
+        }
+        final PrefetchedRow next = m_window.poll();
+        if (next.task() != null) {
+            try {
+                // also makes the cells loaded by the prefetch thread visible to this thread
+                next.task().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException | ExecutionException e) {
+                LOGGER.debug("Prefetching blobs of row \"" + next.row().getKey() + "\" failed: " + e.getMessage(), e);
+            }
+        }
+        fillWindow();
+        return next.row();
+    }
+
+    @Override
+    public void close() {
+        m_isClosed = true;
+        for (PrefetchedRow r : m_window) {
+            if (r.task() != null) {
+                r.task().cancel(false);
+            }
+        }
+        m_window.clear();
+        m_delegate.close();
+    }
+
+}
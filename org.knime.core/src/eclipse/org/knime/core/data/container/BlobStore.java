@@ -0,0 +1,222 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Content addressed store of blob files, enabled with {@link KNIMEConstants#PROPERTY_BLOB_DEDUPLICATION}. There is
+ * one store per temp directory (usually one per workflow). Blob files written by a {@link Buffer} are registered
+ * with the hash of their content; if the same content is already known, the file is replaced by a hard link to the
+ * existing one so that identical blobs occupy the disc only once. Each buffer keeps its own (linked) file, hence the
+ * table format and the save routines are unaffected.
+ *
+ * <p>The store holds a link to each known content, which is reference counted by the registering buffers and
+ * deleted when the last one is cleared; the store of a temp directory is dropped when it has no links left. If the
+ * file system doesn't support hard links, blobs are not deduplicated.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BlobStore {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BlobStore.class);
+
+    /** Value of {@link KNIMEConstants#PROPERTY_BLOB_DEDUPLICATION}. */
+    static final boolean IS_ENABLED = Boolean.getBoolean(KNIMEConstants.PROPERTY_BLOB_DEDUPLICATION);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** The stores of all temp directories with registered blob files, a store is removed with its last blob. */
+    private static final Map<File, BlobStore> STORES = new ConcurrentHashMap<>();
+
+    private final Path m_storeDir;
+
+    /** Content hash to number of registered blob files. Only accessed while holding the {@link #STORES} entry. */
+    private final Map<String, Integer> m_references = new HashMap<>();
+
+    private BlobStore(final File tempDir) {
+        m_storeDir = new File(tempDir, "knime_blobstore").toPath();
+    }
+
+    /** @return a new digest to compute the hash of a blob file's content while it's written */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * Registers a blob file that was just written. If a file with the same content is known already, the argument
+     * file is replaced by a hard link to it.
+     *
+     * @param tempDir the directory containing the blob directories of the buffers
+     * @param blobFile the blob file
+     * @param digest the hash of the file content, see {@link #newDigest()}
+     * @return the key to pass to {@link #release(File, String)} when the file is deleted, or null if the file could
+     *         not be registered (it's then kept as is)
+     */
+    static String add(final File tempDir, final File blobFile, final byte[] digest) {
+        final String[] key = new String[1];
+        STORES.compute(tempDir, (dir, store) -> {
+            final BlobStore s = store != null ? store : new BlobStore(dir);
+            key[0] = s.add(blobFile, digest);
+            return s.m_references.isEmpty() ? null : s;
+        });
+        return key[0];
+    }
+
+    private String add(final File blobFile, final byte[] digest) {
+        final String hash = HexFormat.of().formatHex(digest);
+        final Path canonical = m_storeDir.resolve(hash);
+        try {
+            final Integer references = m_references.get(hash);
+            if (references != null && Files.exists(canonical)) {
+                final Path link = blobFile.toPath().resolveSibling(blobFile.getName() + ".link");
+                Files.createLink(link, canonical);
+                Files.move(link, blobFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // unknown content or the store's link got lost, the argument file becomes the new canonical copy
+                Files.createDirectories(m_storeDir);
+                Files.deleteIfExists(canonical);
+                Files.createLink(canonical, blobFile.toPath());
+            }
+            m_references.put(hash, references == null ? 1 : (references + 1));
+            return hash;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug("Unable to deduplicate blob file \"" + blobFile.getAbsolutePath() + "\": " + e.getMessage(),
+                e);
+            return null;
+        }
+    }
+
+    /**
+     * Releases a blob file registered via {@link #add(File, File, byte[])}, deleting the store's link to its content
+     * if it was the last one. The store of the directory is removed (and its directory deleted) when no blob files
+     * are registered anymore or when its directory has been deleted (together with the temp directory).
+     *
+     * @param tempDir the directory containing the blob directories of the buffers
+     * @param hash the key returned by {@link #add(File, File, byte[])}
+     */
+    static void release(final File tempDir, final String hash) {
+        STORES.computeIfPresent(tempDir, (dir, store) -> store.release(hash) ? store : null);
+    }
+
+    /** @return whether the store is still in use */
+    private boolean release(final String hash) {
+        if (!Files.isDirectory(m_storeDir)) {
+            return false;
+        }
+        final Integer references = m_references.get(hash);
+        if (references != null && references > 1) {
+            m_references.put(hash, references - 1);
+            return true;
+        }
+        if (references != null) {
+            m_references.remove(hash);
+            try {
+                Files.deleteIfExists(m_storeDir.resolve(hash));
+            } catch (IOException e) {
+                LOGGER.debug("Unable to delete blob store file \"" + hash + "\": " + e.getMessage(), e);
+            }
+        }
+        if (!m_references.isEmpty()) {
+            return true;
+        }
+        try {
+            Files.deleteIfExists(m_storeDir);
+        } catch (IOException e) {
+            LOGGER.debug("Unable to delete blob store directory \"" + m_storeDir + "\": " + e.getMessage(), e);
+        }
+        return false;
+    }
+
+    /**
+     * @param tempDir the directory containing the blob directories of the buffers
+     * @return whether there is a store for that directory, i.e. whether it has registered blob files
+     */
+    static boolean hasStore(final File tempDir) {
+        return STORES.containsKey(tempDir);
+    }
+
+    /**
+     * Copies a blob file of one buffer into another buffer. If the store is enabled, the destination is created as
+     * hard link to the source (blob files are never modified once written), otherwise or if that fails, the file is
+     * copied.
+     *
+     * @param source the existing blob file
+     * @param dest the new blob file
+     * @throws IOException if copying fails
+     */
+    static void copy(final File source, final File dest) throws IOException {
+        if (IS_ENABLED) {
+            try {
+                Files.createLink(dest.toPath(), source.toPath());
+                return;
+            } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                LOGGER.debug("Unable to link blob file \"" + source.getAbsolutePath() + "\", copying it: "
+                    + e.getMessage(), e);
+            }
+        }
+        FileUtil.copy(source, dest);
+    }
+
+}
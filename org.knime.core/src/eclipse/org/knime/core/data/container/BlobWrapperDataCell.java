@@ -159,6 +159,22 @@ public DataCell getCell() {
         return cell;
     }
 
+    /**
+     * Reads the blob (unless already in memory) so that a subsequent {@link #getCell()} does not need to access the
+     * file system. Used by the {@link BlobPrefetchingRowIterator}, errors are ignored here as they are reported when
+     * the cell is accessed.
+     */
+    void prefetch() {
+        if (m_hardCellRef != null || m_buffer == null || (m_cellRef != null && m_cellRef.get() != null)) {
+            return;
+        }
+        try {
+            m_cellRef = new SoftReference<BlobDataCell>(m_buffer.readBlobDataCell(m_blobAddress, m_blobClass));
+        } catch (IOException ioe) {
+            LOGGER.debug("Unable to prefetch blob at " + m_blobAddress + ": " + ioe.getMessage(), ioe);
+        }
+    }
+
     /** Framework method to set buffer and address.
      * @param address Address to set.
      * @param buffer Owner buffer to set.
@@ -59,6 +59,8 @@
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -126,6 +128,7 @@
 import org.knime.core.data.util.memory.MemoryAlert;
 import org.knime.core.data.util.memory.MemoryAlertListener;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.data.v2.RowCursor;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
@@ -272,10 +275,10 @@ public class Buffer implements KNIMEStreamConstants {
     private static final String CFG_SIZE_L = "table.size.long";
 
     /** Current version string. */
-    public static final String VERSION = "container_12";
+    public static final String VERSION = "container_13";
 
     /** The version number corresponding to {@link #VERSION}. */
-    public static final int IVERSION = 12;
+    public static final int IVERSION = 13;
 
     private static final HashMap<String, Integer> COMPATIBILITY_MAP;
 
@@ -292,7 +295,8 @@ public class Buffer implements KNIMEStreamConstants {
         COMPATIBILITY_MAP.put("container_9", 9); // never released - some workflow tests contain it (BW used a nightly)
         COMPATIBILITY_MAP.put("container_10", 10); // version 3.6 (multiple table formats)
         COMPATIBILITY_MAP.put("container_11", 11); // version 3.7 - add FileStoreCell support for multiple FileStores
-        COMPATIBILITY_MAP.put(VERSION, IVERSION); // version 3.8 - changed default compression to Snappy
+        COMPATIBILITY_MAP.put("container_12", 12); // version 3.8 - changed default compression to Snappy
+        COMPATIBILITY_MAP.put(VERSION, IVERSION); // version 5.3 - dictionary encoded strings, compact row keys
         // NOTE consider to also
         // - increment the workflow.knime version number when updating this list
         // - update list in NoKeyBuffer
@@ -589,6 +593,9 @@ static boolean isUseCompressionForBlobs(final CellClassInfo cellClassInfo) {
      */
     private BlobAddressCopyCache m_copiedBlobsMap;
 
+    /** Keys of the blob files registered in the {@link BlobStore} (only if enabled), released on clear. */
+    private List<String> m_blobStoreKeys;
+
     /** To debug AP-8469 -- leaking Buffer objects when running text processing test workflows. */
     private final String m_fullStackTraceAtConstructionTime = Arrays.stream(Thread.currentThread().getStackTrace())
         .map(s -> s.toString()).collect(Collectors.joining("\n  "));
@@ -1062,7 +1069,7 @@ private DataCell handleIncomingBlob(final DataCell cell, final int col, final in
                     File source =
                         b.getBlobFile(ad.getIndexOfBlobInColumn(), ad.getColumn(), false, ad.isUseCompression());
                     File dest = getBlobFile(indexBlobInCol, col, true, ad.isUseCompression());
-                    FileUtil.copy(source, dest);
+                    BlobStore.copy(source, dest);
                     wc = new BlobWrapperDataCell(this, rewrite, cl);
                 } else {
                     BlobDataCell bc;
@@ -1136,12 +1143,15 @@ private void writeBlobDataCell(final BlobDataCell cell, final BlobAddress a) thr
                 int col = originalBA.getColumn();
                 boolean compress = originalBA.isUseCompression();
                 File source = originalBuffer.getBlobFile(index, col, false, compress);
-                FileUtil.copy(source, outFile);
+                BlobStore.copy(source, outFile);
                 return;
             }
         }
 
-        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile));
+        // hash of the file content, computed while writing if blobs are deduplicated
+        final MessageDigest digest = BlobStore.IS_ENABLED ? BlobStore.newDigest() : null;
+        try (final OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(outFile));
+                final OutputStream out = digest != null ? new DigestOutputStream(fileOut, digest) : fileOut;
                 final BlockableDCObjectOutputVersion2 outStream = new BlockableDCObjectOutputVersion2(
                     isToCompress ? new BufferedOutputStream(new GZIPOutputStream(out)) : out)) {
             // buffering the gzip stream brings another performance boost
@@ -1153,6 +1163,15 @@ private void writeBlobDataCell(final BlobDataCell cell, final BlobAddress a) thr
                 outStream.writeDataCellPerJavaSerialization(cell);
             }
         }
+        if (digest != null) {
+            final String key = BlobStore.add(m_blobDir.getParentFile(), outFile, digest.digest());
+            if (key != null) {
+                if (m_blobStoreKeys == null) {
+                    m_blobStoreKeys = new ArrayList<>();
+                }
+                m_blobStoreKeys.add(key);
+            }
+        }
     }
 
     private boolean mustBeFlushedPriorSave(final DataCell cell, final boolean isWrapperCell,
@@ -1708,6 +1727,34 @@ final synchronized CloseableRowIterator iteratorWithFilter(final TableFilter fil
         }
     }
 
+    /**
+     * Creates a cursor that decodes rows directly from the file this buffer has been written to, see
+     * {@link BufferFromFileRowCursor}. This is only possible if the table is read from a file in the default format
+     * (version 2.0 or later) and not (to be) held in memory, in which case iterating the in-memory rows is faster.
+     *
+     * @param filter the filter to be applied while iterating, possibly null
+     * @return the cursor or null if the rows are not to be read from file
+     */
+    final synchronized RowCursor fromFileCursor(final TableFilter filter) {
+        if (m_isClearedLock.booleanValue()) {
+            throw new IllegalStateException("Cannot iterate over table: buffer has been cleared.");
+        }
+        if (m_useBackIntoMemoryIterator || !(m_outputReader instanceof DefaultTableStoreReader reader)
+            || reader.getReadVersion() < 6 || obtainListFromCacheOrBackIntoMemoryIterator() != null) {
+            return null;
+        }
+        final BufferFromFileRowCursor cursor;
+        try {
+            cursor = new BufferFromFileRowCursor(reader, filter);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Cannot read file \"" + m_binFile.getName() + "\"", ioe);
+        }
+        cursor.setBuffer(this);
+        m_nrOpenInputStreams.incrementAndGet();
+        m_openResources.register(cursor, cursor);
+        return cursor;
+    }
+
     private List<BlobSupportDataRow> obtainListFromCacheOrBackIntoMemoryIterator() {
         final Optional<List<BlobSupportDataRow>> optionalList = CACHE.get(this);
         if (optionalList.isPresent()) {
@@ -2013,6 +2060,11 @@ synchronized void clear() {
                 if (m_blobLRUCache != null) {
                     m_blobLRUCache.clear();
                 }
+                if (m_blobStoreKeys != null) {
+                    final File tempDir = m_blobDir.getParentFile();
+                    m_blobStoreKeys.forEach(key -> BlobStore.release(tempDir, key));
+                    m_blobStoreKeys = null;
+                }
                 m_binFile = null;
                 m_blobDir = null;
             }
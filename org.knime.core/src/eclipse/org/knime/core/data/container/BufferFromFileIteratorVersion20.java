@@ -101,6 +101,12 @@ public final class BufferFromFileIteratorVersion20 extends FromFileIterator {
     /** Utility object with designated functionality to deserialize datacell. */
     private DataCellStreamReader m_dataCellStreamReader;
 
+    /** Decodes dictionary encoded string cells, null if the table has been written by a previous version. */
+    private final StringCellDictionary.Decoder m_dictionaryDecoder;
+
+    /** Decodes row keys, null if the table has been written by a version that stores all keys as strings. */
+    private final RowKeyEncoding.Decoder m_rowKeyDecoder;
+
     /** Inits iterator, opens input stream.
      * @param tableFormatReader The associated buffer.
      * @throws IOException If stream reading fails.
@@ -121,6 +127,9 @@ public final class BufferFromFileIteratorVersion20 extends FromFileIterator {
 
         // open the input stream
         m_dataCellStreamReader = new DataCellStreamReader(tableFormatReader);
+        m_dictionaryDecoder =
+            StringCellDictionary.createDecoder(tableFormatReader, tableFormatReader.getTableSpec().getNumColumns());
+        m_rowKeyDecoder = RowKeyEncoding.createDecoder(tableFormatReader);
         m_inStream = new BlockableDCObjectInputVersion2(getInputStream(tableFormatReader), m_dataCellStreamReader);
     }
 
@@ -169,7 +178,7 @@ public synchronized BlobSupportDataRow next() {
             DataCell nextCell;
             try {
                 try {
-                    nextCell = m_dataCellStreamReader.readDataCell(m_inStream);
+                    nextCell = readDataCell(inStream, i);
                 } finally {
                     m_inStream.endBlock();
                 }
@@ -192,6 +201,16 @@ public synchronized BlobSupportDataRow next() {
         return new BlobSupportDataRow(key, cells);
     }
 
+    /** Reads the cell of the argument column, resolving dictionary encoded cells. */
+    private DataCell readDataCell(final BlockableDCObjectInputVersion2 inStream, final int column)
+        throws IOException {
+        final byte identifier = inStream.readControlByte();
+        if (m_dictionaryDecoder != null && StringCellDictionary.isDictionaryIdentifier(identifier)) {
+            return m_dictionaryDecoder.read(column, identifier, inStream);
+        }
+        return m_dataCellStreamReader.readDataCell(inStream, identifier);
+    }
+
     /** Reads a row key from the stream and ends the block. In case of buffers
      * that don't persist their row keys ({@link NoKeyBuffer}), it returns
      * a static key.
@@ -205,7 +224,7 @@ private RowKey readRowKeyAndEndBlock(
             return DUMMY_ROW_KEY;
         }
         try {
-            return inStream.readRowKey();
+            return m_rowKeyDecoder != null ? m_rowKeyDecoder.read(inStream.getDataInput()) : inStream.readRowKey();
         } finally {
             inStream.endBlock();
         }
@@ -319,9 +338,21 @@ public DataCellStreamReader(final AbstractTableStoreReader tableFormatReader) {
          * @throws IOException If exceptions occur.
          */
         public DataCell readDataCell(final DCObjectInputVersion2 inStream) throws IOException {
+            return readDataCell(inStream, inStream.readControlByte());
+        }
+
+        /**
+         * Reads a data cell whose type identifier has already been read from the argument stream.
+         *
+         * @param inStream To read from.
+         * @param typeIdentifier The control byte preceding the cell in the stream.
+         * @return the data cell being read
+         * @throws IOException If exceptions occur.
+         */
+        DataCell readDataCell(final DCObjectInputVersion2 inStream, final byte typeIdentifier) throws IOException {
             inStream.setCurrentClassLoader(null);
 
-            byte identifier = inStream.readControlByte();
+            byte identifier = typeIdentifier;
             if (identifier == BYTE_TYPE_MISSING) {
                 return DataType.getMissingCell();
             }
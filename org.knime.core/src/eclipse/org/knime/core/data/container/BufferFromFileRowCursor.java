@@ -0,0 +1,463 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.RowKeyValue;
+import org.knime.core.data.container.BufferFromFileIteratorVersion20.DataCellStreamReader;
+import org.knime.core.data.container.DCObjectInputVersion2.BlockableDCObjectInputVersion2;
+import org.knime.core.data.container.DefaultTableStoreReader.FromFileIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.v2.ReadValue;
+import org.knime.core.data.v2.RowCursor;
+import org.knime.core.data.v2.RowRead;
+import org.knime.core.data.v2.value.BooleanValueFactory;
+import org.knime.core.data.v2.value.DoubleValueFactory;
+import org.knime.core.data.v2.value.IntValueFactory;
+import org.knime.core.data.v2.value.LongValueFactory;
+import org.knime.core.data.v2.value.StringValueFactory;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.table.access.BooleanAccess.BooleanReadAccess;
+import org.knime.core.table.access.BooleanAccess.BooleanWriteAccess;
+import org.knime.core.table.access.BufferedAccesses;
+import org.knime.core.table.access.BufferedAccesses.BufferedAccess;
+import org.knime.core.table.access.DoubleAccess.DoubleReadAccess;
+import org.knime.core.table.access.DoubleAccess.DoubleWriteAccess;
+import org.knime.core.table.access.IntAccess.IntReadAccess;
+import org.knime.core.table.access.IntAccess.IntWriteAccess;
+import org.knime.core.table.access.LongAccess.LongReadAccess;
+import org.knime.core.table.access.LongAccess.LongWriteAccess;
+import org.knime.core.table.access.ReadAccess;
+import org.knime.core.table.access.StringAccess.StringReadAccess;
+import org.knime.core.table.access.StringAccess.StringWriteAccess;
+import org.knime.core.table.access.WriteAccess;
+import org.knime.core.table.schema.DataSpec;
+
+/**
+ * {@link RowCursor} reading the stream written by a {@link Buffer} (format version 2.0 and later) without creating a
+ * {@link org.knime.core.data.DataRow DataRow} per row. Cells of the primitive types ({@link IntCell}, {@link LongCell},
+ * {@link DoubleCell}, {@link BooleanCell}, and {@link StringCell}) are decoded right into a buffered access that is
+ * wrapped by the {@link ReadValue} of the respective value factory, both reused for all rows. All other cells are
+ * deserialized as usual. Columns not materialized by the {@link TableFilter} are skipped without being decoded.
+ *
+ * <p>
+ * The cursor also implements the iterator API (creating rows) so that it can be registered with and closed by the
+ * {@link Buffer} like any other iterator on the buffer's file.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BufferFromFileRowCursor extends FromFileIterator implements RowCursor, RowRead {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BufferFromFileRowCursor.class);
+
+    private static final DataCell MISSING_CELL = DataType.getMissingCell();
+
+    /** Decodes the serialized content of a primitive cell into a buffered access. */
+    private enum PrimitiveDecoder {
+
+        INT(IntCell.class, IntValueFactory.INSTANCE.getSpec()) {
+            @Override
+            void decode(final DataInput in, final WriteAccess access) throws IOException {
+                ((IntWriteAccess)access).setIntValue(in.readInt());
+            }
+
+            @Override
+            ReadValue createReadValue(final ReadAccess access) {
+                return IntValueFactory.INSTANCE.createReadValue((IntReadAccess)access);
+            }
+        },
+
+        LONG(LongCell.class, LongValueFactory.INSTANCE.getSpec()) {
+            @Override
+            void decode(final DataInput in, final WriteAccess access) throws IOException {
+                ((LongWriteAccess)access).setLongValue(in.readLong());
+            }
+
+            @Override
+            ReadValue createReadValue(final ReadAccess access) {
+                return LongValueFactory.INSTANCE.createReadValue((LongReadAccess)access);
+            }
+        },
+
+        DOUBLE(DoubleCell.class, DoubleValueFactory.INSTANCE.getSpec()) {
+            @Override
+            void decode(final DataInput in, final WriteAccess access) throws IOException {
+                ((DoubleWriteAccess)access).setDoubleValue(in.readDouble());
+            }
+
+            @Override
+            ReadValue createReadValue(final ReadAccess access) {
+                return DoubleValueFactory.INSTANCE.createReadValue((DoubleReadAccess)access);
+            }
+        },
+
+        BOOLEAN(BooleanCell.class, BooleanValueFactory.INSTANCE.getSpec()) {
+            @Override
+            void decode(final DataInput in, final WriteAccess access) throws IOException {
+                ((BooleanWriteAccess)access).setBooleanValue(in.readBoolean());
+            }
+
+            @Override
+            ReadValue createReadValue(final ReadAccess access) {
+                return BooleanValueFactory.INSTANCE.createReadValue((BooleanReadAccess)access);
+            }
+        },
+
+        STRING(StringCell.class, StringValueFactory.INSTANCE.getSpec()) {
+            @Override
+            void decode(final DataInput in, final WriteAccess access) throws IOException {
+                // the data input is a LongUTFDataInputStream, i.e. it also reads strings longer than 64k
+                ((StringWriteAccess)access).setStringValue(in.readUTF());
+            }
+
+            @Override
+            ReadValue createReadValue(final ReadAccess access) {
+                return StringValueFactory.INSTANCE.createReadValue((StringReadAccess)access);
+            }
+        };
+
+        private final Class<? extends DataCell> m_cellClass;
+
+        private final DataSpec m_spec;
+
+        PrimitiveDecoder(final Class<? extends DataCell> cellClass, final DataSpec spec) {
+            m_cellClass = cellClass;
+            m_spec = spec;
+        }
+
+        /** Reads what the cell's serializer has written. */
+        abstract void decode(DataInput in, WriteAccess access) throws IOException;
+
+        abstract ReadValue createReadValue(ReadAccess access);
+
+        /** @return the decoder for cells of the given type or null if cells of this type are not decoded natively */
+        static PrimitiveDecoder forType(final DataType type) {
+            for (PrimitiveDecoder decoder : values()) {
+                if (type.getCellClass() == decoder.m_cellClass) {
+                    return decoder;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final DefaultTableStoreReader m_tableFormatReader;
+
+    private final DataCellStreamReader m_dataCellStreamReader;
+
+    /** Decodes dictionary encoded string cells, null if the table has been written by a previous version. */
+    private final StringCellDictionary.Decoder m_dictionaryDecoder;
+
+    /** Decodes row keys, null if the table has been written by a version that stores all keys as strings. */
+    private final RowKeyEncoding.Decoder m_rowKeyDecoder;
+
+    private BlockableDCObjectInputVersion2 m_inStream;
+
+    /** Index of the first row returned by the cursor. */
+    private final long m_fromIndex;
+
+    /** Index of the row after the last row returned by the cursor. */
+    private final long m_toIndex;
+
+    /** Index of the row that is read next. */
+    private long m_pointer;
+
+    private final boolean[] m_isMaterialized;
+
+    /** Per column, the decoder used for cells of the column's type, null if the column's cells are deserialized. */
+    private final PrimitiveDecoder[] m_decoders;
+
+    private final BufferedAccess[] m_accesses;
+
+    private final ReadValue[] m_values;
+
+    /** Per column, the current cell or null if the current value has been decoded into the column's access. */
+    private final DataCell[] m_cells;
+
+    private RowKey m_key;
+
+    /** See {@link BufferFromFileIteratorVersion20}, errors are only logged once. */
+    private boolean m_hasThrownReadException;
+
+    /**
+     * Opens the input stream.
+     *
+     * @param tableFormatReader the associated reader, its read version is 6 or later
+     * @param filter the filter specifying the rows and columns to read, possibly null
+     * @throws IOException If the stream cannot be opened.
+     */
+    BufferFromFileRowCursor(final DefaultTableStoreReader tableFormatReader, final TableFilter filter)
+        throws IOException {
+        if (tableFormatReader.getBinFile() == null) {
+            throw new IOException("Unable to read table from file, table has been cleared.");
+        }
+        m_tableFormatReader = tableFormatReader;
+        assert m_tableFormatReader.getReadVersion() >= 6 : "Cursor is not backward compatible, use instead "
+            + BufferFromFileIteratorVersion1x.class.getSimpleName();
+
+        final long size = tableFormatReader.size();
+        m_fromIndex = filter == null ? 0 : filter.getFromRowIndex().orElse(0L);
+        m_toIndex = filter == null ? size : Math.min(size, filter.getToRowIndex().orElse(size - 1) + 1);
+        m_pointer = 0;
+
+        final DataTableSpec spec = tableFormatReader.getTableSpec();
+        final int numColumns = spec.getNumColumns();
+        final Set<Integer> materializedColumns =
+            filter == null ? null : filter.getMaterializeColumnIndices().orElse(null);
+        m_isMaterialized = new boolean[numColumns];
+        m_decoders = new PrimitiveDecoder[numColumns];
+        m_accesses = new BufferedAccess[numColumns];
+        m_values = new ReadValue[numColumns];
+        m_cells = new DataCell[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            m_isMaterialized[i] = materializedColumns == null || materializedColumns.contains(i);
+            // the values of columns that are not materialized are undefined, we present them as missing
+            m_cells[i] = MISSING_CELL;
+            m_decoders[i] = m_isMaterialized[i] ? PrimitiveDecoder.forType(spec.getColumnSpec(i).getType()) : null;
+            if (m_decoders[i] != null) {
+                m_accesses[i] = BufferedAccesses.createBufferedAccess(m_decoders[i].m_spec);
+                m_values[i] = m_decoders[i].createReadValue(m_accesses[i]);
+            }
+        }
+
+        m_dataCellStreamReader = new DataCellStreamReader(tableFormatReader);
+        m_dictionaryDecoder = StringCellDictionary.createDecoder(tableFormatReader, numColumns);
+        m_rowKeyDecoder = RowKeyEncoding.createDecoder(tableFormatReader);
+        m_inStream = new BlockableDCObjectInputVersion2(getInputStream(tableFormatReader), m_dataCellStreamReader);
+    }
+
+    @Override
+    public synchronized boolean canForward() {
+        final boolean canForward = m_inStream != null && Math.max(m_pointer, m_fromIndex) < m_toIndex;
+        if (!canForward && m_inStream != null) {
+            close();
+        }
+        return canForward;
+    }
+
+    @Override
+    public synchronized RowRead forward() {
+        if (!canForward()) {
+            return null;
+        }
+        final BlockableDCObjectInputVersion2 inStream = m_inStream;
+        while (m_pointer < m_fromIndex) {
+            readRow(inStream, false);
+        }
+        readRow(inStream, true);
+        return this;
+    }
+
+    /**
+     * Reads the next row from the stream.
+     *
+     * @param inStream To read from
+     * @param isDecode whether the row's content is to be decoded or the row is only to be skipped
+     */
+    private void readRow(final BlockableDCObjectInputVersion2 inStream, final boolean isDecode) {
+        try {
+            m_key = readRowKeyAndEndBlock(inStream, isDecode);
+        } catch (Exception throwable) { // NOSONAR same handling as in BufferFromFileIteratorVersion20
+            handleReadThrowable(throwable);
+            m_key = new RowKey("Read_failed__auto_generated_key_" + m_pointer);
+        }
+        for (int i = 0; i < m_cells.length; i++) {
+            try {
+                try {
+                    if (isDecode && m_isMaterialized[i]) {
+                        readCell(inStream, i);
+                    } else if (m_dictionaryDecoder != null && m_isMaterialized[i]) {
+                        // skipped rows may introduce dictionary entries that are referenced later on
+                        m_dictionaryDecoder.skip(i, inStream);
+                    }
+                } finally {
+                    // skips the serialized cell if it hasn't been read
+                    inStream.endBlock();
+                }
+            } catch (final Exception e) { // NOSONAR
+                handleReadThrowable(e);
+                m_cells[i] = MISSING_CELL;
+            }
+        }
+        try {
+            final byte eoRow = inStream.readControlByte();
+            if (eoRow != BYTE_ROW_SEPARATOR) {
+                throw new IOException("Expected end of row byte, got '" + eoRow + "', (byte " + (int)eoRow + ")");
+            }
+        } catch (IOException ioe) {
+            handleReadThrowable(ioe);
+        } finally {
+            m_pointer++;
+        }
+    }
+
+    private RowKey readRowKeyAndEndBlock(final BlockableDCObjectInputVersion2 inStream, final boolean isDecode)
+        throws IOException {
+        if (!m_tableFormatReader.isReadRowKey()) {
+            return DUMMY_ROW_KEY;
+        }
+        try {
+            if (m_rowKeyDecoder == null) {
+                return isDecode ? inStream.readRowKey() : null;
+            } else if (isDecode) {
+                return m_rowKeyDecoder.read(inStream.getDataInput());
+            }
+            // skipped keys may be the reference for the next generated key
+            m_rowKeyDecoder.skip(inStream.getDataInput());
+            return null;
+        } finally {
+            inStream.endBlock();
+        }
+    }
+
+    private void readCell(final BlockableDCObjectInputVersion2 inStream, final int index) throws IOException {
+        final byte identifier = inStream.readControlByte();
+        if (identifier == BYTE_TYPE_MISSING) {
+            m_cells[index] = MISSING_CELL;
+            return;
+        }
+        if (m_dictionaryDecoder != null && StringCellDictionary.isDictionaryIdentifier(identifier)) {
+            m_cells[index] = m_dictionaryDecoder.read(index, identifier, inStream);
+            return;
+        }
+        final PrimitiveDecoder decoder = m_decoders[index];
+        if (decoder != null && identifier != BYTE_TYPE_SERIALIZATION
+            && m_tableFormatReader.getTypeForChar(identifier).getCellClass() == decoder.m_cellClass) {
+            decoder.decode(inStream.getDataInput(), m_accesses[index]);
+            m_cells[index] = null;
+        } else {
+            m_cells[index] = m_dataCellStreamReader.readDataCell(inStream, identifier);
+        }
+    }
+
+    /** Handle exceptions, make sure to issue errors only once. */
+    private void handleReadThrowable(final Throwable throwable) {
+        String warnMessage = "Errors while reading row " + (m_pointer + 1) + " from file \""
+            + m_tableFormatReader.getBinFile().getName() + "\": " + throwable.getMessage();
+        if (!m_hasThrownReadException) {
+            LOGGER.error(warnMessage.concat("; Suppressing further warnings."), throwable);
+        } else {
+            LOGGER.debug(warnMessage, throwable);
+        }
+        m_hasThrownReadException = true;
+    }
+
+    @Override
+    public RowKeyValue getRowKey() {
+        return m_key;
+    }
+
+    @Override
+    public <D extends DataValue> D getValue(final int index) {
+        final DataCell cell = m_cells[index];
+        final Object value;
+        if (cell == null) {
+            value = m_values[index];
+        } else if (cell instanceof BlobWrapperDataCell blobWrapper) {
+            value = blobWrapper.getCell();
+        } else {
+            value = cell;
+        }
+        @SuppressWarnings("unchecked")
+        final D cast = (D)value;
+        return cast;
+    }
+
+    @Override
+    public boolean isMissing(final int index) {
+        final DataCell cell = m_cells[index];
+        return cell != null && cell.isMissing();
+    }
+
+    @Override
+    public int getNumColumns() {
+        return m_cells.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return canForward();
+    }
+
+    @Override
+    public synchronized BlobSupportDataRow next() {
+        if (forward() == null) {
+            throw new NoSuchElementException("Iterator at end");
+        }
+        final DataCell[] cells = new DataCell[m_cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = m_cells[i] != null ? m_cells[i] : m_values[i].getDataCell();
+        }
+        return new BlobSupportDataRow(m_key, cells);
+    }
+
+    @Override
+    public synchronized boolean performClose() throws IOException {
+        // already closed (clear has been called before)
+        if (m_inStream == null) {
+            return false;
+        }
+        final DCObjectInputVersion2 in = m_inStream;
+        m_inStream = null;
+        in.close();
+        return true;
+    }
+
+}
@@ -127,16 +127,22 @@ public DataTableSpec getDataTableSpec() {
         return m_spec;
     }
 
-    @SuppressWarnings("resource")
     @Override
     public RowCursor cursor() {
-        return new FallbackRowCursor(iterator(), getDataTableSpec());
+        return cursor(null);
     }
 
     @SuppressWarnings("resource")
     @Override
     public RowCursor cursor(final TableFilter filter) {
-        return new FallbackRowCursor(iteratorWithFilter(filter), getDataTableSpec());
+        ensureBufferOpen();
+        // rows held in memory are iterated, rows on disc are decoded without creating a DataRow per row
+        final RowCursor fromFileCursor = m_buffer.fromFileCursor(filter);
+        if (fromFileCursor != null) {
+            return fromFileCursor;
+        }
+        final CloseableRowIterator iterator = filter == null ? iterator() : iteratorWithFilter(filter);
+        return new FallbackRowCursor(iterator, getDataTableSpec());
     }
 
     /**
@@ -145,13 +151,14 @@ public RowCursor cursor(final TableFilter filter) {
     @Override
     public CloseableRowIterator iterator() {
         ensureBufferOpen();
-        return m_buffer.iterator();
+        return BlobPrefetchingRowIterator.wrapIfEnabled(m_buffer.iterator(), getDataTableSpec());
     }
 
     @Override
     public CloseableRowIterator iteratorWithFilter(final TableFilter filter, final ExecutionMonitor exec) {
         ensureBufferOpen();
-        return m_buffer.iteratorWithFilter(filter, exec);
+        return BlobPrefetchingRowIterator.wrapIfEnabled(m_buffer.iteratorWithFilter(filter, exec),
+            getDataTableSpec());
     }
 
     /**
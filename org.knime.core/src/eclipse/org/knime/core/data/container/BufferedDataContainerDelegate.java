@@ -695,15 +695,14 @@ final Buffer getBuffer() {
      * This method may be overridden to disable duplicate checks. The overriding class must ensure that there are no
      * duplicates being added whatsoever.
      *
-     * @param key Key being added. This implementation extracts the string representation from it and adds it to an
-     *            internal {@link DuplicateChecker} instance.
+     * @param key Key being added. This implementation adds it to an internal {@link DuplicateChecker} instance.
      * @throws DataContainerException This implementation may throw a <code>DataContainerException</code> when
-     *             {@link DuplicateChecker#addKey(String)} throws an {@link IOException}.
+     *             {@link DuplicateChecker#addKey(RowKey)} throws an {@link IOException}.
      * @throws DuplicateKeyException If a duplicate is encountered.
      */
     private void addRowKeyForDuplicateCheck(final RowKey key) {
         try {
-            m_duplicateChecker.addKey(key.toString());
+            m_duplicateChecker.addKey(key);
         } catch (IOException ioe) {
             throw new DataContainerException(
                 ioe.getClass().getSimpleName() + " while checking for duplicate row IDs: " + ioe.getMessage(), ioe);
@@ -115,6 +115,17 @@ public void init(final ExecutionContext ctx) throws Exception {
         RearrangeColumnsTable.initProcessing(m_newColumnsMapping, ctx);
     }
 
+    /**
+     * Sets up the cell factories (file store factories) as {@link #init(ExecutionContext)} does; used by
+     * {@link FusedCellFactory}, which runs this function as one of several stages and can't throw checked
+     * exceptions.
+     *
+     * @param ctx non null execution context
+     */
+    void initProcessing(final ExecutionContext ctx) {
+        RearrangeColumnsTable.initProcessing(m_newColumnsMapping, ctx);
+    }
+
     /** {@inheritDoc} */
     @Override
     public DataRow compute(final DataRow inputRow, final long rowIndex) {
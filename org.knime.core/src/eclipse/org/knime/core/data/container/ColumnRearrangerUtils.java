@@ -130,7 +130,88 @@ public static void initProcessing(final Iterable<CellFactory> cellFactories, fin
             if (uniqueFactory instanceof AbstractCellFactory abstractFactory) {
                 abstractFactory.setFileStoreFactory(fsFactory);
             }
+            if (uniqueFactory instanceof FusedCellFactory fusedFactory) {
+                fusedFactory.initStages(exec);
+            }
+        }
+    }
+
+    /**
+     * Combines a chain of rearrangers, each defined on the output of its predecessor, into a single rearranger on the
+     * input of the first one. The new columns of all rearrangers are computed by one cell factory in a single pass
+     * over the input; columns that are passed through all rearrangers unchanged are taken from the input table.
+     * Intermediate columns that are removed by a later rearranger are never materialized. The fused factory processes
+     * rows concurrently only if all cell factories of the chain allow it.
+     *
+     * @param chain the rearrangers, in order of application, not empty
+     * @return a rearranger whose output is equal to applying the rearrangers one after another
+     * @throws IllegalArgumentException if a rearranger's original spec does not match the output of its predecessor
+     * @since 5.3
+     */
+    public static ColumnRearranger fuse(final List<ColumnRearranger> chain) {
+        CheckUtils.checkArgument(chain != null && !chain.isEmpty(), "Chain of rearrangers must not be empty");
+        if (chain.size() == 1) {
+            return chain.get(0);
+        }
+        final int stageCount = chain.size();
+        final var stages = new ColumnRearrangerFunction[stageCount];
+        final var columnsPerStage = new ArrayList<List<RearrangedColumn>>(stageCount);
+        var workers = Integer.MAX_VALUE;
+        var queueSize = Integer.MAX_VALUE;
+        for (var k = 0; k < stageCount; k++) {
+            final ColumnRearranger stage = chain.get(k);
+            if (k > 0) {
+                checkSpecCompatibility(stage, chain.get(k - 1).createSpec());
+            }
+            stages[k] = new ColumnRearrangerFunction(stage);
+            final List<RearrangedColumn> columns = extractRearrangedColumns(stage);
+            columnsPerStage.add(columns);
+            for (RearrangedColumn column : columns) {
+                if (column.isNewColumn() || column.isConvertedColumn()) {
+                    if (column.getCellFactory() instanceof AbstractCellFactory acf
+                        && acf.getMaxParallelWorkers() > 0) {
+                        workers = Math.min(workers, acf.getMaxParallelWorkers());
+                        queueSize = Math.min(queueSize, acf.getMaxQueueSize());
+                    } else {
+                        workers = -1;
+                    }
+                }
+            }
+        }
+
+        // trace each output column back through the chain: either an unchanged input column or a new one
+        final DataTableSpec outSpec = chain.get(stageCount - 1).createSpec();
+        final var originalIndices = new ArrayList<Integer>();
+        final var newIndices = new ArrayList<Integer>();
+        for (var i = 0; i < outSpec.getNumColumns(); i++) {
+            int index = i;
+            for (var k = stageCount - 1; k >= 0 && index >= 0; k--) {
+                final RearrangedColumn column = columnsPerStage.get(k).get(index);
+                index = column.isNewColumn() || column.isConvertedColumn() ? -1 : column.getOriginalIndex();
+            }
+            if (index >= 0) {
+                originalIndices.add(index);
+            } else {
+                newIndices.add(i);
+            }
+        }
+
+        final var fused = new ColumnRearranger(chain.get(0).getOriginalSpec());
+        fused.keepOnly(originalIndices.stream().mapToInt(Integer::intValue).toArray());
+        if (!newIndices.isEmpty()) {
+            final int[] newColumnIndices = newIndices.stream().mapToInt(Integer::intValue).toArray();
+            final var newColumnSpecs = new DataColumnSpec[newColumnIndices.length];
+            for (var i = 0; i < newColumnIndices.length; i++) {
+                newColumnSpecs[i] = outSpec.getColumnSpec(newColumnIndices[i]);
+            }
+            final var factory = new FusedCellFactory(stages, newColumnIndices, newColumnSpecs);
+            if (workers > 0 && workers != Integer.MAX_VALUE) {
+                factory.setParallelProcessing(true, workers, Math.max(queueSize, workers));
+            }
+            fused.append(factory);
         }
+        fused.permute(outSpec.getColumnNames());
+        return fused;
     }
 
     /**
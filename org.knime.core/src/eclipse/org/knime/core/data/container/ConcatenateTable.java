@@ -365,7 +365,7 @@ private static void checkForDuplicates(final ExecutionMonitor mon, final Buffere
             for (DataRow row : tables[i].filter(filter)) {
                 RowKey key = row.getKey();
                 try {
-                    check.addKey(key.toString());
+                    check.addKey(key);
                 } catch (DuplicateKeyException | IOException ex) {
                     throw new IllegalArgumentException(
                         "Duplicate RowID '%s' in table with index %s.".formatted(key, i), ex);
@@ -158,6 +158,11 @@ RowKey readRowKey() throws IOException {
         return new RowKey(m_dataIn.readUTF());
     }
 
+    /** @return The stream that is passed to the DataCellSerializer, used to read primitive cell content directly. */
+    DataCellDataInput getDataInput() {
+        return m_dataIn;
+    }
+
     /** Reads a single byte from the stream.
      * @return That byte.
      * @throws IOException If IO problems occur. */
@@ -55,7 +55,6 @@
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataCellDataOutput;
 import org.knime.core.data.DataCellSerializer;
-import org.knime.core.data.RowKey;
 import org.knime.core.data.container.BlobDataCell.BlobAddress;
 import org.knime.core.data.container.storage.AbstractTableStoreWriter;
 import org.knime.core.data.filestore.FileStoreKey;
@@ -129,12 +128,17 @@ public void writeBlobAddress(final BlobAddress address) throws IOException {
         address.serialize(m_dataOut);
     }
 
-    /** Writes a row key by writing the underlying string to the stream.
-     * @param key Key to write
-     * @throws IOException In case of stream corruption.
+    /**
+     * @return whether this output writes a table in the current version of the default table format, which is when
+     *         serializers may use encodings that older versions can't read (false here)
      */
-    void writeRowKey(final RowKey key) throws IOException {
-        m_dataOut.writeUTF(key.getString());
+    boolean isDefaultTableFormat() {
+        return false;
+    }
+
+    /** @return The stream that is passed to the DataCellSerializer, used to write primitive content directly. */
+    DataCellDataOutput getDataOutput() {
+        return m_dataOut;
     }
 
     /** Writes the argument byte.
@@ -183,6 +187,19 @@ public void writeDataCell(final DataCell cell) throws IOException {
             }
             m_tableStoreWriter.writeDataCell(cell, DCObjectOutputVersion2.this);
         }
+
+        /**
+         * Whether the data is written to a table in the current version of the default table format (rather than,
+         * for instance, to a port object or a table of another format). Only then serializers may use encodings
+         * introduced with that version, as older readers fail on them.
+         *
+         * @return whether the current default table format is written
+         * @since 5.3
+         * @noreference This method is not intended to be referenced by clients.
+         */
+        public boolean isDefaultTableFormat() {
+            return DCObjectOutputVersion2.this.isDefaultTableFormat();
+        }
     }
 
     /**
@@ -226,6 +243,11 @@ void endBlock() throws IOException {
             m_out.endBlock();
         }
 
+        @Override
+        boolean isDefaultTableFormat() {
+            return true;
+        }
+
         /** Writes the row end identifier.
          * @throws IOException In case of stream corruption. */
         void endRow() throws IOException {
@@ -75,6 +75,12 @@ final class DefaultTableStoreWriter extends AbstractTableStoreWriter implements
     /** The compression format. */
     private final CompressionFormat m_compFormat;
 
+    /** Encodes string cells, null if dictionary encoding is disabled. */
+    private final StringCellDictionary.Encoder m_dictionaryEncoder;
+
+    /** Encodes row keys, generated keys as delta to their predecessor. */
+    private final RowKeyEncoding.Encoder m_rowKeyEncoder = new RowKeyEncoding.Encoder();
+
     /**
      * Constructs a writer for writing KNIME tables to disk using the given compression format.
      *
@@ -88,9 +94,20 @@ public DefaultTableStoreWriter(final DataTableSpec spec, final OutputStream outp
         final CompressionFormat compFormat) throws IOException {
         super(spec, writeRowKey);
         m_compFormat = compFormat;
+        m_dictionaryEncoder =
+            StringCellDictionary.IS_ENABLED ? new StringCellDictionary.Encoder(spec.getNumColumns()) : null;
         m_outStream = initOutFile(new BufferedOutputStream(outputStream));
     }
 
+    /**
+     * {@inheritDoc} Since version {@value StringCellDictionary#FIRST_VERSION}, the two largest byte values are
+     * reserved for the {@link StringCellDictionary}, even if dictionary encoding is disabled.
+     */
+    @Override
+    protected byte getMaxTypeShortCut() {
+        return BYTE_TYPE_DICTIONARY_ENTRY - 1;
+    }
+
     /**
      * Serializes a row to the output stream. This method is called from <code>addRow(DataRow)</code>.
      *
@@ -103,7 +120,9 @@ public void writeRow(final DataRow row) throws IOException {
         for (int i = 0; i < row.getNumCells(); i++) {
             DataCell cell =
                 row instanceof BlobSupportDataRow ? ((BlobSupportDataRow)row).getRawCell(i) : row.getCell(i);
-            writeDataCell(cell, m_outStream);
+            if (m_dictionaryEncoder == null || !m_dictionaryEncoder.write(i, cell, m_outStream)) {
+                writeDataCell(cell, m_outStream);
+            }
             m_outStream.endBlock();
         }
         m_outStream.endRow();
@@ -119,7 +138,7 @@ public void writeRow(final DataRow row) throws IOException {
      */
     void writeRowKey(final RowKey key, final BlockableDCObjectOutputVersion2 outStream) throws IOException {
         if (isWriteRowKey()) {
-            outStream.writeRowKey(key);
+            m_rowKeyEncoder.write(key, outStream.getDataOutput());
             outStream.endBlock();
         }
     }
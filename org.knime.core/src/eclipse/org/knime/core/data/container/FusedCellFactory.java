@@ -0,0 +1,106 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Cell factory that computes the new columns of a chain of {@link ColumnRearranger ColumnRearrangers} in a single
+ * pass. Each input row is run through the row functions of all rearrangers in memory; the cells of the final row
+ * that are not taken unchanged from the input are returned. Created by
+ * {@link ColumnRearrangerUtils#fuse(java.util.List)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FusedCellFactory extends AbstractCellFactory {
+
+    private final ColumnRearrangerFunction[] m_stages;
+
+    private final int[] m_newColumnIndices;
+
+    /**
+     * @param stages the row functions of the rearrangers, in order
+     * @param newColumnIndices the indices of the new columns in the output row of the last stage
+     * @param newColumnSpecs the specs of the new columns
+     */
+    FusedCellFactory(final ColumnRearrangerFunction[] stages, final int[] newColumnIndices,
+        final DataColumnSpec[] newColumnSpecs) {
+        super(newColumnSpecs);
+        m_stages = stages;
+        m_newColumnIndices = newColumnIndices;
+    }
+
+    /** Initializes the cell factories of all stages (file store factories), see {@link #afterProcessing()}. */
+    void initStages(final ExecutionContext exec) {
+        for (ColumnRearrangerFunction stage : m_stages) {
+            stage.initProcessing(exec);
+        }
+    }
+
+    @Override
+    public DataCell[] getCells(final DataRow row, final long rowIndex) {
+        DataRow current = row;
+        for (ColumnRearrangerFunction stage : m_stages) {
+            current = stage.compute(current, rowIndex);
+        }
+        final var cells = new DataCell[m_newColumnIndices.length];
+        for (var i = 0; i < cells.length; i++) {
+            cells[i] = current.getCell(m_newColumnIndices[i]);
+        }
+        return cells;
+    }
+
+    @Override
+    public void afterProcessing() {
+        for (ColumnRearrangerFunction stage : m_stages) {
+            stage.finish();
+        }
+    }
+
+}
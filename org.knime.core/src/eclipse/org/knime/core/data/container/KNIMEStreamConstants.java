@@ -81,5 +81,21 @@ public interface KNIMEStreamConstants {
     /** Separator for different rows. */
     static final byte BYTE_ROW_SEPARATOR = BYTE_TYPE_MISSING + 3;
 
+    /**
+     * The char for a string cell that is added to its column's dictionary (table version 13 and later). Type
+     * shortcuts are never assigned this value.
+     *
+     * @since 5.3
+     */
+    static final byte BYTE_TYPE_DICTIONARY_ENTRY = Byte.MAX_VALUE - 1;
+
+    /**
+     * The char for a string cell that references an entry of its column's dictionary (table version 13 and later).
+     * Type shortcuts are never assigned this value.
+     *
+     * @since 5.3
+     */
+    static final byte BYTE_TYPE_DICTIONARY_REFERENCE = Byte.MAX_VALUE;
+
 
 }
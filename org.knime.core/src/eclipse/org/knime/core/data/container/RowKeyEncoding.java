@@ -0,0 +1,164 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.knime.core.data.RowKey;
+import org.knime.core.data.util.VarLongCoding;
+
+/**
+ * Compact encoding of row keys in the default table format. Generated keys (see {@link RowKey#createRowKey(long)})
+ * are written as the difference to the index of the previous generated key, so consecutive keys ("Row0", "Row1", ...)
+ * take a single byte; all other keys are written as string.
+ *
+ * <p>
+ * Each key starts with one of the tags {@link #KEY_STRING}, {@link #KEY_NEXT} (the index of the previous generated
+ * key plus one) or {@link #KEY_DELTA} (followed by the zig-zag, variable-length encoded difference to the previous
+ * index minus one). The index of the previous generated key is -1 at the start of the table.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class RowKeyEncoding {
+
+    /** The first table version that uses this encoding, earlier versions write all keys as UTF string. */
+    static final int FIRST_VERSION = 13;
+
+    private static final byte KEY_STRING = 0;
+
+    private static final byte KEY_NEXT = 1;
+
+    private static final byte KEY_DELTA = 2;
+
+    private RowKeyEncoding() {
+    }
+
+    /**
+     * @param tableFormatReader the reader of the table
+     * @return a new decoder or null if the table has been written before this encoding was introduced
+     */
+    static Decoder createDecoder(final DefaultTableStoreReader tableFormatReader) {
+        return tableFormatReader.getReadVersion() >= FIRST_VERSION ? new Decoder() : null;
+    }
+
+    /** Write side, keeps the index of the previous generated key. Not thread-safe. */
+    static final class Encoder {
+
+        private long m_previousIndex = -1;
+
+        /**
+         * @param key the key to write
+         * @param out to write to
+         * @throws IOException If writing fails.
+         */
+        void write(final RowKey key, final DataOutput out) throws IOException {
+            if (!key.isGeneratedKey()) {
+                out.writeByte(KEY_STRING);
+                out.writeUTF(key.getString());
+                return;
+            }
+            final long index = key.getGeneratedIndex();
+            final long delta = index - m_previousIndex - 1;
+            if (delta == 0) {
+                out.writeByte(KEY_NEXT);
+            } else {
+                out.writeByte(KEY_DELTA);
+                VarLongCoding.write(out, delta);
+            }
+            m_previousIndex = index;
+        }
+    }
+
+    /** Read side, keeps the index of the previous generated key. Not thread-safe. */
+    static final class Decoder {
+
+        private long m_previousIndex = -1;
+
+        private Decoder() {
+        }
+
+        /**
+         * @param in to read from
+         * @return the key
+         * @throws IOException If reading fails or the stream is corrupt.
+         */
+        RowKey read(final DataInput in) throws IOException {
+            final byte tag = in.readByte();
+            if (tag == KEY_STRING) {
+                return new RowKey(in.readUTF());
+            }
+            return RowKey.createRowKey(readIndex(tag, in));
+        }
+
+        /**
+         * Called for rows that are skipped while reading the table, only reads as much as needed to decode later keys.
+         *
+         * @param in to read from
+         * @throws IOException If reading fails or the stream is corrupt.
+         */
+        void skip(final DataInput in) throws IOException {
+            final byte tag = in.readByte();
+            if (tag != KEY_STRING) {
+                readIndex(tag, in);
+            }
+        }
+
+        private long readIndex(final byte tag, final DataInput in) throws IOException {
+            long delta;
+            if (tag == KEY_NEXT) {
+                delta = 0;
+            } else if (tag == KEY_DELTA) {
+                delta = VarLongCoding.read(in);
+            } else {
+                throw new IOException("Invalid row key tag: " + tag);
+            }
+            m_previousIndex += delta + 1;
+            return m_previousIndex;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.container;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.KNIMEConstants;
+
+/**
+ * Dictionary encoding of {@link StringCell StringCells} in the default table format (table version 13 and later).
+ *
+ * <p>
+ * Each column has its own dictionary, which is built while the table is written: the first occurrence of a value is
+ * written as {@link KNIMEStreamConstants#BYTE_TYPE_DICTIONARY_ENTRY} followed by the string, all further occurrences
+ * as {@link KNIMEStreamConstants#BYTE_TYPE_DICTIONARY_REFERENCE} followed by the (short) id of the entry. Ids are
+ * assigned in order of appearance, so the dictionary itself is never written. A column falls back to the plain
+ * encoding once its cardinality is too high for the dictionary to pay off; entries written until then remain valid.
+ * Readers return the same {@link StringCell} instance for all occurrences of a dictionary entry.
+ *
+ * <p>
+ * Only cells in the columns of a row are dictionary encoded, cells nested in collections are always written plainly.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class StringCellDictionary implements KNIMEStreamConstants {
+
+    /** The first table version that may contain dictionary encoded cells. */
+    static final int FIRST_VERSION = 13;
+
+    /** Whether dictionary encoding is used when writing tables, see {@link KNIMEConstants}. */
+    static final boolean IS_ENABLED = !Boolean.getBoolean(KNIMEConstants.PROPERTY_TABLE_DISABLE_DICTIONARY_ENCODING);
+
+    /** The maximum number of entries in a column's dictionary, ids are written as shorts. */
+    static final int MAX_ENTRIES = 1 << 15;
+
+    /** The number of values in a column after which its cardinality is checked. */
+    static final int MIN_VALUES = 1024;
+
+    /** Longer strings are always written plainly, they are unlikely to repeat. */
+    static final int MAX_STRING_LENGTH = 256;
+
+    private StringCellDictionary() {
+    }
+
+    /**
+     * @param identifier a control byte read from the stream
+     * @return whether the byte introduces a dictionary encoded cell
+     */
+    static boolean isDictionaryIdentifier(final byte identifier) {
+        return identifier == BYTE_TYPE_DICTIONARY_ENTRY || identifier == BYTE_TYPE_DICTIONARY_REFERENCE;
+    }
+
+    /**
+     * @param tableFormatReader the reader of the table
+     * @param numColumns the number of columns in the table
+     * @return a new decoder or null if the table has been written before dictionary encoding was introduced
+     */
+    static Decoder createDecoder(final DefaultTableStoreReader tableFormatReader, final int numColumns) {
+        return tableFormatReader.getReadVersion() >= FIRST_VERSION ? new Decoder(numColumns) : null;
+    }
+
+    /** Write side, keeps the dictionaries of all columns. Not thread-safe. */
+    static final class Encoder {
+
+        /** Per column, the ids of the dictionary entries or null if the column is written plainly. */
+        private final Map<String, Integer>[] m_ids;
+
+        /** Per column, the number of string cells written. */
+        private final long[] m_numValues;
+
+        /** Per column, whether the column has fallen back to the plain encoding. */
+        private final boolean[] m_isPlain;
+
+        /** @param numColumns the number of columns in the table */
+        @SuppressWarnings("unchecked")
+        Encoder(final int numColumns) {
+            m_ids = new Map[numColumns];
+            m_numValues = new long[numColumns];
+            m_isPlain = new boolean[numColumns];
+        }
+
+        /**
+         * Writes the argument cell dictionary encoded, if possible.
+         *
+         * @param column the index of the cell's column
+         * @param cell the cell to write
+         * @param outStream to write to
+         * @return true if the cell has been written, false if it needs to be written plainly
+         * @throws IOException If writing fails.
+         */
+        boolean write(final int column, final DataCell cell, final DCObjectOutputVersion2 outStream)
+            throws IOException {
+            if (m_isPlain[column] || cell.getClass() != StringCell.class) {
+                return false;
+            }
+            final String value = ((StringCell)cell).getStringValue();
+            if (value.length() > MAX_STRING_LENGTH) {
+                return false;
+            }
+            Map<String, Integer> ids = m_ids[column];
+            if (ids == null) {
+                ids = new HashMap<>();
+                m_ids[column] = ids;
+            }
+            final long numValues = ++m_numValues[column];
+            final Integer id = ids.get(value);
+            if (id != null) {
+                outStream.writeControlByte(BYTE_TYPE_DICTIONARY_REFERENCE);
+                outStream.getDataOutput().writeShort(id);
+                return true;
+            }
+            if (ids.size() >= MAX_ENTRIES || (numValues >= MIN_VALUES && 2L * ids.size() >= numValues)) {
+                // too many distinct values, the dictionary only costs memory
+                m_isPlain[column] = true;
+                m_ids[column] = null;
+                return false;
+            }
+            ids.put(value, ids.size());
+            outStream.writeControlByte(BYTE_TYPE_DICTIONARY_ENTRY);
+            outStream.getDataOutput().writeUTF(value);
+            return true;
+        }
+    }
+
+    /** Read side, rebuilds the dictionaries of all columns while the table is read. Not thread-safe. */
+    static final class Decoder {
+
+        /** Per column, the dictionary entries in order of their ids, lazily created. */
+        private final List<StringCell>[] m_entries;
+
+        @SuppressWarnings("unchecked")
+        private Decoder(final int numColumns) {
+            m_entries = new List[numColumns];
+        }
+
+        private List<StringCell> getEntries(final int column) {
+            List<StringCell> entries = m_entries[column];
+            if (entries == null) {
+                entries = new ArrayList<>();
+                m_entries[column] = entries;
+            }
+            return entries;
+        }
+
+        /**
+         * Reads a dictionary encoded cell.
+         *
+         * @param column the index of the cell's column
+         * @param identifier the control byte preceding the cell, see {@link #isDictionaryIdentifier(byte)}
+         * @param inStream to read from
+         * @return the cell, shared by all occurrences of the value in the column
+         * @throws IOException If reading fails or the cell references an unknown entry.
+         */
+        StringCell read(final int column, final byte identifier, final DCObjectInputVersion2 inStream)
+            throws IOException {
+            final List<StringCell> entries = getEntries(column);
+            if (identifier == BYTE_TYPE_DICTIONARY_ENTRY) {
+                final StringCell cell = new StringCell(inStream.getDataInput().readUTF());
+                entries.add(cell);
+                return cell;
+            }
+            final int id = inStream.getDataInput().readShort();
+            if (id < 0 || id >= entries.size()) {
+                throw new IOException("Unknown dictionary entry " + id + " in column " + column);
+            }
+            return entries.get(id);
+        }
+
+        /**
+         * Called for cells that are skipped while reading the table, registers new dictionary entries so that later
+         * references can be resolved.
+         *
+         * @param column the index of the cell's column
+         * @param inStream to read from, positioned at the start of the cell
+         * @throws IOException If reading fails.
+         */
+        void skip(final int column, final DCObjectInputVersion2 inStream) throws IOException {
+            final byte identifier = inStream.readControlByte();
+            if (identifier == BYTE_TYPE_DICTIONARY_ENTRY) {
+                read(column, identifier, inStream);
+            }
+        }
+    }
+
+}
@@ -53,6 +53,7 @@
 
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.v2.BatchCursor;
 import org.knime.core.data.v2.RowCursor;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.BufferedDataTable.KnowsRowCountTable;
@@ -130,6 +131,11 @@ public RowCursor cursor(final TableFilter filter) {
         return m_table.cursor(filter);
     }
 
+    @Override
+    public BatchCursor batchCursor(final TableFilter filter) {
+        return m_table.batchCursor(filter);
+    }
+
     /** {@inheritDoc} */
     @Override
     public CloseableRowIterator iterator() {
@@ -169,6 +169,17 @@ public Byte getTypeShortCut(final CellClassInfo cellClass) {
         return m_typeShortCuts.get(cellClass);
     }
 
+    /**
+     * The largest control byte used as type shortcut. Formats that reserve the largest byte values for other purposes
+     * override this method.
+     *
+     * @return the largest type shortcut, {@link Byte#MAX_VALUE} by default
+     * @since 5.3
+     */
+    protected byte getMaxTypeShortCut() {
+        return Byte.MAX_VALUE;
+    }
+
     /**
      * Get the serializer object to be used for writing the argument cell or <code>null</code> if it needs to be
      * java-serialized.
@@ -176,7 +187,7 @@ public Byte getTypeShortCut(final CellClassInfo cellClass) {
      * @param cellClass The cell's class to write out.
      * @return The serializer to use or <code>null</code>.
      * @throws IOException If there are too many different cell implementations (currently 253 are theoretically
-     *             supported)
+     *             supported, fewer if the format reserves control bytes, see {@link #getMaxTypeShortCut()})
      */
     synchronized public DataCellSerializer<DataCell> getSerializerForDataCell(final CellClassInfo cellClass) throws IOException {
         if (m_typeShortCuts == null) {
@@ -186,7 +197,7 @@ synchronized public DataCellSerializer<DataCell> getSerializerForDataCell(final
         DataCellSerializer<DataCell> serializer = (DataCellSerializer<DataCell>)cellClass.getSerializer();
         if (!m_typeShortCuts.containsKey(cellClass)) {
             int size = m_typeShortCuts.size();
-            if (size + BYTE_TYPE_START > Byte.MAX_VALUE) {
+            if (size + BYTE_TYPE_START > getMaxTypeShortCut()) {
                 throw new IOException("Too many different cell implementations");
             }
             Byte identifier = (byte)(size + BYTE_TYPE_START);
@@ -55,7 +55,10 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.knime.core.node.NodeLogger;
@@ -88,6 +91,9 @@
     /** Factories stored by identifier */
     protected final HashMap<String, ConverterFactoryType> m_byIdentifier = new HashMap<>();
 
+    /** Results of {@link #getResolvedFactories(ConversionKey, Supplier)}, cleared whenever a factory is registered. */
+    private final Map<ConversionKey, List<?>> m_resolvedFactories = new ConcurrentHashMap<>();
+
     /**
      * Parent of this registry. If a converter factory is not found in the registry, this registry will be queried next.
      */
@@ -147,6 +153,7 @@ public RegistryImpl register(final ConverterFactoryType factory) {
             throw new IllegalArgumentException("factory must not be null");
         }
 
+        m_resolvedFactories.clear();
         final ConversionKey key = new ConversionKey(factory);
         ArrayList<ConverterFactoryType> list = m_factories.get(key);
         if (list == null) {
@@ -273,4 +280,26 @@ public Collection<ConverterFactoryType> getFactories(final ST sourceType, final
 
         return factories;
     }
+
+    /**
+     * Memoizes the factories resolved for a source and destination type pair. Resolving usually walks the type
+     * hierarchy of the source type and is done for every column whenever a table is read or written, while the
+     * result only changes when new factories are {@link #register(ConverterFactory) registered}.
+     *
+     * @param key the source and destination type pair
+     * @param resolver resolves the factories on first access (may recursively resolve other pairs)
+     * @return a new, modifiable list containing the resolved factories
+     * @param <F> the type of the resolved factories
+     * @since 5.3
+     */
+    protected final <F> List<F> getResolvedFactories(final ConversionKey key, final Supplier<List<F>> resolver) {
+        @SuppressWarnings("unchecked")
+        List<F> resolved = (List<F>)m_resolvedFactories.get(key);
+        if (resolved == null) {
+            // not computeIfAbsent, resolving collection types recursively resolves their element types
+            resolved = List.copyOf(resolver.get());
+            m_resolvedFactories.put(key, resolved);
+        }
+        return new ArrayList<>(resolved);
+    }
 }
@@ -47,6 +47,8 @@
 
 package org.knime.core.data.convert.datacell;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.knime.core.data.DataCell;
@@ -54,6 +56,7 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.MissingCell;
 import org.knime.core.data.convert.DataCellFactoryMethod;
+import org.knime.core.data.convert.util.ClassUtil;
 import org.knime.core.data.filestore.FileStoreFactory;
 
 /**
@@ -72,6 +75,9 @@
 
     private final Method m_method;
 
+    /** {@link #m_method} as generic method handle, null if not accessible (then invoked reflectively). */
+    private final MethodHandle m_methodHandle;
+
     private final Class<S> m_srcType;
 
     private final DataType m_destDataType;
@@ -103,6 +109,7 @@
         assert DataCell.class.isAssignableFrom(method.getReturnType());
 
         m_method = method;
+        m_methodHandle = ClassUtil.unreflectGeneric(method).orElse(null);
         m_srcType = sourceType;
         m_destDataType = destDataType;
         m_metaType = type;
@@ -119,23 +126,35 @@ public JavaToDataCellConverter<S> create(final FileStoreFactory fileStoreFactory
         final F finalFactory = (F)m_destDataType.getCellFactoryFor(fileStoreFactory).orElseThrow(
             () -> new RuntimeException("No DataCellFactory found for DataType: " + m_destDataType.getName()));
 
+        if (m_methodHandle == null) {
+            return new JavaToDataCellConverter<S>() {
+                @Override
+                public DataCell convert(final S source) throws Exception {
+                    if (source == null) {
+                        return MISSING;
+                    }
+                    // equivalent to m_factory.factoryMethod(source)
+                    return (DataCell)m_method.invoke(finalFactory, source);
+                }
+            };
+        }
+
+        // the factory is bound once per converter, so invoking the method needs no further lookups per cell
+        final MethodHandle boundHandle = m_methodHandle.bindTo(finalFactory);
         return new JavaToDataCellConverter<S>() {
             @Override
             public DataCell convert(final S source) throws Exception {
                 if (source == null) {
                     return MISSING;
                 }
-
-                /*
-                 * After about default 15 of these calls (can be set by
-                 * sun.reflect.inflationThreshold), this should be optimized via
-                 * "reflection inflation" which is enabled by default (ensure
-                 * sun.reflect.noInflation is false)
-                 *
-                 * The following is equivalent to
-                 * m_factory.factoryMethod(source)
-                 */
-                return (DataCell)m_method.invoke(finalFactory, source);
+                final Object cell;
+                try {
+                    // equivalent to m_factory.factoryMethod(source)
+                    cell = boundHandle.invokeExact((Object)source);
+                } catch (Throwable t) { // NOSONAR wrapped like Method#invoke does
+                    throw new InvocationTargetException(t);
+                }
+                return (DataCell)cell;
             }
         };
     }
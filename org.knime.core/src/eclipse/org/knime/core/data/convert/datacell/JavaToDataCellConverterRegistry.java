@@ -238,7 +238,12 @@ public Optional<JavaToDataCellConverterFactory<?>> getConverterFactory(final Str
     // we only put JavaToDataCellConverter<T> into the map for Class<T>
     public <S> Collection<JavaToDataCellConverterFactory<S>> getConverterFactories(final Class<S> sourceType,
         final DataType destType) {
+        return getResolvedFactories(new ConversionKey(sourceType, destType),
+            () -> resolveConverterFactories(sourceType, destType));
+    }
 
+    private <S> List<JavaToDataCellConverterFactory<S>> resolveConverterFactories(final Class<S> sourceType,
+        final DataType destType) {
         final LinkedBlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
         classes.add(sourceType);
 
@@ -48,6 +48,8 @@
 package org.knime.core.data.convert.java;
 
 import java.lang.annotation.IncompleteAnnotationException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -56,6 +58,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -71,6 +74,7 @@
 import org.knime.core.data.collection.CollectionDataValue;
 import org.knime.core.data.collection.ListCell;
 import org.knime.core.data.convert.AbstractConverterFactoryRegistry;
+import org.knime.core.data.convert.ConversionKey;
 import org.knime.core.data.convert.DataValueAccessMethod;
 import org.knime.core.data.convert.datacell.JavaToDataCellConverterRegistry;
 import org.knime.core.data.convert.util.ClassUtil;
@@ -299,8 +303,13 @@ public Set<DataType> getAllConvertibleDataTypes() {
         if (sourceType.equals(DataType.getMissingCell().getType())) {
             return Arrays.asList(MissingToNullConverterFactory.getInstance());
         }
+        return getResolvedFactories(new ConversionKey(sourceType, destType),
+            () -> resolveConverterFactories(sourceType, destType));
+    }
 
-        final Collection<DataCellToJavaConverterFactory<? extends DataValue, D>> allFactories = new ArrayList<>();
+    private <D> List<DataCellToJavaConverterFactory<? extends DataValue, D>>
+        resolveConverterFactories(final DataType sourceType, final Class<D> destType) {
+        final List<DataCellToJavaConverterFactory<? extends DataValue, D>> allFactories = new ArrayList<>();
 
         for (final Class<? extends DataValue> curClass : sourceType.getValueClasses()) {
             if (DataValue.class.equals(curClass)) {
@@ -508,8 +517,9 @@ private <T> void parseAnnotation(final Class<? extends DataValue> valueClass, fi
         try {
             final Class<T> javaType = (Class<T>)ClassUtil.ensureObjectType(method.getReturnType());
             final String name = annotation.name();
+            final MethodHandle handle = ClassUtil.unreflectGeneric(method).orElse(null);
             final DataCellToJavaConverterFactory<?, ?> factory = new SimpleDataCellToJavaConverterFactory<>(valueClass,
-                javaType, (value) -> (T)method.invoke(value), name);
+                javaType, (value) -> handle == null ? (T)method.invoke(value) : invoke(handle, value), name);
 
             // Check name of factory
             if (!validateFactoryName(factory)) {
@@ -529,6 +539,16 @@ private <T> void parseAnnotation(final Class<? extends DataValue> valueClass, fi
         }
     }
 
+    /** Invokes the generic handle of a {@link DataValueAccessMethod}, exceptions are wrapped like by reflection. */
+    @SuppressWarnings("unchecked")
+    private static <T> T invoke(final MethodHandle handle, final DataValue value) throws InvocationTargetException {
+        try {
+            return (T)(Object)handle.invokeExact((Object)value);
+        } catch (Throwable t) { // NOSONAR
+            throw new InvocationTargetException(t);
+        }
+    }
+
     /**
      * Check whether the given factory name matches the naming convention described in
      * {@link DataValueAccessMethod#name()}
@@ -48,6 +48,9 @@
 package org.knime.core.data.convert.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -55,6 +58,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -178,6 +182,25 @@ public static <A extends Annotation> Collection<Pair<Method, A>> getMethodsWithA
         return annotatedMethods;
     }
 
+    /**
+     * Unreflect a public method into a {@link MethodHandle} whose parameter and return types are all {@link Object}
+     * (primitives are boxed), i.e. for an instance method with one parameter the handle type is
+     * {@code (Object,Object)Object}. The handle can be invoked via {@link MethodHandle#invokeExact(Object...)} and,
+     * unlike {@link Method#invoke(Object, Object...)}, neither checks access nor allocates an argument array per call.
+     *
+     * @param method the method to unreflect
+     * @return the method handle or an empty optional if the method is not publicly accessible
+     * @since 5.3
+     */
+    public static Optional<MethodHandle> unreflectGeneric(final Method method) {
+        try {
+            final MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+            return Optional.of(handle.asType(MethodType.genericMethodType(handle.type().parameterCount())));
+        } catch (IllegalAccessException e) { // NOSONAR callers fall back to reflection
+            return Optional.empty();
+        }
+    }
+
     /*
      * Conversion from primitives to boxing types used in
      * Activator#parseAnnotations()
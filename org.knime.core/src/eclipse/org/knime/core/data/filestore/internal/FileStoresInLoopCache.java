@@ -47,53 +47,64 @@
  */
 package org.knime.core.data.filestore.internal;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.util.HashSet;
-import java.util.stream.Collectors;
-
-import org.knime.core.data.DataColumnSpecCreator;
-import org.knime.core.data.DataRow;
-import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.RowIterator;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.container.CloseableRowIterator;
-import org.knime.core.data.def.DefaultRow;
-import org.knime.core.data.def.DefaultTable;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.data.filestore.FileStoreKey;
 import org.knime.core.data.filestore.FileStoreUtil;
-import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
-import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.util.CheckUtils;
 import org.knime.core.util.FileUtil;
-import org.knime.core.util.MutableInteger;
 
 /**
+ * The file store keys created (or, for loop end nodes, referenced) in a loop iteration. Keys are kept in the order
+ * in which they were added; the indices of the keys are additionally tracked in one {@link BitSet} per store, which
+ * is used for duplicate detection and for the membership tests when deleting unused file stores at the end of an
+ * iteration. Only the most recently added keys are kept in memory, older ones are written to a temp file.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  * @author Carsten Haubold, KNIME GmbH, Konstanz, Germany
  */
 final class FileStoresInLoopCache {
 
-    private static final String COL_NAME = "file-store-keys";
-
     private static final NodeLogger LOGGER = NodeLogger.getLogger(FileStoresInLoopCache.class);
 
-    static final DataTableSpec LOOP_FILE_STORE_SPEC = new DataTableSpec(
-            new DataColumnSpecCreator(COL_NAME, FileStoreKeyDataCell.TYPE).createSpec());
+    /** Number of keys kept in memory, once reached they are appended to {@link #m_spilledKeysFile}. */
+    static final int MAX_KEYS_IN_MEMORY = 10000;
 
-    private final ExecutionContext m_exec;
+    private static ExecutorService deleteExecutor;
 
-    private BufferedDataTable m_createdFileStoresTable;
+    /** The most recently added keys in insertion order, without duplicates. */
+    private final List<FileStoreKey> m_keys = new ArrayList<>();
 
-    private HashSet<FileStoreKey> m_fileStoreCache = new HashSet<>();
+    /** Indices of the added keys, per store UUID. */
+    private final Map<UUID, BitSet> m_indices = new HashMap<>();
 
-    /**
-     *  */
-    FileStoresInLoopCache(final ExecutionContext exec) {
-        m_exec = exec;
+    /** Holds the keys added before the ones in {@link #m_keys}, null if there are none. */
+    private File m_spilledKeysFile;
+
+    private int m_nrSpilledKeys;
+
+    private boolean m_isClosed;
+
+    FileStoresInLoopCache() {
     }
 
     void onIterationEnd(final FileStoresInLoopCache endNodeCacheWithKeysToPersist,
@@ -107,141 +118,210 @@ void add(final FileStore fs) {
     }
 
     synchronized void add(final FileStoreKey key) {
-        assert m_fileStoreCache != null : "close was already called";
-        m_fileStoreCache.add(key);
+        assert !m_isClosed : "close was already called";
+        final BitSet indices = m_indices.computeIfAbsent(key.getStoreUUID(), uuid -> new BitSet());
+        if (!indices.get(key.getIndex())) {
+            indices.set(key.getIndex());
+            m_keys.add(key);
+            if (m_keys.size() >= MAX_KEYS_IN_MEMORY) {
+                spillKeys();
+            }
+        }
+    }
+
+    private void spillKeys() {
+        try {
+            if (m_spilledKeysFile == null) {
+                m_spilledKeysFile = FileUtil.createTempFile("knime_fs_loop_keys", ".bin", true);
+            }
+            try (final var out =
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(m_spilledKeysFile, true)))) {
+                for (FileStoreKey key : m_keys) {
+                    key.save(out);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write file store keys of loop iteration to temp file \""
+                + m_spilledKeysFile + "\": " + e.getMessage(), e);
+        }
+        m_nrSpilledKeys += m_keys.size();
+        m_keys.clear();
     }
 
     /**
      * @param endNodeCacheWithKeysToPersist */
     synchronized void addFileStoreKeysFromNestedLoops(final FileStoresInLoopCache endNodeCacheWithKeysToPersist) {
-        for (DataRow r : endNodeCacheWithKeysToPersist.getCreatedFileStoresTable()) {
-            add(getFileStoreKey(r));
-        }
+        endNodeCacheWithKeysToPersist.forEachKey(this::add);
     }
 
+    /**
+     * @param key the key to test
+     * @return whether the key was added to this cache */
+    synchronized boolean contains(final FileStoreKey key) {
+        final BitSet indices = m_indices.get(key.getStoreUUID());
+        return indices != null && indices.get(key.getIndex());
+    }
+
+    /** Deletes the file stores of this cache that are not part of the argument cache. Leaf folders whose file stores
+     * are all deletable are moved out of the file store directory and deleted asynchronously, all other file stores
+     * are deleted one by one. */
     void deletableUnusedFileStores(final FileStoresInLoopCache endNodeCacheWithKeysToPersist,
             final ILoopStartWriteFileStoreHandler handler) throws CanceledExecutionException {
-        MutableInteger nrFilesDeleted = new MutableInteger(0);
-        MutableInteger nrFailedDeletes = new MutableInteger(0);
-        CloseableRowIterator allKeysIterator = m_createdFileStoresTable.iterator();
-        CloseableRowIterator endNodeKeysIterator = endNodeCacheWithKeysToPersist.getCreatedFileStoresTable().iterator();
-
-        FileStoreKey nextLoopEndFSKey = next(endNodeKeysIterator, null);
-        FileStoreKey nextAllFSKey = next(allKeysIterator, null);
-
-        while (nextLoopEndFSKey != null) {
-            if (nextAllFSKey != null) {
-                final int compare = nextLoopEndFSKey.compareTo(nextAllFSKey);
-                if (compare == 0) {
-                    nextLoopEndFSKey = next(endNodeKeysIterator, nextLoopEndFSKey);
-                    nextAllFSKey = next(allKeysIterator, nextAllFSKey);
-                } else if (compare > 0) {
-                    delete(nextAllFSKey, handler, nrFilesDeleted, nrFailedDeletes);
-                    nextAllFSKey = next(allKeysIterator, nextAllFSKey);
-                } else {
-                    nextLoopEndFSKey = next(endNodeKeysIterator, nextLoopEndFSKey);
-                }
-            } else {
-                break;
+        final var deleter = new FolderWiseDeleter();
+        forEachKey(key -> {
+            if (!endNodeCacheWithKeysToPersist.contains(key)) {
+                deleter.add(handler.getFileStore(key).getFile());
             }
+        });
+        deleter.flush();
+        deleter.logStatistics();
+    }
+
+    /** Deletes files grouped by their parent folder. Keys are usually added in the order of their index, hence the
+     * files of a leaf folder are consecutive and at most one folder's files are buffered. */
+    private static final class FolderWiseDeleter {
+
+        private final List<File> m_files = new ArrayList<>();
+
+        private File m_folder;
+
+        private int m_nrFilesDeleted;
+
+        private int m_nrFailedDeletes;
+
+        private int m_nrFoldersDeleted;
+
+        void add(final File file) {
+            final File folder = file.getParentFile();
+            if (!folder.equals(m_folder)) {
+                flush();
+                m_folder = folder;
+            }
+            m_files.add(file);
         }
-        while (nextAllFSKey != null) {
-            delete(nextAllFSKey, handler, nrFilesDeleted, nrFailedDeletes);
-            nextAllFSKey = next(allKeysIterator, nextAllFSKey);
-        }
-        allKeysIterator.close();
-        endNodeKeysIterator.close();
-        if (nrFilesDeleted.intValue() > 0) {
-            StringBuilder b = new StringBuilder("Deleted ");
-            b.append(nrFilesDeleted.intValue()).append(" files ");
-            if (nrFailedDeletes.intValue() > 0) {
-                b.append("; ").append(nrFailedDeletes.intValue()).append(" of which failed");
+
+        void flush() {
+            // indices are unique, hence the folder contains no other file stores
+            if (m_files.size() == WriteFileStoreHandler.FILES_PER_FOLDER && deleteFolderAsync(m_folder)) {
+                m_nrFoldersDeleted++;
+                m_nrFilesDeleted += m_files.size();
             } else {
-                b.append("successfully");
+                for (File file : m_files) {
+                    if (file.exists() && !FileUtil.deleteRecursively(file)) {
+                        m_nrFailedDeletes++;
+                    }
+                    m_nrFilesDeleted++;
+                }
             }
-            LOGGER.debug(b.toString());
+            m_files.clear();
         }
-    }
 
-    /**
-     * @throws CanceledExecutionException
-     *  */
-    synchronized BufferedDataTable close() throws CanceledExecutionException {
-        final var container = m_exec.createDataContainer(LOOP_FILE_STORE_SPEC);
-        long rowKey = 0;
-        for (var key : m_fileStoreCache.stream().sorted().collect(Collectors.toList())) {
-            container.addRowToTable(new DefaultRow(
-                RowKey.createRowKey(rowKey),
-                new FileStoreKeyDataCell(key)));
-            rowKey++;
+        void logStatistics() {
+            if (m_nrFilesDeleted > 0) {
+                StringBuilder b = new StringBuilder("Deleted ");
+                b.append(m_nrFilesDeleted).append(" files ");
+                if (m_nrFoldersDeleted > 0) {
+                    b.append("(").append(m_nrFoldersDeleted).append(" folders asynchronously) ");
+                }
+                if (m_nrFailedDeletes > 0) {
+                    b.append("; ").append(m_nrFailedDeletes).append(" of which failed");
+                } else {
+                    b.append("successfully");
+                }
+                LOGGER.debug(b.toString());
+            }
         }
-        container.close();
-        m_createdFileStoresTable = container.getTable();
-        m_fileStoreCache.clear();
-        m_fileStoreCache = null;
-
-        return m_createdFileStoresTable;
     }
 
-    /**
-     * @return the createdFileStoresTable
-     */
-    BufferedDataTable getCreatedFileStoresTable() {
-        CheckUtils.checkState(m_createdFileStoresTable != null, "Close has not been called");
-        return m_createdFileStoresTable;
+    /** Moves the folder into a new temp folder next to the file store directory (so that it is no longer part of a
+     * subsequent save) and deletes it in a background thread. The temp folder is registered to be deleted on
+     * shutdown, so that it doesn't remain if the JVM exits before the background thread is done.
+     * @return false if the folder could not be moved, in which case nothing is deleted */
+    private static boolean deleteFolderAsync(final File folder) {
+        File baseDir = folder;
+        for (int level = 0; level < WriteFileStoreHandler.FOLDER_LEVEL && baseDir != null; level++) {
+            baseDir = baseDir.getParentFile();
+        }
+        if (baseDir == null || baseDir.getParentFile() == null) {
+            return false;
+        }
+        final File trash;
+        try {
+            trash = FileUtil.createTempDir(baseDir.getName() + "-deleted-", baseDir.getParentFile());
+        } catch (IOException e) {
+            LOGGER.debug("Unable to create folder for deleting \"" + folder.getAbsolutePath() + "\": "
+                + e.getMessage(), e);
+            return false;
+        }
+        if (!folder.renameTo(new File(trash, folder.getName()))) {
+            FileUtil.deleteRecursively(trash);
+            return false;
+        }
+        getDeleteExecutor().execute(() -> {
+            if (!FileUtil.deleteRecursively(trash)) {
+                LOGGER.debug("Folder \"" + trash.getAbsolutePath() + "\" not or only partially deleted");
+            }
+        });
+        return true;
     }
 
-    void dispose() {
-        if (m_createdFileStoresTable != null) {
-            m_exec.clearTable(m_createdFileStoresTable);
-            m_createdFileStoresTable = null;
+    /** Lazily created single thread used to delete unused file store folders. */
+    private static synchronized ExecutorService getDeleteExecutor() {
+        if (deleteExecutor == null) {
+            deleteExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "KNIME-FileStore-Deleter");
+                t.setDaemon(true);
+                return t;
+            });
         }
+        return deleteExecutor;
     }
 
-    private void delete(final FileStoreKey key, final ILoopStartWriteFileStoreHandler handler,
-            final MutableInteger nrFilesDeleted, final MutableInteger nrFilesFailedDelete) {
-        FileStore fileStore = handler.getFileStore(key);
-        File file = fileStore.getFile();
-        if (file.exists() && !FileUtil.deleteRecursively(file)) {
-            nrFilesFailedDelete.inc();
-        }
-        nrFilesDeleted.inc();
+    /** Marks this cache as complete, no more keys can be added. */
+    synchronized void close() {
+        m_isClosed = true;
     }
 
-    private static FileStoreKey next(final RowIterator it, final FileStoreKey previousKey) {
-        FileStoreKey newKey;
-        // the table may have duplicates, but they are sorted and therefore consecutive.
-        do {
-            DataRow nextRow = it.hasNext() ? it.next() : null;
-            if (nextRow == null) {
-                return null;
+    /**
+     * Passes the added keys, in insertion order, to the argument consumer.
+     *
+     * @param consumer the consumer of the keys
+     */
+    synchronized void forEachKey(final Consumer<FileStoreKey> consumer) {
+        CheckUtils.checkState(m_isClosed, "Close has not been called");
+        if (m_nrSpilledKeys > 0) {
+            try (final var in =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(m_spilledKeysFile)))) {
+                for (int i = 0; i < m_nrSpilledKeys; i++) {
+                    consumer.accept(FileStoreKey.load(in));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read file store keys of loop iteration from temp file \""
+                    + m_spilledKeysFile + "\": " + e.getMessage(), e);
             }
-            newKey = getFileStoreKey(nextRow);
-        } while (newKey != null && previousKey != null && newKey.compareTo(previousKey) == 0);
-        return newKey;
+        }
+        m_keys.forEach(consumer);
     }
 
-    private static boolean equalFileStoreCell(final FileStoreKey key1, final FileStoreKey key2) {
-        if (key1 == null || key2 == null) {
-            return false;
-        }
-        return key1.compareTo(key2) == 0;
+    /** @return the number of added keys */
+    synchronized int size() {
+        return m_nrSpilledKeys + m_keys.size();
     }
 
-    private static FileStoreKey getFileStoreKey(final DataRow r1) {
-        return ((FileStoreKeyDataValue)r1.getCell(0)).getKey();
+    synchronized void dispose() {
+        m_keys.clear();
+        m_indices.clear();
+        if (m_spilledKeysFile != null) {
+            FileUtil.deleteRecursively(m_spilledKeysFile);
+            m_spilledKeysFile = null;
+            m_nrSpilledKeys = 0;
+        }
     }
 
     /** {@inheritDoc} */
-    @SuppressWarnings("deprecation")
     @Override
-    public String toString() {
-        if (m_createdFileStoresTable != null) {
-            return "Closed - " + m_createdFileStoresTable.size() + " element(s):\n"
-                    + DefaultTable.toString(m_createdFileStoresTable);
-        } else {
-            return "Open - currently " + m_fileStoreCache.size() + " element(s)";
-        }
+    public synchronized String toString() {
+        return (m_isClosed ? "Closed - " : "Open - currently ") + size() + " element(s)";
     }
 
 }
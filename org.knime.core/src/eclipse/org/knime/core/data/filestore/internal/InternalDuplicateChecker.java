@@ -60,7 +60,7 @@ class InternalDuplicateChecker {
 
     private DuplicateChecker m_duplicateChecker = new DuplicateChecker();
 
-    void add(final String key) {
+    synchronized void add(final String key) {
         if (m_duplicateChecker == null) {
             throw new IllegalStateException("No add permitted (open not called)");
         }
@@ -72,7 +72,7 @@ void add(final String key) {
         }
     }
 
-    void close() {
+    synchronized void close() {
         if (m_duplicateChecker == null) {
             return;
         }
@@ -156,7 +156,7 @@ public FileStore createFileStore(final String name, final int[] nestedLoopPath,
     /** {@inheritDoc} */
     @Override
     public void open(final ExecutionContext exec) {
-        m_fileStoresInLoopCache = new FileStoresInLoopCache(exec);
+        m_fileStoresInLoopCache = new FileStoresInLoopCache();
         m_duplicateChecker = new InternalDuplicateChecker();
         m_fsKeysToKeepLRUCache = new LRUCache<FileStoreKey, FileStoreKey>(1000);
     }
@@ -72,7 +72,9 @@ public class LoopStartWriteFileStoreHandler extends AbstractReferenceWriteFileSt
 
     private final FlowLoopContext m_flowLoopContext;
     private final NativeNodeContainer m_startNodeContainer;
-    private FileStoresInLoopCache m_fileStoresInLoopCache;
+    /** Replaced at the start of each iteration; file stores are created concurrently without locking the handler,
+     * the cache synchronizes internally. */
+    private volatile FileStoresInLoopCache m_fileStoresInLoopCache;
     private final NestedLoopIdentifierProvider m_nestedLoopIdentifierProvider;
 
     private FileStoresInLoopCache m_endNodeCacheWithKeysToPersist;
@@ -134,22 +136,27 @@ public void open(final ExecutionContext exec) {
         ILoopStartWriteFileStoreHandler.clearFileStoresFromPreviousIteration(m_endNodeCacheWithKeysToPersist,
             m_fileStoresInLoopCache, this);
         m_endNodeCacheWithKeysToPersist = null;
-        m_fileStoresInLoopCache = new FileStoresInLoopCache(exec);
+        m_fileStoresInLoopCache = new FileStoresInLoopCache();
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized FileStore createFileStore(final String name) throws IOException {
+    public FileStore createFileStore(final String name) throws IOException {
         final FileStore fs = createFileStoreInLoopBody(name);
         return fs;
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized FileStore createFileStoreInLoopBody(final String name) throws IOException {
+    public FileStore createFileStoreInLoopBody(final String name) throws IOException {
+        final FileStoresInLoopCache fileStoresInLoopCache = m_fileStoresInLoopCache;
+        if (fileStoresInLoopCache == null) {
+            throw new IOException("File store handler \"" + toString() + "\" is not open or already disposed");
+        }
+        // the index is allocated lock-free by the delegate
         final FileStore fs = super.createFileStore(name,
                 OUTER_LOOP_PATH, m_flowLoopContext.getIterationIndex());
-        m_fileStoresInLoopCache.add(fs);
+        fileStoresInLoopCache.add(fs);
         return fs;
     }
 
@@ -182,7 +182,7 @@ public void open(final ExecutionContext exec) {
         ILoopStartWriteFileStoreHandler.clearFileStoresFromPreviousIteration(m_endNodeCacheWithKeysToPersist,
             m_fileStoresInLoopCache, this);
         m_endNodeCacheWithKeysToPersist = null;
-        m_fileStoresInLoopCache = new FileStoresInLoopCache(exec);
+        m_fileStoresInLoopCache = new FileStoresInLoopCache();
         m_duplicateChecker = new InternalDuplicateChecker();
     }
 
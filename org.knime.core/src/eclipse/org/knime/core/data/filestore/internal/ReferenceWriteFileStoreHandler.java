@@ -68,7 +68,7 @@
  */
 public final class ReferenceWriteFileStoreHandler extends AbstractReferenceWriteFileStoreHandler {
 
-    private InternalDuplicateChecker m_duplicateChecker;
+    private volatile InternalDuplicateChecker m_duplicateChecker;
     private NodeID m_nodeId;
 
     /**
@@ -105,11 +105,12 @@ public void clearAndDispose() {
 
     /** {@inheritDoc} */
     @Override
-    public synchronized FileStore createFileStore(final String name) throws IOException {
-        if (m_duplicateChecker == null) {
+    public FileStore createFileStore(final String name) throws IOException {
+        final InternalDuplicateChecker duplicateChecker = m_duplicateChecker;
+        if (duplicateChecker == null) {
             throw new IOException("File store handler \"" + toString() + "\" is read only/closed");
         }
-        m_duplicateChecker.add(name);
+        duplicateChecker.add(name);
         if (getDelegate() instanceof ILoopStartWriteFileStoreHandler) {
             return ((ILoopStartWriteFileStoreHandler)getDelegate()).createFileStoreInLoopBody(name);
         } else {
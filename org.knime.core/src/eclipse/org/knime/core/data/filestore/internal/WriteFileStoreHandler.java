@@ -50,6 +50,9 @@
 import java.io.File;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.knime.core.data.IDataRepository;
 import org.knime.core.data.filestore.FileStore;
@@ -85,12 +88,17 @@ public class WriteFileStoreHandler implements IWriteFileStoreHandler {
 
     private final String m_name;
     private final UUID m_storeUUID;
-    private File m_baseDirInWorkflowFolder;
-    private File m_baseDir;
-    private InternalDuplicateChecker m_duplicateChecker;
+    private volatile File m_baseDirInWorkflowFolder;
+    private volatile File m_baseDir;
+    private volatile InternalDuplicateChecker m_duplicateChecker;
     private IDataRepository m_dataRepository;
+    /** Guarded by synchronizing on this handler. */
     private LRUCache<FileStoreKey, FileStoreKey> m_createdFileStoreKeys;
-    private int m_nextIndex = 0;
+    /** Index of the next file store; allocated without locking so that concurrent writers don't serialize. */
+    private final AtomicInteger m_nextIndex = new AtomicInteger();
+    /** Leaf folders (index / {@link #FILES_PER_FOLDER}) already created in the base directory, so that the
+     * file system is only hit once per folder and not once per file store. */
+    private final ConcurrentMap<Integer, File> m_createdParentDirs = new ConcurrentHashMap<>();
 
 
     /**
@@ -112,6 +120,7 @@ public void setBaseDir(final File baseDir) {
         CheckUtils.checkState(baseDir.isDirectory(), "Base directory of file store to node %s does not exist: %s",
             m_name, baseDir.getAbsolutePath());
         m_baseDir = baseDir;
+        m_createdParentDirs.clear();
     }
 
     /** {@inheritDoc} */
@@ -140,6 +149,7 @@ public void clearAndDispose() {
                 b.append(" - folder not or only partially deleted");
                 LOGGER.warn(b.toString());
             }
+            m_createdParentDirs.clear();
         }
     }
 
@@ -174,19 +184,23 @@ public boolean mustBeFlushedPriorSave(final FileStore fs) {
         return getOwnerHandler(key) == null;
     }
 
-    private synchronized FileStoreKey copyFileStore(final FileStore fs, final FlushCallback flushCallback) {
+    private FileStoreKey copyFileStore(final FileStore fs, final FlushCallback flushCallback) {
         FileStoreKey key = FileStoreUtil.getFileStoreKey(fs);
-        if (m_createdFileStoreKeys == null) {
-            LOGGER.debug("Duplicating file store objects - file store handler id "
-                    + key.getStoreUUID() + " is unknown to " + m_dataRepository.getClass().getName());
-            LOGGER.debug("Dump of valid file store handlers follows, omitting further log output");
-            m_dataRepository.printValidFileStoreHandlersToLogDebug();
-            m_createdFileStoreKeys = new LRUCache<FileStoreKey, FileStoreKey>(10000);
-        }
-        FileStoreKey local = m_createdFileStoreKeys.get(key);
-        if (local != null) {
-            return local;
+        synchronized (this) {
+            if (m_createdFileStoreKeys == null) {
+                LOGGER.debug("Duplicating file store objects - file store handler id "
+                        + key.getStoreUUID() + " is unknown to " + m_dataRepository.getClass().getName());
+                LOGGER.debug("Dump of valid file store handlers follows, omitting further log output");
+                m_dataRepository.printValidFileStoreHandlersToLogDebug();
+                m_createdFileStoreKeys = new LRUCache<FileStoreKey, FileStoreKey>(10000);
+            }
+            FileStoreKey local = m_createdFileStoreKeys.get(key);
+            if (local != null) {
+                return local;
+            }
         }
+        // the (potentially large) copy is done outside the lock; concurrent copies of the same file store
+        // are possible but harmless, the first one registered is used from then on
         FileStore newStore;
         try {
             // fixes problem with file store cell that keep things in memory until serialized:
@@ -198,7 +212,13 @@ private synchronized FileStoreKey copyFileStore(final FileStore fs, final FlushC
             throw new RuntimeException("Failed copying file stores to local handler", e);
         }
         final FileStoreKey newKey = FileStoreUtil.getFileStoreKey(newStore);
-        m_createdFileStoreKeys.put(key, newKey);
+        synchronized (this) {
+            final FileStoreKey local = m_createdFileStoreKeys.get(key);
+            if (local != null) {
+                return local;
+            }
+            m_createdFileStoreKeys.put(key, newKey);
+        }
         return newKey;
     }
 
@@ -234,7 +254,7 @@ IFileStoreHandler getOwnerHandler(final FileStoreKey key) {
         return ownerHandler;
     }
 
-    private synchronized FileStore getFileStoreInternal(final FileStoreKey key)
+    private FileStore getFileStoreInternal(final FileStoreKey key)
         throws IOException {
         assert key.getStoreUUID().equals(getStoreUUID());
         CheckUtils.checkState(getBaseDir() != null || m_baseDirInWorkflowFolder != null,
@@ -258,7 +278,7 @@ public String toString() {
     }
 
     @Override
-    public synchronized FileStore createFileStore(final String name) throws IOException {
+    public FileStore createFileStore(final String name) throws IOException {
         addToDuplicateChecker(name);
         return createFileStoreInternal(name, null, -1);
     }
@@ -267,15 +287,16 @@ public synchronized FileStore createFileStore(final String name) throws IOExcept
      * @param name
      * @throws IOException */
     void addToDuplicateChecker(final String name) throws IOException {
-        CheckUtils.checkState(m_duplicateChecker != null, "File store on node %s is read only/closed", m_name);
-        m_duplicateChecker.add(name);
+        final InternalDuplicateChecker duplicateChecker = m_duplicateChecker;
+        CheckUtils.checkState(duplicateChecker != null, "File store on node %s is read only/closed", m_name);
+        duplicateChecker.add(name);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized FileStore createFileStore(final String name, final int[] nestedLoopPath,
+    public FileStore createFileStore(final String name, final int[] nestedLoopPath,
         final int iterationIndex) throws IOException {
         // NOTE: inconsistent with the other createFileStore-method - doesn't add to the duplicate checker
         return createFileStoreInternal(name, nestedLoopPath, iterationIndex);
@@ -283,7 +304,6 @@ public synchronized FileStore createFileStore(final String name, final int[] nes
 
     private FileStore createFileStoreInternal(final String name,
             final int[] nestedLoopPath, final int iterationIndex) throws IOException {
-        assert Thread.holdsLock(this);
         CheckUtils.checkArgumentNotNull(name, "Argument must not be null.");
         if (name.startsWith(".")) {
             throw new IOException("Name must not start with a dot: \"" + name + "\"");
@@ -291,25 +311,33 @@ private FileStore createFileStoreInternal(final String name,
         if (name.contains("/") || name.contains("\\")) {
             throw new IOException("Invalid file name, must not contain (back) slash: \"" + name + "\"");
         }
-        FileStoreKey key = new FileStoreKey(m_storeUUID, m_nextIndex, nestedLoopPath, iterationIndex, name);
+        final int index = m_nextIndex.getAndIncrement();
+        FileStoreKey key = new FileStoreKey(m_storeUUID, index, nestedLoopPath, iterationIndex, name);
         ensureInitBaseDirectory();
-        if (m_nextIndex > MAX_NR_FILES) {
+        if (index > MAX_NR_FILES) {
             throw new IOException("Maximum number of files stores reached: " + MAX_NR_FILES);
         }
-        getParentDir(m_nextIndex, true);
-        m_nextIndex++;
+        getParentDir(index, true);
         FileStore fs = FileStoreUtil.createFileStore(this, key);
         return fs;
     }
 
     /** @return the nextIndex */
     public int getNextIndex() {
-        return m_nextIndex;
+        return m_nextIndex.get();
     }
 
     public File getParentDir(final int indexArg, final boolean create) {
+        if (create) {
+            return m_createdParentDirs.computeIfAbsent(indexArg / FILES_PER_FOLDER,
+                i -> getParentDir(indexArg, m_baseDir, true));
+        }
+        return getParentDir(indexArg, m_baseDir, false);
+    }
+
+    private static File getParentDir(final int indexArg, final File baseDir, final boolean create) {
         int index = indexArg / FILES_PER_FOLDER; // bottom most dir also contains many files
-        File parentDir = m_baseDir;
+        File parentDir = baseDir;
         String[] subFolderNames = new String[FOLDER_LEVEL];
         for (int level = 0; level < FOLDER_LEVEL; level++) {
             int modulo = index % FILES_PER_FOLDER;
@@ -329,7 +357,12 @@ public File getParentDir(final int indexArg, final boolean create) {
 
 
     private void ensureInitBaseDirectory() throws IOException {
-        assert Thread.holdsLock(this);
+        if (m_baseDir == null) {
+            initBaseDirectory();
+        }
+    }
+
+    private synchronized void initBaseDirectory() throws IOException {
         if (m_baseDir == null) {
             StringBuilder baseDirName = new StringBuilder("fs-");
             String nodeName = m_name;
@@ -371,15 +404,22 @@ public void close() {
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void ensureOpenAfterLoad() throws IOException {
+    public void ensureOpenAfterLoad() throws IOException {
+        if (m_baseDirInWorkflowFolder != null) {
+            restoreBaseDirectory();
+        }
+    }
+
+    private synchronized void restoreBaseDirectory() throws IOException {
         if (m_baseDirInWorkflowFolder != null) {
             assert m_baseDir == null;
             ensureInitBaseDirectory();
             LOGGER.debugWithFormat("Restoring file store directory \"%s\" from \"%s\"",
                 toString(), m_baseDirInWorkflowFolder);
             File source = m_baseDirInWorkflowFolder;
-            m_baseDirInWorkflowFolder = null;
             FileUtil.copyDir(source, m_baseDir);
+            // cleared only after the copy so that concurrent readers don't access an incomplete directory
+            m_baseDirInWorkflowFolder = null;
         }
     }
 
@@ -47,6 +47,8 @@
 
 package org.knime.core.data.statistics;
 
+import static org.knime.core.data.v2.TableExtractorUtil.BATCH_SIZE;
+
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -54,8 +56,11 @@
 
 import org.knime.core.data.DataValue;
 import org.knime.core.data.DoubleValue;
+import org.knime.core.data.MissingValueException;
+import org.knime.core.data.v2.BatchCursor;
 import org.knime.core.data.v2.RowRead;
 import org.knime.core.data.v2.RowReadUtil;
+import org.knime.core.data.v2.TableExtractorUtil.BatchExtractor;
 import org.knime.core.data.v2.TableExtractorUtil.Extractor;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.util.Pair;
@@ -75,16 +80,27 @@ private StatisticsExtractors() {
 
     }
 
+    /** Same as {@link RowReadUtil#readPrimitiveDoubleValue(org.knime.core.data.v2.RowValueRead, int)} for batches. */
+    private static void checkNoneMissing(final long[] missing, final int batchSize) {
+        for (int i = 0, words = (batchSize + 63) >>> 6; i < words; i++) {
+            if (missing[i] != 0) {
+                throw new MissingValueException("Cell is missing.");
+            }
+        }
+    }
+
     /**
      * This extractor counts the occurrences of values in a given DoubleCell column which are valid, i.e. not missing
      * and not NaN.
      *
      * @author Paul Bärnreuther
      */
-    public static final class ValidDoublesCounter implements Extractor {
+    public static final class ValidDoublesCounter implements BatchExtractor {
 
         private final int m_freqIndex;
         private int m_numObs;
+        private double[] m_values;
+        private long[] m_missing;
 
         /**
          * @param freqIndex the column to be read from. It needs to be compatible with {@link DoubleValue}.
@@ -107,6 +123,20 @@ public void readRow(final RowRead row, final int rowIndex) {
             }
         }
 
+        @Override
+        public void readBatch(final BatchCursor batch, final int batchSize, final int firstRowIndex) {
+            if (m_values == null) {
+                m_values = new double[BATCH_SIZE];
+                m_missing = new long[BATCH_SIZE >>> 6];
+            }
+            batch.readDoubles(m_freqIndex, m_values, m_missing);
+            for (int i = 0; i < batchSize; i++) {
+                if (!BatchCursor.isMissing(m_missing, i) && !Double.isNaN(m_values[i])) {
+                    m_numObs += 1;
+                }
+            }
+        }
+
         @Override
         public int[] getColumnIndices() {
             return new int[]{m_freqIndex};
@@ -124,10 +154,12 @@ public int getOutput() {
      *
      * @author Paul Bärnreuther
      */
-    public static final class IntSumExtractor implements Extractor {
+    public static final class IntSumExtractor implements BatchExtractor {
 
         private final int m_colIndex;
         private int m_sum;
+        private int[] m_values;
+        private long[] m_missing;
 
         /**
          * @param colIndex the index of the column over which the sum is to be taken.
@@ -146,6 +178,21 @@ public void readRow(final RowRead row, final int rowIndex) {
             m_sum += RowReadUtil.readPrimitiveIntValue(row, m_colIndex);
         }
 
+        @Override
+        public void readBatch(final BatchCursor batch, final int batchSize, final int firstRowIndex) {
+            if (m_values == null) {
+                m_values = new int[BATCH_SIZE];
+                m_missing = new long[BATCH_SIZE >>> 6];
+            }
+            batch.readInts(m_colIndex, m_values, m_missing);
+            checkNoneMissing(m_missing, batchSize);
+            int sum = 0;
+            for (int i = 0; i < batchSize; i++) {
+                sum += m_values[i];
+            }
+            m_sum += sum;
+        }
+
         @Override
         public int[] getColumnIndices() {
             return new int[]{m_colIndex};
@@ -163,10 +210,12 @@ public int getOutput() {
      *
      * @author Juan Diaz Baquero
      */
-    public static class DoubleSumExtractor implements Extractor {
+    public static class DoubleSumExtractor implements BatchExtractor {
 
         private final int m_colIndex;
         private double m_sum;
+        private double[] m_values;
+        private long[] m_missing;
 
         /**
          * @param colIndex the index of the column over which the sum is to be taken.
@@ -185,6 +234,20 @@ public void readRow(final RowRead row, final int rowIndex) {
             m_sum += RowReadUtil.readPrimitiveDoubleValue(row, m_colIndex);
         }
 
+        @Override
+        public void readBatch(final BatchCursor batch, final int batchSize, final int firstRowIndex) {
+            if (m_values == null) {
+                m_values = new double[BATCH_SIZE];
+                m_missing = new long[BATCH_SIZE >>> 6];
+            }
+            batch.readDoubles(m_colIndex, m_values, m_missing);
+            checkNoneMissing(m_missing, batchSize);
+            // summed up in row order, i.e. the result is identical to the one of readRow
+            for (int i = 0; i < batchSize; i++) {
+                m_sum += m_values[i];
+            }
+        }
+
         @Override
         public int[] getColumnIndices() {
             return new int[]{m_colIndex};
@@ -203,10 +266,11 @@ public double getOutput() {
      *
      * @author Rupert Ettrich
      */
-    public static class CountMissingValuesExtractor implements Extractor {
+    public static class CountMissingValuesExtractor implements BatchExtractor {
 
         private final int m_colIndex;
         private long m_count;
+        private long[] m_missing;
 
         /**
          *
@@ -228,6 +292,18 @@ public void readRow(final RowRead row, final int rowIndex) {
             }
         }
 
+        @Override
+        public void readBatch(final BatchCursor batch, final int batchSize, final int firstRowIndex) {
+            if (m_missing == null) {
+                m_missing = new long[BATCH_SIZE >>> 6];
+            }
+            batch.readMissing(m_colIndex, m_missing);
+            // bits beyond the batch size are not set
+            for (int i = 0, words = (batchSize + 63) >>> 6; i < words; i++) {
+                m_count += Long.bitCount(m_missing[i]);
+            }
+        }
+
         @Override
         public int[] getColumnIndices() {
             return new int[]{m_colIndex};
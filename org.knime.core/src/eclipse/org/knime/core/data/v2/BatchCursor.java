@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.v2;
+
+import java.io.Closeable;
+
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.container.filter.TableFilter;
+
+/**
+ * Read access to a data storage in batches of consecutive rows. In contrast to {@link RowCursor}, the values of a batch
+ * are read column by column into primitive arrays which can then be processed in tight loops. Missing values are
+ * reported in a bitmask: bit <code>i % 64</code> of <code>missing[i / 64]</code> is set if the value in the
+ * <code>i</code>-th row of the batch is missing (use {@link #isMissing(long[], int)}). The array entries of missing
+ * values are unspecified.
+ *
+ * <p>
+ * Implementations that store primitive columns natively copy whole chunks into the arrays, all other tables are read
+ * through a {@link RowCursor}, see {@link #fromRowCursor(RowCursor, DataTableSpec, TableFilter)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ *
+ * @apiNote API still experimental. It might change in future releases of KNIME Analytics Platform.
+ *
+ * @noreference This interface is not intended to be referenced by clients.
+ * @noextend This interface is not intended to be extended by clients.
+ */
+public interface BatchCursor extends Closeable {
+
+    /**
+     * Forwards the cursor to the next batch of rows.
+     *
+     * @param maxBatchSize the maximum number of rows in the batch
+     * @return the number of rows in the batch, 0 if there are no more rows
+     */
+    int forward(int maxBatchSize);
+
+    /**
+     * Flags the missing values of the given column in the current batch. Works for columns of any type.
+     *
+     * @param column the index of the column
+     * @param missing the bitmask to flag missing values in, at least <code>(batchSize + 63) / 64</code> long
+     */
+    void readMissing(int column, long[] missing);
+
+    /**
+     * Reads the values of the given column in the current batch. The column must be compatible with
+     * {@link DoubleValue}.
+     *
+     * @param column the index of the column
+     * @param values to write the values to, at least as long as the batch
+     * @param missing the bitmask to flag missing values in, at least <code>(batchSize + 63) / 64</code> long
+     * @throws IllegalArgumentException if the column is not compatible with {@link DoubleValue}
+     */
+    void readDoubles(int column, double[] values, long[] missing);
+
+    /**
+     * Reads the values of the given column in the current batch. The column must be compatible with
+     * {@link LongValue}.
+     *
+     * @param column the index of the column
+     * @param values to write the values to, at least as long as the batch
+     * @param missing the bitmask to flag missing values in, at least <code>(batchSize + 63) / 64</code> long
+     * @throws IllegalArgumentException if the column is not compatible with {@link LongValue}
+     */
+    void readLongs(int column, long[] values, long[] missing);
+
+    /**
+     * Reads the values of the given column in the current batch. The column must be compatible with
+     * {@link IntValue}.
+     *
+     * @param column the index of the column
+     * @param values to write the values to, at least as long as the batch
+     * @param missing the bitmask to flag missing values in, at least <code>(batchSize + 63) / 64</code> long
+     * @throws IllegalArgumentException if the column is not compatible with {@link IntValue}
+     */
+    void readInts(int column, int[] values, long[] missing);
+
+    /**
+     * @return number of columns in the table
+     */
+    int getNumColumns();
+
+    /**
+     * Closes this resource, relinquishing any underlying resources. This method is idempotent.
+     */
+    @Override
+    void close();
+
+    /**
+     * @param missing a bitmask filled by one of the read methods
+     * @param index the index of the row in the batch
+     * @return whether the value in the given row is missing
+     */
+    static boolean isMissing(final long[] missing, final int index) {
+        return (missing[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Creates a {@link BatchCursor} that reads the rows of the argument cursor one by one and copies the values of the
+     * numeric columns (and the missing flags of all columns) into arrays.
+     *
+     * @param cursor the cursor to read from, closed when the returned cursor is closed
+     * @param spec the spec of the table read by the cursor
+     * @param filter the filter the cursor was created with, possibly null; only values of materialized columns can be
+     *            read from the returned cursor
+     * @return a batch cursor reading from the argument cursor
+     */
+    static BatchCursor fromRowCursor(final RowCursor cursor, final DataTableSpec spec, final TableFilter filter) {
+        return new RowCursorBatchCursor(cursor, spec, filter);
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.data.v2;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.container.filter.TableFilter;
+
+/**
+ * Default {@link BatchCursor} reading the rows of a {@link RowCursor} one by one. The missing flags of the materialized
+ * columns are buffered, as are the values of the numeric columns among them, in their narrowest primitive
+ * representation ({@code int} for {@link IntValue}, {@code long} for {@link LongValue}, {@code double} for
+ * {@link DoubleValue}). Values are widened when read.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class RowCursorBatchCursor implements BatchCursor {
+
+    private final RowCursor m_cursor;
+
+    private final DataTableSpec m_spec;
+
+    /** The indices of the columns that are materialized. */
+    private final int[] m_columns;
+
+    /** Per column, the buffered values, at most one of the three arrays is non-null (none for non-numeric ones). */
+    private final int[][] m_ints;
+
+    private final long[][] m_longs;
+
+    private final double[][] m_doubles;
+
+    private final long[][] m_missing;
+
+    private int m_capacity;
+
+    private int m_batchSize;
+
+    RowCursorBatchCursor(final RowCursor cursor, final DataTableSpec spec, final TableFilter filter) {
+        m_cursor = cursor;
+        m_spec = spec;
+        final Set<Integer> materialized = filter == null ? null : filter.getMaterializeColumnIndices().orElse(null);
+        m_columns = IntStream.range(0, spec.getNumColumns()) //
+            .filter(i -> materialized == null || materialized.contains(i)) //
+            .toArray();
+        final int numColumns = spec.getNumColumns();
+        m_ints = new int[numColumns][];
+        m_longs = new long[numColumns][];
+        m_doubles = new double[numColumns][];
+        m_missing = new long[numColumns][];
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= m_capacity) {
+            return;
+        }
+        for (int c : m_columns) {
+            final DataType type = m_spec.getColumnSpec(c).getType();
+            if (type.isCompatible(IntValue.class)) {
+                m_ints[c] = new int[capacity];
+            } else if (type.isCompatible(LongValue.class)) {
+                m_longs[c] = new long[capacity];
+            } else if (type.isCompatible(DoubleValue.class)) {
+                m_doubles[c] = new double[capacity];
+            }
+            m_missing[c] = new long[(capacity + 63) >>> 6];
+        }
+        m_capacity = capacity;
+    }
+
+    @Override
+    public int forward(final int maxBatchSize) {
+        ensureCapacity(maxBatchSize);
+        for (int c : m_columns) {
+            Arrays.fill(m_missing[c], 0L);
+        }
+        int size = 0;
+        while (size < maxBatchSize && m_cursor.canForward()) {
+            final RowRead row = m_cursor.forward();
+            for (int c : m_columns) {
+                if (row.isMissing(c)) {
+                    m_missing[c][size >>> 6] |= 1L << size;
+                } else if (m_ints[c] != null) {
+                    m_ints[c][size] = row.<IntValue> getValue(c).getIntValue();
+                } else if (m_longs[c] != null) {
+                    m_longs[c][size] = row.<LongValue> getValue(c).getLongValue();
+                } else if (m_doubles[c] != null) {
+                    m_doubles[c][size] = row.<DoubleValue> getValue(c).getDoubleValue();
+                }
+            }
+            size++;
+        }
+        m_batchSize = size;
+        return size;
+    }
+
+    private void checkColumn(final int column, final Class<? extends DataValue> valueClass) {
+        final DataType type = m_spec.getColumnSpec(column).getType();
+        if (valueClass != null && !type.isCompatible(valueClass)) {
+            throw new IllegalArgumentException("Column \"" + m_spec.getColumnSpec(column).getName() + "\" of type "
+                + type + " is not compatible with " + valueClass.getSimpleName());
+        }
+        if (m_missing[column] == null && m_batchSize > 0) {
+            throw new IllegalStateException(
+                "Column \"" + m_spec.getColumnSpec(column).getName() + "\" is not materialized");
+        }
+    }
+
+    private void copyMissing(final int column, final long[] missing) {
+        final int words = (m_batchSize + 63) >>> 6;
+        if (words > 0) {
+            System.arraycopy(m_missing[column], 0, missing, 0, words);
+        }
+    }
+
+    @Override
+    public void readMissing(final int column, final long[] missing) {
+        checkColumn(column, null);
+        copyMissing(column, missing);
+    }
+
+    @Override
+    public void readDoubles(final int column, final double[] values, final long[] missing) {
+        checkColumn(column, DoubleValue.class);
+        copyMissing(column, missing);
+        if (m_ints[column] != null) {
+            final int[] ints = m_ints[column];
+            for (int i = 0; i < m_batchSize; i++) {
+                values[i] = ints[i];
+            }
+        } else if (m_longs[column] != null) {
+            final long[] longs = m_longs[column];
+            for (int i = 0; i < m_batchSize; i++) {
+                values[i] = longs[i];
+            }
+        } else if (m_doubles[column] != null) {
+            System.arraycopy(m_doubles[column], 0, values, 0, m_batchSize);
+        }
+    }
+
+    @Override
+    public void readLongs(final int column, final long[] values, final long[] missing) {
+        checkColumn(column, LongValue.class);
+        copyMissing(column, missing);
+        if (m_ints[column] != null) {
+            final int[] ints = m_ints[column];
+            for (int i = 0; i < m_batchSize; i++) {
+                values[i] = ints[i];
+            }
+        } else if (m_longs[column] != null) {
+            System.arraycopy(m_longs[column], 0, values, 0, m_batchSize);
+        }
+    }
+
+    @Override
+    public void readInts(final int column, final int[] values, final long[] missing) {
+        checkColumn(column, IntValue.class);
+        copyMissing(column, missing);
+        if (m_ints[column] != null) {
+            System.arraycopy(m_ints[column], 0, values, 0, m_batchSize);
+        }
+    }
+
+    @Override
+    public int getNumColumns() {
+        return m_spec.getNumColumns();
+    }
+
+    @Override
+    public void close() {
+        m_cursor.close();
+    }
+
+}
@@ -93,6 +93,13 @@
  */
 public final class TableExtractorUtil {
 
+    /**
+     * The maximum number of rows passed to {@link BatchExtractor#readBatch(BatchCursor, int, int)} at once.
+     *
+     * @since 5.3
+     */
+    public static final int BATCH_SIZE = 1024;
+
     private TableExtractorUtil() {
 
     }
@@ -113,12 +120,11 @@ public static void extractData(final BufferedDataTable table, final long numRows
         }
         initializeExtractors(extractors, (int)numRows);
         if (numRows > 0) {
-            try (final var cursor = createCursor(table, getAllIndices(extractors), numRows)) {
-                try {
-                    traverseData(cursor, null, extractors);
-                } catch (CanceledExecutionException e) { // NOSONAR
-                    // NOSONAR exception never thrown if execution context is null
-                }
+            final var filter = createFilter(getAllIndices(extractors), numRows);
+            try {
+                traverse(table, filter, null, extractors);
+            } catch (CanceledExecutionException e) { // NOSONAR
+                // NOSONAR exception never thrown if execution context is null
             }
         }
     }
@@ -152,8 +158,22 @@ public static void extractData(final BufferedDataTable table, final Extractor...
     public static void extractData(final BufferedDataTable table, final ExecutionContext executionContext,
         final Extractor... extractors) throws CanceledExecutionException {
         initializeExtractors(extractors, (int)table.size());
-        try (final var cursor = createCursor(table, getAllIndices(extractors))) {
-            traverseData(cursor, executionContext, extractors);
+        traverse(table, createFilter(getAllIndices(extractors)), executionContext, extractors);
+    }
+
+    /**
+     * Reads the table in batches if all extractors are {@link BatchExtractor BatchExtractors}, row by row otherwise.
+     */
+    private static void traverse(final BufferedDataTable table, final TableFilter filter,
+        final ExecutionContext executionContext, final Extractor[] extractors) throws CanceledExecutionException {
+        if (Arrays.stream(extractors).allMatch(BatchExtractor.class::isInstance)) {
+            try (final var cursor = table.batchCursor(filter)) {
+                traverseBatches(cursor, executionContext, extractors);
+            }
+        } else {
+            try (final var cursor = table.cursor(filter)) {
+                traverseData(cursor, executionContext, extractors);
+            }
         }
     }
 
@@ -163,19 +183,17 @@ private static void initializeExtractors(final Extractor[] extractors, final int
         }
     }
 
-    private static RowCursor createCursor(final BufferedDataTable table, final int[] colIndices, final long numRows) {
-        var filter = new TableFilter.Builder() //
+    private static TableFilter createFilter(final int[] colIndices, final long numRows) {
+        return new TableFilter.Builder() //
             .withToRowIndex(numRows - 1) //
             .withMaterializeColumnIndices(colIndices) //
             .build();
-        return table.cursor(filter);
     }
 
-    private static RowCursor createCursor(final BufferedDataTable table, final int[] colIndices) {
-        var filter = new TableFilter.Builder() //
+    private static TableFilter createFilter(final int[] colIndices) {
+        return new TableFilter.Builder() //
             .withMaterializeColumnIndices(colIndices) //
             .build();
-        return table.cursor(filter);
     }
 
     private static int[] getAllIndices(final Extractor[] extractors) {
@@ -205,6 +223,24 @@ private static void traverseData(final RowCursor cursor, final ExecutionContext
         }
     }
 
+    /**
+     * Assumes CanceledExecutionException is never thrown if executionContext is null.
+     */
+    private static void traverseBatches(final BatchCursor cursor, final ExecutionContext executionContext,
+        final Extractor[] extractors) throws CanceledExecutionException {
+        var i = 0;
+        int batchSize;
+        while ((batchSize = cursor.forward(BATCH_SIZE)) > 0) {
+            if (executionContext != null) {
+                executionContext.checkCanceled();
+            }
+            for (Extractor extractor : extractors) {
+                ((BatchExtractor)extractor).readBatch(cursor, batchSize, i);
+            }
+            i += batchSize;
+        }
+    }
+
     /**
      * Restricts a function taking a {@link RowRead} and an arbitrary integer to one selected integer.
      *
@@ -248,4 +284,26 @@ public interface Extractor {
         int[] getColumnIndices();
 
     }
+
+    /**
+     * An {@link Extractor} that can also process batches of rows. If all extractors applied to a table are batch
+     * extractors, the table is read via a {@link BatchCursor} and {@link #readBatch(BatchCursor, int, int)} is called
+     * instead of {@link #readRow(RowRead, int)}.
+     *
+     * @since 5.3
+     */
+    public interface BatchExtractor extends Extractor {
+
+        /**
+         * Gets called once per batch of at most {@link TableExtractorUtil#BATCH_SIZE} rows and extracts data from the
+         * batch in the same way {@link #readRow(RowRead, int)} does for a single row.
+         *
+         * @param batch the cursor positioned at the batch, only the columns of {@link #getColumnIndices()} are to be
+         *            read
+         * @param batchSize the number of rows in the batch
+         * @param firstRowIndex the index of the first row of the batch since initialisation
+         */
+        void readBatch(BatchCursor batch, int batchSize, int firstRowIndex);
+
+    }
 }
@@ -64,6 +64,9 @@
     /** Calls super constructor and sets all fields (including the conversion logic). */
     public ByteVectorValueToPrimitiveIntArrayConverterFactory() {
         super(ByteVectorValue.class, int[].class, VEC -> {
+            if (VEC instanceof DenseByteVectorCell) {
+                return ((DenseByteVectorCell)VEC).getAllCounts();
+            }
             long length = VEC.length();
             CheckUtils.checkArgument(length <= Integer.MAX_VALUE, "Vector too long: %d", length);
             int[] result = new int[(int)length];
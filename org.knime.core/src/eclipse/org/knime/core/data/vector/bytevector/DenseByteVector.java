@@ -47,6 +47,7 @@
  */
 package org.knime.core.data.vector.bytevector;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -109,6 +110,28 @@ public DenseByteVector(final DenseByteVector byteVector) {
         m_storage = byteVector.m_storage.clone();
     }
 
+    /**
+     * Creates a new vector initialized by the passed counts. The length of the
+     * new vector is the length of the argument array.
+     *
+     * @param counts the values to initialize the new vector with, each in the
+     *            range of 0 ... 255.
+     * @throws IllegalArgumentException if any count is negative or larger than
+     *             255
+     * @since 5.3
+     */
+    public DenseByteVector(final int[] counts) {
+        m_storage = new byte[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            final int count = counts[i];
+            if (count < 0 || count > MAX_COUNT) {
+                throw new IllegalArgumentException("Only values 0..."
+                        + MAX_COUNT + " can be stored in the vector");
+            }
+            m_storage[i] = (byte)count;
+        }
+    }
+
     /**
      * Returns the length of the vector.
      *
@@ -494,6 +517,16 @@ public int[] getAllCounts() {
         return result;
     }
 
+    /**
+     * Returns a read-only view on the internal array of counts (no copy). The
+     * same remarks on signed bytes as in {@link #getAllCountsAsBytes()} apply.
+     *
+     * @return a read-only buffer with position 0 and limit {@link #length()}
+     */
+    ByteBuffer asReadOnlyBuffer() {
+        return ByteBuffer.wrap(m_storage).asReadOnlyBuffer();
+    }
+
     /**
      * Calculates the checksum, the sum of all counts stored.
      *
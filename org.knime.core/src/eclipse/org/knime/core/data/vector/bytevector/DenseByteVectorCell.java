@@ -48,6 +48,7 @@
 package org.knime.core.data.vector.bytevector;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataCellDataInput;
@@ -96,7 +97,15 @@ public static final DataCellSerializer<DenseByteVectorCell> getCellSerializer()
      * @param byteVector the byte vector a copy of which is stored in this cell.
      */
     DenseByteVectorCell(final DenseByteVector byteVector) {
-        m_byteVector = new DenseByteVector(byteVector);
+        this(byteVector, true);
+    }
+
+    /**
+     * @param byteVector the byte vector stored in this cell.
+     * @param copy whether to store a copy of the argument, if false the caller must not modify the vector afterwards
+     */
+    DenseByteVectorCell(final DenseByteVector byteVector, final boolean copy) {
+        m_byteVector = copy ? new DenseByteVector(byteVector) : byteVector;
     }
 
     /**
@@ -204,6 +213,27 @@ public DenseByteVector getByteVectorCopy() {
         return new DenseByteVector(m_byteVector);
     }
 
+    /**
+     * Returns the counts of this vector as int array holding values 0 ... 255, copied in one pass.
+     *
+     * @return a new array of length {@link #length()}
+     * @since 5.3
+     */
+    public int[] getAllCounts() {
+        return m_byteVector.getAllCounts();
+    }
+
+    /**
+     * Returns a read-only view on the counts of this vector. No values are copied. Note that bytes are signed in
+     * Java, use <code>Byte.toUnsignedInt(byte)</code> to obtain the count in the range of 0 ... 255.
+     *
+     * @return a read-only buffer with position 0 and limit {@link #length()}
+     * @since 5.3
+     */
+    public ByteBuffer asByteBuffer() {
+        return m_byteVector.asReadOnlyBuffer();
+    }
+
     /**
      * Factory for {@link DenseByteVectorCell}s.
      *
@@ -355,4 +355,20 @@ public static DenseByteVectorCell sum(final ByteVectorValue bv1,
     public DenseByteVectorCell createDataCell() {
         return new DenseByteVectorCell(m_vector);
     }
+
+    /**
+     * Creates a {@link DataCell} holding the specified counts. Other than
+     * initializing a factory and setting each value individually, the counts
+     * are copied only once.
+     *
+     * @param counts the counts of the new vector, each in the range of
+     *            0 ... 255.
+     * @return a new cell with the length of the argument array
+     * @throws IllegalArgumentException if any count is negative or larger than
+     *             255
+     * @since 5.3
+     */
+    public static DenseByteVectorCell createCell(final int[] counts) {
+        return new DenseByteVectorCell(new DenseByteVector(counts), false);
+    }
 }
@@ -63,13 +63,8 @@ public final class IntArrayToDenseByteVectorCellConverter extends SimpleJavaToDa
 
     /** Calls super constructor and sets all fields (including the conversion logic). */
     public IntArrayToDenseByteVectorCellConverter() {
-        super(int[].class, DenseByteVectorCell.TYPE, s -> {
-            DenseByteVectorCellFactory fac = new DenseByteVectorCellFactory(s.length);
-            for (int i = 0; i < s.length; i++) {
-                fac.setValue(i, s[i]);
-            }
-            return fac.createDataCell();
-        }, "int[] (values in [0-255])");
+        super(int[].class, DenseByteVectorCell.TYPE, DenseByteVectorCellFactory::createCell,
+            "int[] (values in [0-255])");
     }
 
 }
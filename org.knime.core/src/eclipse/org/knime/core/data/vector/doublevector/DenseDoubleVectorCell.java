@@ -48,6 +48,7 @@
 package org.knime.core.data.vector.doublevector;
 
 import java.io.IOException;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.stream.IntStream;
@@ -100,6 +101,27 @@ public double getValue(final int index) {
         return m_doubleVector[index];
     }
 
+    /**
+     * Returns a read-only view on the values of this vector. No values are copied, the buffer is backed by the
+     * cell's internal array.
+     *
+     * @return a read-only buffer with position 0 and limit {@link #getLength()}
+     * @since 5.3
+     */
+    public DoubleBuffer asDoubleBuffer() {
+        return DoubleBuffer.wrap(m_doubleVector).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a copy of the values of this vector.
+     *
+     * @return a new array of length {@link #getLength()}
+     * @since 5.3
+     */
+    public double[] toDoubleArray() {
+        return m_doubleVector.clone();
+    }
+
     /* ########################
      * CollectionDataValue
      * ######################## */
@@ -125,7 +147,7 @@ public boolean containsBlobWrapperCells() {
     /** {@inheritDoc} */
     @Override
     public Iterator<DataCell> iterator() {
-        return Arrays.stream(m_doubleVector).boxed().map(d -> (DataCell)new DoubleCell(d)).iterator();
+        return Arrays.stream(m_doubleVector).mapToObj(d -> (DataCell)new DoubleCell(d)).iterator();
     }
 
     /** {@inheritDoc} */
@@ -47,6 +47,8 @@
  */
 package org.knime.core.data.vector.doublevector;
 
+import java.nio.DoubleBuffer;
+
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataCellFactory;
 import org.knime.core.data.DataType;
@@ -75,6 +77,18 @@ public static <T extends DataCell, DoubleVectorValue> T createCell(final double[
         return (T)new DenseDoubleVectorCell(vector);
     }
 
+    /** Create cell from the remaining values of the argument buffer. The values are copied once, the buffer's
+     * position is not modified.
+     * @param buffer The non-null buffer to read from.
+     * @return a cell
+     * @since 5.3
+     */
+    public static DenseDoubleVectorCell createCell(final DoubleBuffer buffer) {
+        final double[] vector = new double[buffer.remaining()];
+        buffer.duplicate().get(vector);
+        return new DenseDoubleVectorCell(vector);
+    }
+
 
     /** {@inheritDoc} */
     @Override
@@ -92,6 +92,7 @@
 import org.knime.core.data.container.filter.TableFilter;
 import org.knime.core.data.container.storage.TableStoreFormat;
 import org.knime.core.data.container.storage.TableStoreFormatRegistry;
+import org.knime.core.data.v2.BatchCursor;
 import org.knime.core.data.v2.RowCursor;
 import org.knime.core.internal.ReferencedFile;
 import org.knime.core.node.config.Config;
@@ -396,6 +397,19 @@ public RowCursor cursor(final TableFilter filter) {
         return m_delegate.cursor(filter);
     }
 
+    /**
+     * Provides a {@link BatchCursor} to read the values of the numeric columns of this table in batches of consecutive
+     * rows, see {@link #cursor(TableFilter)}.
+     *
+     * @param filter to filter rows and columns, possibly null
+     * @return {@link BatchCursor} to access the table in batches
+     * @apiNote Must not to be called by clients. Experimental API.
+     * @since 5.3
+     */
+    public BatchCursor batchCursor(final TableFilter filter) {
+        return m_delegate.batchCursor(filter);
+    }
+
     /**
      * Provides a {@link CloseableDataRowIterable} that is filtered according to a given {@link TableFilter} and can be
      * iterated over. The filtering won't change this BufferedDataTable or impact subsequent calls of this method with
@@ -1048,6 +1062,21 @@ void saveToFile(final File f, final NodeSettingsWO settings,
          */
         RowCursor cursor(final TableFilter filter);
 
+        /**
+         * Provides a {@link BatchCursor} to read the numeric columns of the table in batches. The default
+         * implementation reads the rows through {@link #cursor(TableFilter)}, tables that store primitive columns
+         * natively are expected to override it.
+         *
+         * @param filter to filter rows and columns, possibly null
+         * @return {@link BatchCursor} to access the table in batches
+         * @apiNote Must not to be called by clients. Experimental API.
+         * @since 5.3
+         */
+        default BatchCursor batchCursor(final TableFilter filter) {
+            final RowCursor cursor = filter == null ? cursor() : cursor(filter);
+            return BatchCursor.fromRowCursor(cursor, getDataTableSpec(), filter);
+        }
+
         /**
          * Provides a {@link CloseableRowIterator} that is filtered according to a given {@link TableFilter}. The
          * filtering won't change this KnowsRowCountTable or impact subsequent calls of this method with other filters.
@@ -48,6 +48,7 @@
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -61,6 +62,7 @@
 import org.knime.core.data.RowKey;
 import org.knime.core.data.TableBackend;
 import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.container.ColumnRearrangerUtils;
 import org.knime.core.data.container.ContainerTable;
 import org.knime.core.data.container.DataContainerSettings;
 import org.knime.core.data.container.DefaultLocalDataRepository;
@@ -467,6 +469,25 @@ public BufferedDataTable createColumnRearrangeTable(
         return wrapTableFromBackend(t);
     }
 
+    /**
+     * Creates a new <code>BufferedDataTable</code> by applying a chain of rearrangers to the input table, whereby each
+     * rearranger is defined on the output spec of its predecessor. The result is equal to calling
+     * {@link #createColumnRearrangeTable(BufferedDataTable, ColumnRearranger, ExecutionMonitor)} once per rearranger,
+     * but the input is iterated only once and intermediate columns are never written.
+     *
+     * @param in The input table, i.e. reference table.
+     * @param rearrangers The rearrangers in order of application, not empty.
+     * @param subProgressMon For progress reporting and cancelation.
+     * @return A new table which can be returned in the execute method.
+     * @throws CanceledExecutionException If canceled.
+     * @since 5.3
+     */
+    public BufferedDataTable createColumnRearrangeTable(final BufferedDataTable in,
+        final List<ColumnRearranger> rearrangers, final ExecutionMonitor subProgressMon)
+        throws CanceledExecutionException {
+        return createColumnRearrangeTable(in, ColumnRearrangerUtils.fuse(rearrangers), subProgressMon);
+    }
+
     /**
      * Creates a new <code>BufferedDataTable</code> based on a given input table
      * (<code>in</code>) whereby only the table spec of it has changed.
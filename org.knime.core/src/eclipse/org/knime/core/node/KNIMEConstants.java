@@ -395,6 +395,83 @@ public final class KNIMEConstants {
     * @since 3.0 */
    public static final String PROPERTY_HIGH_DPI_SUPPORT = "knime.highdpi.support";
 
+   /**
+    * Java property to defer loading of node internals ({@link NodeModel#loadInternals(java.io.File, ExecutionMonitor)})
+    * when an executed workflow is opened. If set to <code>true</code> the internals are read from disk on first
+    * access of the node model (e.g. when a view is opened or the node is saved) and are discarded without reading
+    * if the node gets reset first. Tables are always loaded lazily. Nodes holding internal tables or port objects
+    * always load their internals eagerly. Errors while reading deferred internals are shown as node error message
+    * (not as part of the workflow load result). Default is <code>false</code>.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_LAZY_LOAD_INTERNALS = "knime.node.lazyload.internals";
+
+   /**
+    * Java property to specify the number of threads used to write the node directories of a workflow when it is
+    * saved into a location other than its working directory (auto-save, "save as"). Only changed (dirty) nodes are
+    * written in either case. A value of 1 or less writes nodes sequentially, which is the default.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_WORKFLOW_SAVE_THREADS = "knime.workflow.save.threads";
+
+   /**
+    * Java property to record a timeline of all node executions (queue wait, execution steps, memory alerts) and to
+    * write it to the file given as value when the application shuts down. The file is written in Chrome Trace Event
+    * JSON format, see {@link org.knime.core.node.workflow.NodeExecutionTracer}. Not set by default.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_EXECUTION_TRACE_FILE = "knime.execution.trace.file";
+
+   /**
+    * Java property to specify the maximum number of partitions a node with distributable streamable input is
+    * executed on concurrently, see {@link org.knime.core.node.streamable.PartitionedStreamableExecutor}. Only nodes
+    * implementing {@link org.knime.core.node.streamable.PartitionableNodeModel} are executed this way. The actual
+    * number is further limited by the thread budget and the number of input rows. A value of 1 or less disables
+    * partitioned execution, which is the default.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_EXECUTION_PARTITIONS = "knime.execution.partitions";
+
+   /**
+    * Java property to enable deduplication of blob files. If set to true, blob cells with identical content written
+    * into different tables of a workflow are stored only once on disc (using hard links, if supported by the file
+    * system). Disabled by default.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_BLOB_DEDUPLICATION = "knime.blob.deduplication";
+
+   /**
+    * Java property to set the number of rows by which iterators on buffered tables read ahead in order to load the
+    * blob cells of these rows concurrently in the background. Useful if blob files are stored on slow (e.g. network)
+    * storage. Defaults to 0, i.e. blobs are read when they are first accessed.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_BLOB_PREFETCH_ROWS = "knime.blob.prefetchRows";
+
+   /**
+    * Java property to disable dictionary encoding of string cells in tables written to disc. By default, string
+    * columns with few distinct values store each value only once per table; if set to true, all string cells are
+    * written plainly.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_TABLE_DISABLE_DICTIONARY_ENCODING = "knime.table.disableDictionaryEncoding";
+
+   /**
+    * Java property to disable the compact encoding of list and set cells whose elements are all int, long, double or
+    * string cells. If set to true, such collections are written element by element as full cells, as before.
+    *
+    * @since 5.3
+    */
+   public static final String PROPERTY_TABLE_DISABLE_COMPACT_COLLECTION_ENCODING =
+       "knime.table.disableCompactCollectionEncoding";
+
     /**
      * The minimum refresh interval in ms, e.g. to refresh the node progress or the state of the remote job view.
      *
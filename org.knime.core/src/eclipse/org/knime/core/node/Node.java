@@ -57,6 +57,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -70,13 +71,18 @@
 import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.DataType;
 import org.knime.core.data.IDataRepository;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.container.ContainerTable;
 import org.knime.core.data.container.DataContainerException;
 import org.knime.core.data.container.RowFlushable;
+import org.knime.core.data.container.WrappedTable;
+import org.knime.core.data.filestore.FileStoreCell;
 import org.knime.core.data.filestore.FileStorePortObject;
 import org.knime.core.data.filestore.FileStoreUtil;
 import org.knime.core.data.filestore.internal.IFileStoreHandler;
@@ -125,8 +131,10 @@
 import org.knime.core.node.workflow.FlowVariable;
 import org.knime.core.node.workflow.LoopEndNode;
 import org.knime.core.node.workflow.LoopStartNode;
+import org.knime.core.node.workflow.NodeContainer;
 import org.knime.core.node.workflow.NodeContainer.NodeContainerSettings.SplitType;
 import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.node.workflow.NodeExecutionTracer;
 import org.knime.core.node.workflow.NodeID;
 import org.knime.core.node.workflow.NodeMessage;
 import org.knime.core.node.workflow.NodeMessageEvent;
@@ -240,6 +248,15 @@ static class Input {
      * implements {@link BufferedDataTableHolder} or {@link PortObjectHolder}. In most cases this is null. */
     private PortObject[] m_internalHeldPortObjects;
 
+    /** Inputs, settings and output of the previous loop iteration if this node is a loop body node whose output can
+     * be reused in the next iteration (see {@link DeterministicNodeModel}). Its tables
+     * survive a loop restart. Null in most cases. */
+    private LoopInvariantOutput m_loopInvariantOutput;
+
+    /** Identity of the data inputs, model settings and raw output of a loop body node's execution. */
+    private record LoopInvariantOutput(Object[] inputs, NodeSettings modelSettings, PortObject[] outputs) {
+    }
+
     /** The listeners that are interested in node state changes. */
     private final CopyOnWriteArraySet<NodeMessageListener> m_messageListeners;
 
@@ -264,6 +281,16 @@ static class Input {
     // cases then
     private final Object m_configureLock = new Object();
 
+    /** Internals directory whose content has not yet been passed to the model (only set when
+     * {@link KNIMEConstants#PROPERTY_LAZY_LOAD_INTERNALS} is enabled), together with the node context that was
+     * present during load. Loaded on first access by {@link #ensureInternalsLoaded()}, discarded on reset. Guarded
+     * by {@link #m_lazyInternalsLock}. */
+    private ReferencedFile m_lazyInternDirRef;
+
+    private NodeContext m_lazyInternalsContext;
+
+    private final Object m_lazyInternalsLock = new Object();
+
     private final ModifiableNodeCreationConfiguration m_creationConfig;
 
     private final NodeDescription m_adaptedNodeDescription;
@@ -518,7 +545,23 @@ public void loadDataAndInternals(final NodeContentPersistor loader,
         }
         m_model.restoreWarningMessage(loader.getWarningMessage());
         ReferencedFile internDirRef = loader.getNodeInternDirectory();
-        if (internDirRef != null) {
+        discardLazyInternals();
+        // internals are part of the workflow directory (not a temp directory), read them on first access -- unless
+        // the node holds internal objects, which by contract are set after the internals are loaded
+        if (internDirRef != null && Boolean.getBoolean(KNIMEConstants.PROPERTY_LAZY_LOAD_INTERNALS)
+                && loader instanceof FileNodePersistor && loader.mustWarnOnDataLoadError()
+                && !(m_model instanceof BufferedDataTableHolder || m_model instanceof PortObjectHolder)) {
+            // the content can only be validated when read, but an unreadable directory is reported right away
+            final File internDir = internDirRef.getFile();
+            if (internDir.exists() && !(internDir.isDirectory() && internDir.canRead())) {
+                loadResult.addError("Loading model internals failed: " + internDir.getAbsolutePath()
+                    + " is not a readable directory", true);
+            }
+            synchronized (m_lazyInternalsLock) {
+                m_lazyInternDirRef = internDirRef;
+                m_lazyInternalsContext = NodeContext.getContext();
+            }
+        } else if (internDirRef != null) {
             internDirRef.lock();
             try {
                 exec.setMessage("Loading internals");
@@ -1056,7 +1099,11 @@ public boolean execute(final PortObject[] rawInData, final ExecutionEnvironment
             try {
                 // INVOKE MODEL'S EXECUTE
                 // (warnings will now be processed "automatically" - we listen)
-                rawOutData = invokeFullyNodeModelExecute(exec, exEnv, newInData);
+                rawOutData = reuseLoopInvariantOutput(rawInData, exec);
+                if (rawOutData == null) {
+                    rawOutData = invokeFullyNodeModelExecute(exec, exEnv, newInData);
+                    rememberLoopInvariantOutput(rawInData, exEnv, rawOutData);
+                }
                 // e.g. flushes any open containers if the node is a LoopEnd node
                 if (isModelCompatibleTo(RowFlushable.class)) {
                     ((RowFlushable)m_model).flushRows();
@@ -1185,6 +1232,98 @@ public boolean execute(final PortObject[] rawInData, final ExecutionEnvironment
         return true;
     } // execute
 
+    /** Returns the output of the previous loop iteration if the node is still loop invariant, i.e. if its data inputs
+     * and model settings are the same as when the output was remembered. Otherwise the remembered output is disposed.
+     * @param rawInData the data from the predecessor, includes flow variable port.
+     * @param exec Context - for the data repository of the disposed tables
+     * @return the previous raw output or null if the node needs to be executed.
+     */
+    private PortObject[] reuseLoopInvariantOutput(final PortObject[] rawInData, final ExecutionContext exec) {
+        final LoopInvariantOutput previous = m_loopInvariantOutput;
+        if (previous == null) {
+            return null;
+        }
+        m_loopInvariantOutput = null;
+        if (Arrays.equals(previous.inputs(), getLoopInvariantInputs(rawInData))
+            && previous.modelSettings().equals(getLoopInvariantModelSettings())) {
+            LOGGER.debug("Reusing loop invariant output of previous iteration");
+            m_loopInvariantOutput = previous;
+            return previous.outputs();
+        }
+        final Set<BufferedDataTable> disposableTables =
+            new LinkedHashSet<>(collectTableAndReferences(previous.outputs()));
+        disposableTables.removeAll(collectTableAndReferences(m_internalHeldPortObjects));
+        disposeTables(exec != null ? (WorkflowDataRepository)exec.getDataRepository() : null, disposableTables);
+        return null;
+    }
+
+    /** Remembers the output of the last execution if this node is a {@link DeterministicNodeModel} in a loop body,
+     * has at least one and only table inputs and outputs, neither reads nor pushes flow variables, does not hold
+     * internal objects and creates no file stores.
+     * @param rawInData the data from the predecessor, includes flow variable port.
+     * @param exEnv exec environment or null
+     * @param rawOutData the raw output of the execution.
+     */
+    private void rememberLoopInvariantOutput(final PortObject[] rawInData, final ExecutionEnvironment exEnv,
+        final PortObject[] rawOutData) {
+        if (!(m_model instanceof DeterministicNodeModel) || (exEnv != null && exEnv.reExecute())
+            || getFlowObjectStack().peek(FlowLoopContext.class) == null || m_model.hasAccessedFlowVariables()
+            || m_model instanceof LoopStartNode || m_model instanceof LoopEndNode
+            || m_model instanceof ScopeStartNode || m_model instanceof ScopeEndNode
+            || m_model instanceof BufferedDataTableHolder || m_model instanceof PortObjectHolder
+            || m_model instanceof InactiveBranchConsumer || m_model.getLoopContext() != null) {
+            return;
+        }
+        final Object[] inputs = getLoopInvariantInputs(rawInData);
+        if (inputs == null || rawOutData == null || rawOutData.length < 2) {
+            return;
+        }
+        for (int i = 1; i < rawOutData.length; i++) {
+            if (!(rawOutData[i] instanceof BufferedDataTable table) || mayContainFileStores(table.getDataTableSpec())) {
+                return;
+            }
+        }
+        m_loopInvariantOutput = new LoopInvariantOutput(inputs, getLoopInvariantModelSettings(), rawOutData);
+    }
+
+    /** The identity of the data inputs; wrapper tables are unwrapped as they are re-created by the predecessor's
+     * execution even if its input didn't change.
+     * @return the (unwrapped) input tables or null if any input is not a table or there is no input table */
+    private static Object[] getLoopInvariantInputs(final PortObject[] rawInData) {
+        final Object[] inputs = new Object[rawInData.length];
+        boolean hasTableInput = false;
+        for (int i = 1; i < rawInData.length; i++) {
+            if (rawInData[i] instanceof BufferedDataTable table) {
+                BufferedDataTable unwrapped = table;
+                while (unwrapped.getDelegate() instanceof WrappedTable wrapped) {
+                    unwrapped = wrapped.getReferenceTables()[0];
+                }
+                inputs[i] = unwrapped;
+                hasTableInput = true;
+            } else if (rawInData[i] != null) {
+                return null;
+            }
+        }
+        return hasTableInput ? inputs : null;
+    }
+
+    private NodeSettings getLoopInvariantModelSettings() {
+        final NodeSettings settings = new NodeSettings("model");
+        saveModelSettingsTo(settings);
+        return settings;
+    }
+
+    private static boolean mayContainFileStores(final DataTableSpec spec) {
+        for (DataColumnSpec colSpec : spec) {
+            final DataType type = colSpec.getType();
+            final Class<? extends DataCell> cellClass = type.getCellClass();
+            if (cellClass == null || type.isCollectionType() || FileStoreCell.class.isAssignableFrom(cellClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /** Called after execute to retrieve internal held objects from underlying NodeModel and to do some clean-up with
      * previous objects. Only relevant for {@link BufferedDataTableHolder} and {@link PortObjectHolder}.
      * @param rawInData Raw in data, potentially empty array for streaming executor
@@ -1294,7 +1433,36 @@ public PortObject[] invokeNodeModelExecute(final ExecutionContext exec, final Ex
     public PortObject[] invokeFullyNodeModelExecute(final ExecutionContext exec, final ExecutionEnvironment exEnv,
         final PortObject[] inData) throws Exception {
         // this may not have a NodeContext set (when run through 3rd party executor)
-        return m_model.executeModel(inData, exEnv, exec);
+        final NodeExecutionTracer tracer = NodeExecutionTracer.getInstance();
+        if (!tracer.isEnabled()) {
+            return m_model.executeModel(inData, exEnv, exec);
+        }
+        final long start = System.nanoTime();
+        final PortObject[] outData;
+        try {
+            outData = m_model.executeModel(inData, exEnv, exec);
+        } catch (Throwable t) { // NOSONAR rethrown
+            tracer.recordStep(getTraceNodeName(), "NodeModel.execute", start, System.nanoTime(),
+                Map.of("error", t.getClass().getName()));
+            throw t;
+        }
+        final long end = System.nanoTime();
+        final Map<String, Object> args = new LinkedHashMap<>();
+        if (outData != null) {
+            for (int i = 0; i < outData.length; i++) {
+                if (outData[i] instanceof BufferedDataTable table) {
+                    args.put("rows_port" + i, table.size());
+                }
+            }
+        }
+        tracer.recordStep(getTraceNodeName(), "NodeModel.execute", start, end, args);
+        return outData;
+    }
+
+    /** @return name of the node in the execution trace, with ID if a node context is set */
+    private String getTraceNodeName() {
+        return Optional.ofNullable(NodeContext.getContext()).map(NodeContext::getNodeContainer)
+            .map(NodeContainer::getNameWithID).orElse(getName());
     }
 
     /**
@@ -1625,9 +1793,11 @@ public void reset() {
                 "No node context available, please check call hierarchy and fix it");
 
         LOGGER.debug("reset");
+        discardLazyInternals();
         clearLoopContext();
         setPauseLoopExecution(false);
         m_model.resetModel();
+        m_model.clearFlowVariableAccess();
         clearNodeMessageAndNotify();
     }
 
@@ -1693,6 +1863,16 @@ public void cleanOutPorts(final boolean isLoopRestart, final WorkflowDataReposit
                 m_internalHeldPortObjects = null;
             }
         }
+        if (m_loopInvariantOutput != null) {
+            // the output of the previous iteration is kept for reuse in the next one (and may then be disposed there)
+            Set<BufferedDataTable> loopInvariantTableSet = collectTableAndReferences(m_loopInvariantOutput.outputs());
+            if (isLoopRestart) {
+                disposableTables.removeAll(loopInvariantTableSet);
+            } else {
+                disposableTables.addAll(loopInvariantTableSet);
+                m_loopInvariantOutput = null;
+            }
+        }
         disposeTables(dataRepository, disposableTables);
         // clear temporary tables in the reverse order of how they were created during execute
         // (otherwise memory leaks may occur if tables were not properly closed by execute AP-17723)
@@ -1847,6 +2027,7 @@ public boolean isForceSychronousIO() {
      * Any output and intermediate tables must already be removed from the WorkflowDataRepository.
      */
     public void cleanup() {
+        discardLazyInternals();
         m_model.unregisterAllViews();
         try {
             m_model.onDispose();
@@ -2044,6 +2225,7 @@ public AbstractNodeView<?> getView(final int viewIndex, final String title) {
             "No node context available, please check call hierarchy and fix it");
 
         try {
+            ensureInternalsLoaded();
             return m_factory.createAbstractNodeView(viewIndex, m_model);
         } catch (Throwable e) {
             String errorMsg = "View instantiation failed: " + e.getMessage();
@@ -2114,6 +2296,7 @@ public String getInteractiveViewName() {
             throw new RuntimeException(errorMsg);
         }
         try {
+            ensureInternalsLoaded();
             return (V)((InteractiveNodeFactoryExtension)m_factory).createInteractiveView(m_model);
         } catch (Throwable e) {
             String errorMsg = "Interactive View instantiation failed: " + e.getMessage();
@@ -2451,7 +2634,8 @@ public void saveInternals(final File internDir, final ExecutionMonitor exec)
         LOGGER.assertLog(NodeContext.getContext() != null,
                 "No node context available, please check call hierarchy and fix it");
 
-
+        // the (not yet loaded) internals may live in the very directory that is about to be overwritten
+        ensureInternalsLoaded();
         if (internDir.exists()) {
             FileUtil.deleteRecursively(internDir);
         }
@@ -2495,6 +2679,7 @@ public void loadInternals(final File internDir, final ExecutionMonitor exec)
         LOGGER.assertLog(NodeContext.getContext() != null,
             "No node context available, please check call hierarchy and fix it");
 
+        discardLazyInternals();
         if (m_model.hasContent()) {
             try {
                 m_model.loadInternals(internDir, exec);
@@ -2513,6 +2698,55 @@ public void loadInternals(final File internDir, final ExecutionMonitor exec)
         }
     }
 
+    /**
+     * Passes the internals that were skipped during a lazy load (see
+     * {@link KNIMEConstants#PROPERTY_LAZY_LOAD_INTERNALS}) to the node model. Does nothing if there are no pending
+     * internals. Errors are reported as node message and logged, similar to
+     * {@link #loadInternals(File, ExecutionMonitor)}; the workflow's load result is not available anymore.
+     */
+    private void ensureInternalsLoaded() {
+        final ReferencedFile internDirRef;
+        final NodeContext context;
+        synchronized (m_lazyInternalsLock) {
+            internDirRef = m_lazyInternDirRef;
+            context = m_lazyInternalsContext;
+            m_lazyInternDirRef = null;
+            m_lazyInternalsContext = null;
+            if (internDirRef == null) {
+                return;
+            }
+            // loading under the lock so that concurrent callers see the model only after it is complete
+            if (context != null) {
+                NodeContext.pushContext(context);
+            }
+            internDirRef.lock();
+            try {
+                LOGGER.debug("Loading deferred internals");
+                m_model.loadInternals(internDirRef.getFile(), new ExecutionMonitor());
+            } catch (Throwable e) {
+                String details = StringUtils.defaultIfEmpty(e.getMessage(), "<no details available>");
+                LOGGER.warn("Loading deferred model internals failed: " + details, e);
+                createErrorMessageAndNotify(Message.fromSummary("Loading model internals failed: " + details), e);
+                if (!(e instanceof IOException)) {
+                    LOGGER.coding("loadInternals() should only cause IOException.", e);
+                }
+            } finally {
+                internDirRef.unlock();
+                if (context != null) {
+                    NodeContext.removeLastContext();
+                }
+            }
+        }
+    }
+
+    /** Forgets about internals that were not yet loaded (node is reset or disposed). */
+    private void discardLazyInternals() {
+        synchronized (m_lazyInternalsLock) {
+            m_lazyInternDirRef = null;
+            m_lazyInternalsContext = null;
+        }
+    }
+
     /**
      * Adds a state listener to this node. Ignored, if the listener is already
      * registered.
@@ -2579,8 +2813,10 @@ public NodeFactory<NodeModel> getFactory() {
         return m_factory;
     }
 
-    /** @return the underlying node model. */
+    /** @return the underlying node model. If the node internals were loaded lazily (see
+     * {@link KNIMEConstants#PROPERTY_LAZY_LOAD_INTERNALS}) they are read before the model is returned. */
     public NodeModel getNodeModel() {
+        ensureInternalsLoaded();
         return m_model;
     }
 
@@ -2818,7 +3054,8 @@ public FlowObjectStack getOutgoingFlowObjectStack() {
      * @since 2.8
      */
     public boolean isModelCompatibleTo(final Class<?> nodeModelClass) {
-        return nodeModelClass.isAssignableFrom(this.getNodeModel().getClass());
+        // not via getNodeModel() as this would load deferred internals
+        return nodeModelClass.isAssignableFrom(m_model.getClass());
     }
 
     /** Possible roles of loop roles. */
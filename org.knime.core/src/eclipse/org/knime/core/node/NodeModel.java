@@ -83,6 +83,7 @@
 import org.knime.core.node.streamable.MergeOperator;
 import org.knime.core.node.streamable.OutputPortRole;
 import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PartitionedStreamableExecutor;
 import org.knime.core.node.streamable.PortInput;
 import org.knime.core.node.streamable.PortObjectInput;
 import org.knime.core.node.streamable.PortObjectOutput;
@@ -215,6 +216,9 @@ public abstract class NodeModel implements ViewableModel {
 //        return m_nodeConfiguration;
 //    }
 
+    /** See {@link KNIMEConstants#PROPERTY_EXECUTION_PARTITIONS}. */
+    private static final int EXECUTION_PARTITIONS = Integer.getInteger(KNIMEConstants.PROPERTY_EXECUTION_PARTITIONS, 1);
+
     /**
      * The node logger for this class; do not make static to make sure the right
      * class name is printed in messages.
@@ -585,7 +589,7 @@ PortObject[] executeModel(final PortObject[] rawData, final ExecutionEnvironment
         PortObject[] outData;
         try {
             if (!exEnv.reExecute()) {
-                outData = execute(data, exec);
+                outData = executePartitionedOrDefault(data, exec);
             } else {
                 if (this instanceof ReExecutable) {
                     @SuppressWarnings("rawtypes")
@@ -631,6 +635,21 @@ PortObject[] executeModel(final PortObject[] rawData, final ExecutionEnvironment
         return rawOutData;
     } // executeModel(PortObject[],ExecutionMonitor)
 
+    /**
+     * Runs the node's distributable streaming implementation on several partitions of the input if enabled via
+     * {@link KNIMEConstants#PROPERTY_EXECUTION_PARTITIONS} and supported by the node (see
+     * {@link org.knime.core.node.streamable.PartitionableNodeModel}), otherwise (and for loop nodes) calls
+     * {@link #execute(PortObject[], ExecutionContext)}.
+     */
+    private PortObject[] executePartitionedOrDefault(final PortObject[] data, final ExecutionContext exec)
+        throws Exception {
+        if (EXECUTION_PARTITIONS > 1 && !(this instanceof LoopStartNode) && !(this instanceof LoopEndNode)
+            && PartitionedStreamableExecutor.canExecute(this, data, m_outPortTypes)) {
+            return PartitionedStreamableExecutor.execute(this, data, m_outPortTypes, EXECUTION_PARTITIONS, exec);
+        }
+        return execute(data, exec);
+    }
+
     /**
      * Called from {@link #executeModel(PortObject[], ExecutionEnvironment, ExecutionContext)} to do sanity checks on
      * input.
@@ -1357,12 +1376,18 @@ final void setCredentialsProvider(final CredentialsProvider provider) {
      * @return A provider for credentials available in this workflow.
      */
     protected final CredentialsProvider getCredentialsProvider() {
+        m_hasAccessedFlowVariables = true;
         return m_credentialsProvider;
     }
 
     /** Holds the {@link FlowObjectStack} of this node. */
     private FlowObjectStack m_flowObjectStack;
 
+    /** Set whenever the node implementation reads or pushes flow variables or credentials; cleared by the framework
+     * on reset. Used to decide whether a loop body node can reuse its previous output (see
+     * {@link DeterministicNodeModel}). */
+    private volatile boolean m_hasAccessedFlowVariables;
+
     /** Variables that were added by the node model. This is to fix bug 1771
      * (flow object stack contains obsolete items). These elements will be
      * pushed on the real node stack after execute. */
@@ -1378,6 +1403,7 @@ protected final CredentialsProvider getCredentialsProvider() {
      * @since 2.8
      */
     public final String peekFlowVariableString(final String name) {
+        m_hasAccessedFlowVariables = true;
         try {
             return m_outgoingFlowObjectStack.peekFlowVariable(
                     name, FlowVariable.Type.STRING).getStringValue();
@@ -1426,6 +1452,7 @@ protected final <T> void pushFlowVariable(final String name, final VariableType<
      * @since 2.8
      */
     public final double peekFlowVariableDouble(final String name) {
+        m_hasAccessedFlowVariables = true;
         try {
             return m_outgoingFlowObjectStack.peekFlowVariable(
                     name, FlowVariable.Type.DOUBLE).getDoubleValue();
@@ -1449,6 +1476,7 @@ public final double peekFlowVariableDouble(final String name) {
      * @see FlowObjectStack#peekFlowVariable(String, VariableType)
      */
     public final <T> T peekFlowVariable(final String name, final VariableType<T> type) {
+        m_hasAccessedFlowVariables = true;
         CheckUtils.checkArgumentNotNull(name, "Variable name must not be null.");
         CheckUtils.checkArgumentNotNull(type, "Variable type must not be null.");
         CheckUtils.checkArgumentNotNull(m_outgoingFlowObjectStack, "Outgoing flow object stack must not be null.");
@@ -1494,6 +1522,7 @@ protected final void pushFlowVariableInt(final String name, final int value) {
     }
 
     final void pushFlowVariable(final FlowVariable variable) {
+        m_hasAccessedFlowVariables = true;
         m_outgoingFlowObjectStack.push(variable);
     }
 
@@ -1507,6 +1536,7 @@ final void pushFlowVariable(final FlowVariable variable) {
      * @since 2.8
      */
     public final int peekFlowVariableInt(final String name) {
+        m_hasAccessedFlowVariables = true;
         try {
             return m_outgoingFlowObjectStack.peekFlowVariable(
                     name, FlowVariable.Type.INTEGER).getIntValue();
@@ -1544,6 +1574,17 @@ FlowObjectStack getOutgoingFlowObjectStack() {
         return m_outgoingFlowObjectStack;
     }
 
+    /** @return whether flow variables or credentials were accessed since the last call of
+     * {@link #clearFlowVariableAccess()}. */
+    final boolean hasAccessedFlowVariables() {
+        return m_hasAccessedFlowVariables;
+    }
+
+    /** Clears the flag returned by {@link #hasAccessedFlowVariables()}, called by the framework on reset. */
+    final void clearFlowVariableAccess() {
+        m_hasAccessedFlowVariables = false;
+    }
+
     /**
      * Get all flow variables of types {@link StringType}, {@link DoubleType}, and {@link IntType} currently available
      * at this node. The keys of the returned map will be the identifiers of the flow variables and the values the flow
@@ -1560,6 +1601,7 @@ FlowObjectStack getOutgoingFlowObjectStack() {
      */
     @Deprecated
     public final Map<String, FlowVariable> getAvailableFlowVariables() {
+        m_hasAccessedFlowVariables = true;
         Map<String, FlowVariable> result = new LinkedHashMap<String, FlowVariable>();
         if (m_flowObjectStack != null) {
             result.putAll(m_flowObjectStack.getAvailableFlowVariables());
@@ -1585,6 +1627,7 @@ public final Map<String, FlowVariable> getAvailableFlowVariables() {
      */
     @Deprecated
     final Map<String, FlowVariable> getAvailableFlowVariables(final FlowVariable.Type... types) {
+        m_hasAccessedFlowVariables = true;
         Map<String, FlowVariable> result = new LinkedHashMap<String, FlowVariable>();
         if (m_flowObjectStack != null) {
             result.putAll(m_flowObjectStack.getAvailableFlowVariables(types));
@@ -1604,6 +1647,7 @@ final Map<String, FlowVariable> getAvailableFlowVariables(final FlowVariable.Typ
      * @since 4.1
      */
     public final Map<String, FlowVariable> getAvailableFlowVariables(final VariableType<?>[] types) {
+        m_hasAccessedFlowVariables = true;
         return Collections.unmodifiableMap(Stream.concat(//
             Optional.ofNullable(m_flowObjectStack)//
             .map(s -> s.getAvailableFlowVariables(types).entrySet().stream()).orElseGet(Stream::empty),
@@ -1642,6 +1686,7 @@ public Map<String, FlowVariable> getAvailableFlowVariables(final VariableType<?>
      */
     @Deprecated
     public final Map<String, FlowVariable> getAvailableInputFlowVariables() {
+        m_hasAccessedFlowVariables = true;
         Map<String, FlowVariable> result =
             new LinkedHashMap<String, FlowVariable>();
         if (m_flowObjectStack != null) {
@@ -1661,6 +1706,7 @@ public final Map<String, FlowVariable> getAvailableInputFlowVariables() {
      * @since 4.1
      */
     public final Map<String, FlowVariable> getAvailableInputFlowVariables(final VariableType<?>[] types) {
+        m_hasAccessedFlowVariables = true;
         return m_flowObjectStack != null ? m_flowObjectStack.getAvailableFlowVariables(types) : Collections.emptyMap();
     }
 
@@ -79,6 +79,16 @@ public void push(final DataRow row) throws InterruptedException {
         m_table.addRowToTable(row);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void push(final DataRow[] rows, final int count) throws InterruptedException {
+        for (var i = 0; i < count; i++) {
+            m_table.addRowToTable(rows[i]);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
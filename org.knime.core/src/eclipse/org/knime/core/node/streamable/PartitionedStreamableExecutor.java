@@ -0,0 +1,486 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.streamable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.BufferedDataTableHolder;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectHolder;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.port.inactive.InactiveBranchPortObject;
+import org.knime.core.node.util.CheckUtils;
+import org.knime.core.util.ThreadBudget;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * Executes a {@link PartitionableNodeModel} with at least one {@linkplain InputPortRole#isDistributable()
+ * distributable} input on several partitions of its input concurrently, within this JVM. Each distributable input
+ * table is split into consecutive row ranges (using {@link TableFilter#filterRangeOfRows(long, long)}, i.e. without
+ * copying the data if the input is streamable), one {@link StreamableOperator} is created per partition and all
+ * operators run in the {@linkplain KNIMEConstants#GLOBAL_THREAD_POOL global thread pool}. The operator internals
+ * are combined using the node's {@link MergeOperator} (hierarchically, if supported) and distributable outputs are
+ * concatenated in the order of the partitions.
+ *
+ * <p>
+ * The protocol follows the streaming API: {@link NodeModel#iterate(StreamableOperatorInternals)} and
+ * {@link StreamableOperator#runIntermediate(PortInput[], ExecutionContext)} for iterative nodes,
+ * {@link NodeModel#computeFinalOutputSpecs(StreamableOperatorInternals, PortObjectSpec[])},
+ * {@link StreamableOperator#runFinal(PortInput[], PortOutput[], ExecutionContext)} and finally
+ * {@link NodeModel#finishStreamableExecution(StreamableOperatorInternals, ExecutionContext, PortOutput[])} for
+ * non-distributable outputs.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ */
+public final class PartitionedStreamableExecutor {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PartitionedStreamableExecutor.class);
+
+    /** Interval in which the calling thread checks for cancelation while waiting for the partitions. */
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+
+    private PartitionedStreamableExecutor() {
+    }
+
+    /**
+     * Whether the argument model can be executed by this class, i.e. it is a {@link PartitionableNodeModel} that
+     * does not hold internal objects, it has at least one distributable input, all distributable inputs and outputs
+     * are tables, the input is active and non-distributable outputs (or iterations, see
+     * {@link PartitionableNodeModel#isSingleIteration()}) come with a merge operator that combines the partition
+     * results.
+     *
+     * @param model the configured model
+     * @param inData the input data (without flow variable port)
+     * @param outTypes the types of the model's output ports (without flow variable port)
+     * @return that property
+     */
+    public static boolean canExecute(final NodeModel model, final PortObject[] inData, final PortType[] outTypes) {
+        if (!(model instanceof PartitionableNodeModel) || model instanceof BufferedDataTableHolder
+            || model instanceof PortObjectHolder) {
+            return false;
+        }
+        final OutputPortRole[] outRoles = model.getOutputPortRoles();
+        var hasLocalOutput = false;
+        for (var i = 0; i < outRoles.length; i++) {
+            if (!outRoles[i].isDistributable()) {
+                hasLocalOutput = true;
+            } else if (!BufferedDataTable.TYPE.equals(outTypes[i])) {
+                return false; // distributed outputs are concatenated, which is only possible for tables
+            }
+        }
+        // local outputs are created by finishStreamableExecution, which is only called with merged internals
+        if (model.createMergeOperator() == null
+            && (hasLocalOutput || !((PartitionableNodeModel)model).isSingleIteration())) {
+            return false;
+        }
+        final InputPortRole[] inRoles = model.getInputPortRoles();
+        var hasDistributableInput = false;
+        for (var i = 0; i < inRoles.length; i++) {
+            if (inRoles[i].isDistributable()) {
+                if (!(inData[i] instanceof BufferedDataTable)) {
+                    return false;
+                }
+                hasDistributableInput = true;
+            } else if (inData[i] instanceof InactiveBranchPortObject) {
+                return false;
+            }
+        }
+        return hasDistributableInput;
+    }
+
+    /**
+     * Executes the model on up to <code>maxPartitions</code> partitions of its input. The number of partitions is
+     * further limited by the {@linkplain ThreadBudget#global() thread budget} and the number of rows of the smallest
+     * distributable input.
+     *
+     * @param model the configured model, see {@link #canExecute(NodeModel, PortObject[], PortType[])}
+     * @param inData the input data (without flow variable port)
+     * @param outTypes the types of the model's output ports (without flow variable port)
+     * @param maxPartitions the maximum number of partitions, &gt; 0
+     * @param exec the context of the node's execution
+     * @return the output data (without flow variable port)
+     * @throws Exception any exception thrown by the node's streaming implementation, including cancelation
+     */
+    public static PortObject[] execute(final NodeModel model, final PortObject[] inData, final PortType[] outTypes,
+        final int maxPartitions, final ExecutionContext exec) throws Exception {
+        CheckUtils.checkArgument(canExecute(model, inData, outTypes), "Node can't be executed on partitions");
+        final InputPortRole[] inRoles = model.getInputPortRoles();
+        final OutputPortRole[] outRoles = model.getOutputPortRoles();
+        final var inSpecs = new PortObjectSpec[inData.length];
+        long minRowCount = Long.MAX_VALUE;
+        for (var i = 0; i < inData.length; i++) {
+            inSpecs[i] = inData[i] == null ? null : inData[i].getSpec();
+            if (inRoles[i].isDistributable()) {
+                minRowCount = Math.min(minRowCount, ((BufferedDataTable)inData[i]).size());
+            }
+        }
+        // the containers of the outputs, discarded if the execution fails
+        final var containers = new ArrayList<BufferedDataContainer>();
+        var isSuccess = false;
+        try (ThreadBudget.Lease lease = ThreadBudget.global().acquire(maxPartitions)) {
+            final int partitionCount = (int)Math.max(1, Math.min(lease.getWorkerCount(), minRowCount));
+            final MergeOperator mergeOperator = model.createMergeOperator();
+
+            StreamableOperatorInternals internals = model.createInitialStreamableOperatorInternals();
+            while (model.iterate(internals)) {
+                final StreamableOperatorInternals current = internals;
+                final var tasks = new ArrayList<Callable<StreamableOperatorInternals>>(partitionCount);
+                for (var p = 0; p < partitionCount; p++) {
+                    final PortInput[] inputs = createInputs(inRoles, inData, p, partitionCount, exec);
+                    final StreamableOperator operator =
+                        model.createStreamableOperator(new PartitionInfo(p, partitionCount), inSpecs);
+                    final ExecutionContext subExec = exec.createSubExecutionContext(0);
+                    tasks.add(() -> {
+                        operator.loadInternals(current);
+                        operator.runIntermediate(inputs, subExec);
+                        return operator.saveInternals();
+                    });
+                }
+                internals = merge(mergeOperator, runConcurrently(tasks, exec), false);
+            }
+
+            final PortObjectSpec[] outSpecs = model.computeFinalOutputSpecs(internals, inSpecs);
+            final var partitionOutputs = new PortOutput[partitionCount][];
+            final var tasks = new ArrayList<Callable<StreamableOperatorInternals>>(partitionCount);
+            for (var p = 0; p < partitionCount; p++) {
+                final PortInput[] inputs = createInputs(inRoles, inData, p, partitionCount, exec);
+                final PortOutput[] outputs = createOutputs(outRoles, outSpecs, true, containers, exec);
+                partitionOutputs[p] = outputs;
+                final StreamableOperator operator =
+                    model.createStreamableOperator(new PartitionInfo(p, partitionCount), inSpecs);
+                final StreamableOperatorInternals current = internals;
+                final ExecutionContext subExec = exec.createSubExecutionContext(1.0 / partitionCount);
+                tasks.add(() -> {
+                    operator.loadInternals(current);
+                    operator.runFinal(inputs, outputs, subExec);
+                    return operator.saveInternals();
+                });
+            }
+            final List<StreamableOperatorInternals> finalInternals = runConcurrently(tasks, exec);
+
+            final PortOutput[] localOutputs = createOutputs(outRoles, outSpecs, false, containers, exec);
+            if (mergeOperator != null) {
+                model.finishStreamableExecution(merge(mergeOperator, finalInternals, true), exec, localOutputs);
+            }
+            final var outData = new PortObject[outRoles.length];
+            for (var i = 0; i < outData.length; i++) {
+                if (outRoles[i].isDistributable()) {
+                    final var tables = new BufferedDataTable[partitionCount];
+                    for (var p = 0; p < partitionCount; p++) {
+                        tables[p] = ((BufferedDataTableRowOutput)partitionOutputs[p][i]).getDataTable();
+                    }
+                    outData[i] = partitionCount == 1 ? tables[0]
+                        : exec.createConcatenateTable(exec.createSubProgress(0), tables);
+                } else {
+                    outData[i] = getResult(localOutputs[i]);
+                }
+            }
+            isSuccess = true;
+            return outData;
+        } finally {
+            if (!isSuccess) {
+                discard(containers, exec);
+            }
+        }
+    }
+
+    /** Closes the argument containers (if still open) and clears their tables. */
+    private static void discard(final List<BufferedDataContainer> containers, final ExecutionContext exec) {
+        for (BufferedDataContainer container : containers) {
+            try {
+                if (!container.isClosed()) {
+                    container.close();
+                }
+                exec.clearTable(container.getTable());
+            } catch (RuntimeException e) { // NOSONAR the original failure is more relevant
+                LOGGER.debug("Unable to discard output of failed partition: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Inputs of a single partition; distributable tables are restricted to the partition's row range. */
+    private static PortInput[] createInputs(final InputPortRole[] inRoles, final PortObject[] inData,
+        final int partition, final int partitionCount, final ExecutionContext exec) throws Exception {
+        final var inputs = new PortInput[inData.length];
+        for (var i = 0; i < inData.length; i++) {
+            if (inData[i] == null) {
+                continue; // unconnected optional input
+            }
+            if (inRoles[i].isDistributable()) {
+                final var table = (BufferedDataTable)inData[i];
+                final long size = table.size();
+                if (size == 0) {
+                    inputs[i] = inRoles[i].isStreamable() ? new DataTableRowInput(table) : new PortObjectInput(table);
+                    continue;
+                }
+                final long from = size * partition / partitionCount;
+                final long to = size * (partition + 1) / partitionCount - 1;
+                final TableFilter range = TableFilter.filterRangeOfRows(from, to);
+                if (inRoles[i].isStreamable()) {
+                    inputs[i] = new RangeRowInput(table.getDataTableSpec(), table.filter(range).iterator());
+                } else {
+                    final BufferedDataContainer container = exec.createDataContainer(table.getDataTableSpec());
+                    try (CloseableRowIterator it = table.filter(range).iterator()) {
+                        while (it.hasNext()) {
+                            container.addRowToTable(it.next());
+                        }
+                    }
+                    container.close();
+                    inputs[i] = new PortObjectInput(container.getTable());
+                }
+            } else if (inRoles[i].isStreamable()) {
+                inputs[i] = new DataTableRowInput((BufferedDataTable)inData[i]);
+            } else {
+                inputs[i] = new PortObjectInput(inData[i]);
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Outputs for the operators (<code>distributed == true</code>, distributable outputs only) or for
+     * {@link NodeModel#finishStreamableExecution(StreamableOperatorInternals, ExecutionContext, PortOutput[])}.
+     */
+    private static PortOutput[] createOutputs(final OutputPortRole[] outRoles, final PortObjectSpec[] outSpecs,
+        final boolean distributed, final List<BufferedDataContainer> containers, final ExecutionContext exec) {
+        final var outputs = new PortOutput[outRoles.length];
+        for (var i = 0; i < outputs.length; i++) {
+            if (outRoles[i].isDistributable() != distributed) {
+                continue;
+            }
+            final PortObjectSpec spec = outSpecs == null ? null : outSpecs[i];
+            if (spec instanceof DataTableSpec tableSpec) {
+                final BufferedDataContainer container = exec.createDataContainer(tableSpec);
+                containers.add(container);
+                outputs[i] = new BufferedDataTableRowOutput(container);
+            } else {
+                CheckUtils.checkState(!distributed, "Distributable output %d must be a table with known spec", i);
+                outputs[i] = new PortObjectOutput();
+            }
+        }
+        return outputs;
+    }
+
+    private static PortObject getResult(final PortOutput output) {
+        if (output instanceof BufferedDataTableRowOutput rowOutput) {
+            return rowOutput.getDataTable();
+        } else if (output instanceof PortObjectOutput portObjectOutput) {
+            return portObjectOutput.getPortObject();
+        }
+        return null;
+    }
+
+    /**
+     * Merges the internals of all partitions. Hierarchical merge operators merge pairs of internals until only one is
+     * left, which allows for merges that are cheaper on small inputs.
+     */
+    private static StreamableOperatorInternals merge(final MergeOperator mergeOperator,
+        final List<StreamableOperatorInternals> internals, final boolean isFinal) {
+        if (mergeOperator == null) {
+            CheckUtils.checkState(internals.size() == 1, "Multiple partitions without merge operator");
+            return internals.get(0);
+        }
+        List<StreamableOperatorInternals> level = internals;
+        do {
+            final boolean isHierarchical = mergeOperator.isHierarchical() && level.size() > 2;
+            final int groupSize = isHierarchical ? 2 : level.size();
+            final var next = new ArrayList<StreamableOperatorInternals>((level.size() + 1) / 2);
+            for (var i = 0; i < level.size(); i += groupSize) {
+                final var group =
+                    level.subList(i, Math.min(i + groupSize, level.size())).toArray(StreamableOperatorInternals[]::new);
+                next.add(isFinal ? mergeOperator.mergeFinal(group) : mergeOperator.mergeIntermediate(group));
+            }
+            level = next;
+        } while (level.size() > 1);
+        return level.get(0);
+    }
+
+    /**
+     * Runs the tasks in the global thread pool and waits for their results (or the first failure). None of the tasks
+     * is running anymore when this method returns, i.e. the caller can safely discard their outputs on failure.
+     */
+    private static <T> List<T> runConcurrently(final List<Callable<T>> tasks, final ExecutionContext exec)
+        throws Exception {
+        final var tracker = new TaskTracker();
+        final var futures = new ArrayList<Future<T>>(tasks.size());
+        for (Callable<T> task : tasks) {
+            final Callable<T> tracked = tracker.track(task);
+            futures.add(KNIMEConstants.GLOBAL_THREAD_POOL.enqueue(ThreadUtils.callableWithContext(tracked)));
+        }
+        final Callable<List<T>> waiter = () -> {
+            final var results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures) {
+                while (true) {
+                    try {
+                        results.add(future.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS));
+                        break;
+                    } catch (TimeoutException e) { // NOSONAR
+                        exec.checkCanceled();
+                    }
+                }
+            }
+            return results;
+        };
+        try {
+            final ThreadPool currentPool = ThreadPool.currentPool();
+            return currentPool != null ? currentPool.runInvisible(waiter) : waiter.call();
+        } catch (ExecutionException e) {
+            // thrown by Future#get or by runInvisible, which wraps the exception of the waiter
+            Throwable cause = e.getCause();
+            if (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw (Error)cause;
+        } finally {
+            tracker.abort();
+            futures.forEach(f -> f.cancel(true));
+            tracker.awaitTermination();
+        }
+    }
+
+    /** Counts the running tasks, so that a failed execution can wait for them to terminate. */
+    private static final class TaskTracker {
+
+        private int m_runningCount;
+
+        private boolean m_isAborted;
+
+        <T> Callable<T> track(final Callable<T> task) {
+            return () -> {
+                synchronized (this) {
+                    if (m_isAborted) {
+                        return null; // not started before another task failed
+                    }
+                    m_runningCount++;
+                }
+                try {
+                    return task.call();
+                } finally {
+                    synchronized (this) {
+                        m_runningCount--;
+                        notifyAll();
+                    }
+                }
+            };
+        }
+
+        /** Tasks that haven't started yet won't start anymore. */
+        synchronized void abort() {
+            m_isAborted = true;
+        }
+
+        synchronized void awaitTermination() {
+            while (m_runningCount > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Reads the rows of a single partition from a filtered iterator. */
+    private static final class RangeRowInput extends RowInput {
+
+        private final DataTableSpec m_spec;
+
+        private final CloseableRowIterator m_iterator;
+
+        RangeRowInput(final DataTableSpec spec, final CloseableRowIterator iterator) {
+            m_spec = spec;
+            m_iterator = iterator;
+        }
+
+        @Override
+        public DataTableSpec getDataTableSpec() {
+            return m_spec;
+        }
+
+        @Override
+        public DataRow poll() throws InterruptedException {
+            return m_iterator.hasNext() ? m_iterator.next() : null;
+        }
+
+        @Override
+        public int poll(final DataRow[] rows) throws InterruptedException {
+            var count = 0;
+            while (count < rows.length && m_iterator.hasNext()) {
+                rows[count++] = m_iterator.next();
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+            m_iterator.close();
+        }
+    }
+
+}
@@ -83,6 +83,39 @@ public abstract class RowInput extends PortInput {
      */
     public abstract DataRow poll() throws InterruptedException;
 
+    /**
+     * Gets the next rows from the input stream and writes them into the argument array, starting at index 0. The call
+     * blocks until at least one row is available or the end of the stream has been reached, but it does not wait for
+     * the array to be filled completely. Implementations that receive their data in chunks (e.g. from another thread)
+     * override this method to hand over all readily available rows at once; the default implementation returns a
+     * single row obtained from {@link #poll()} (waiting for more rows could stall upstream nodes feeding other
+     * inputs of a downstream node). Client code could look like this:
+     *
+     * <pre>
+     * DataRow[] rows = new DataRow[256];
+     * int count;
+     * while ((count = rowInput.poll(rows)) &gt; 0) {
+     *     for (int i = 0; i &lt; count; i++) {
+     *         // do something with rows[i]
+     *     }
+     * }
+     * rowInput.close();
+     * </pre>
+     *
+     * @param rows the non-empty array to fill, may be reused by the caller across calls
+     * @return the number of rows written into the array, 0 if the end of the stream has been reached
+     * @throws InterruptedException If canceled.
+     * @since 5.3
+     */
+    public int poll(final DataRow[] rows) throws InterruptedException {
+        final DataRow row = poll();
+        if (row == null) {
+            return 0;
+        }
+        rows[0] = row;
+        return 1;
+    }
+
     /** Indicates that no more input is needed. Upstream nodes may stop
      * generating data (unless there are other consumers). */
     public abstract void close();
@@ -69,6 +69,24 @@ public abstract class RowOutput extends PortOutput {
      */
     public abstract void push(final DataRow row) throws InterruptedException;
 
+    /**
+     * Adds the first <code>count</code> rows of the argument array to the output, in order. Implementations that pass
+     * rows on to other threads override this method to hand them over at once; the default implementation calls
+     * {@link #push(DataRow)} for each row. The array is not retained, i.e. the caller may reuse it once the method
+     * returns.
+     *
+     * @param rows the rows to add
+     * @param count the number of rows to add from the beginning of the array
+     * @throws InterruptedException If canceled.
+     * @throws OutputClosedException If no consumer is to consume the generated output.
+     * @since 5.3
+     */
+    public void push(final DataRow[] rows, final int count) throws InterruptedException {
+        for (var i = 0; i < count; i++) {
+            push(rows[i]);
+        }
+    }
+
     /** Fully sets the table and closes the output. Only valid to call if no other rows were added previously through
      * {@link #push(DataRow)}.
      * @param table The non-null table to set.
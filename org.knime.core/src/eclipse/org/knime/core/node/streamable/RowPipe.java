@@ -0,0 +1,322 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.streamable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.util.CheckUtils;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * A bounded in-memory channel connecting the {@link RowOutput} of one streamable operator with the {@link RowInput}
+ * of another operator running in a different thread. Rows are handed over in batches so that the synchronization
+ * cost is paid once per batch and not once per row; the number of batches in flight is bounded, i.e. a fast
+ * producer blocks until the consumer catches up.
+ *
+ * <p>
+ * A pipe has exactly one producer and one consumer. If the consumer {@linkplain RowInput#close() closes} its input
+ * before the end of the stream has been reached, subsequent calls to {@link RowOutput#push(DataRow)} throw an
+ * {@link RowOutput.OutputClosedException}. If the producer fails, it {@linkplain #abort() aborts} the pipe, upon
+ * which the consumer fails, too, instead of waiting for rows that never come.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ */
+public final class RowPipe {
+
+    /** Default number of rows per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /** Default number of batches that can be buffered before the producer blocks. */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    /** Marks the end of the stream. */
+    private static final DataRow[] END_OF_STREAM = new DataRow[0];
+
+    /** Interval in which a blocked producer or consumer checks whether the other side has gone away. */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final DataTableSpec m_spec;
+
+    private final int m_batchSize;
+
+    private final BlockingQueue<DataRow[]> m_queue;
+
+    private final PipeOutput m_output = new PipeOutput();
+
+    private final PipeInput m_input = new PipeInput();
+
+    private volatile boolean m_isConsumerClosed;
+
+    private volatile boolean m_isProducerAborted;
+
+    /**
+     * Creates a pipe with {@link #DEFAULT_BATCH_SIZE} and {@link #DEFAULT_CAPACITY}.
+     *
+     * @param spec the spec of the rows transported through the pipe, not null
+     */
+    public RowPipe(final DataTableSpec spec) {
+        this(spec, DEFAULT_BATCH_SIZE, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param spec the spec of the rows transported through the pipe, not null
+     * @param batchSize number of rows collected by the producer before they are handed over, &gt; 0
+     * @param capacity number of batches that can be buffered before the producer blocks, &gt; 0
+     */
+    public RowPipe(final DataTableSpec spec, final int batchSize, final int capacity) {
+        m_spec = CheckUtils.checkArgumentNotNull(spec);
+        CheckUtils.checkArgument(batchSize > 0, "Batch size must be positive: %d", batchSize);
+        CheckUtils.checkArgument(capacity > 0, "Capacity must be positive: %d", capacity);
+        m_batchSize = batchSize;
+        m_queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /** @return the producer side of the pipe. */
+    public RowOutput getOutput() {
+        return m_output;
+    }
+
+    /** @return the consumer side of the pipe. */
+    public RowInput getInput() {
+        return m_input;
+    }
+
+    /**
+     * Ends the stream after the producer failed; usually called in a <code>finally</code> block of the producer.
+     * Batches handed over before are still delivered (rows of the incomplete batch are dropped), afterwards the
+     * consumer's <code>poll</code> methods throw an {@link IllegalStateException}. Does nothing if the output has
+     * already been {@linkplain RowOutput#close() closed}.
+     */
+    public void abort() {
+        m_output.abort();
+    }
+
+    private void offer(final DataRow[] batch) throws InterruptedException {
+        if (m_queue.offer(batch)) {
+            return;
+        }
+        block(() -> {
+            while (!m_queue.offer(batch, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (m_isConsumerClosed) {
+                    throw new RowOutput.OutputClosedException();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs a blocking wait for the other end of the pipe. If the current thread is taken from a {@link ThreadPool}
+     * it doesn't count against the pool's limit meanwhile, so that the other end can be started even if the pool is
+     * saturated (e.g. by other stages of the same pipeline).
+     */
+    private static <T> T block(final Callable<T> wait) throws InterruptedException {
+        final ThreadPool pool = ThreadPool.currentPool();
+        try {
+            return pool != null ? pool.runInvisible(wait) : wait.call();
+        } catch (ExecutionException e) { // NOSONAR only wraps the exceptions thrown below
+            return rethrow(e.getCause());
+        } catch (Exception e) { // NOSONAR the waits only throw the exceptions handled in rethrow
+            return rethrow(e);
+        }
+    }
+
+    private static <T> T rethrow(final Throwable t) throws InterruptedException {
+        if (t instanceof InterruptedException ie) {
+            throw ie;
+        } else if (t instanceof RuntimeException re) {
+            throw re;
+        } else if (t instanceof Error err) {
+            throw err;
+        }
+        throw new IllegalStateException(t.getMessage(), t);
+    }
+
+    private final class PipeOutput extends RowOutput {
+
+        private DataRow[] m_batch = new DataRow[m_batchSize];
+
+        private int m_size;
+
+        private boolean m_isClosed;
+
+        @Override
+        public void push(final DataRow row) throws InterruptedException {
+            if (m_isConsumerClosed) {
+                throw new OutputClosedException();
+            }
+            CheckUtils.checkState(!m_isClosed, "Output has been closed");
+            m_batch[m_size++] = row;
+            if (m_size == m_batchSize) {
+                offer(m_batch);
+                m_batch = new DataRow[m_batchSize];
+                m_size = 0;
+            }
+        }
+
+        @Override
+        public void push(final DataRow[] rows, final int count) throws InterruptedException {
+            if (m_isConsumerClosed) {
+                throw new OutputClosedException();
+            }
+            CheckUtils.checkState(!m_isClosed, "Output has been closed");
+            for (var offset = 0; offset < count;) {
+                final int length = Math.min(count - offset, m_batchSize - m_size);
+                System.arraycopy(rows, offset, m_batch, m_size, length);
+                m_size += length;
+                offset += length;
+                if (m_size == m_batchSize) {
+                    offer(m_batch);
+                    m_batch = new DataRow[m_batchSize];
+                    m_size = 0;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            if (m_isClosed) {
+                return;
+            }
+            m_isClosed = true;
+            if (m_isConsumerClosed) {
+                return;
+            }
+            if (m_size > 0) {
+                final var rest = new DataRow[m_size];
+                System.arraycopy(m_batch, 0, rest, 0, m_size);
+                offer(rest);
+            }
+            m_batch = null;
+            offer(END_OF_STREAM);
+        }
+
+        private void abort() {
+            if (!m_isClosed) {
+                m_isClosed = true;
+                m_batch = null;
+                m_isProducerAborted = true;
+            }
+        }
+    }
+
+    private final class PipeInput extends RowInput {
+
+        private DataRow[] m_batch;
+
+        private int m_index;
+
+        private boolean m_isEndOfStream;
+
+        @Override
+        public DataTableSpec getDataTableSpec() {
+            return m_spec;
+        }
+
+        @Override
+        public DataRow poll() throws InterruptedException {
+            return hasRemaining() ? m_batch[m_index++] : null;
+        }
+
+        @Override
+        public int poll(final DataRow[] rows) throws InterruptedException {
+            if (!hasRemaining()) {
+                return 0;
+            }
+            final int count = Math.min(rows.length, m_batch.length - m_index);
+            System.arraycopy(m_batch, m_index, rows, 0, count);
+            m_index += count;
+            return count;
+        }
+
+        /** Blocks until the current batch has remaining rows or the end of the stream is reached. */
+        private boolean hasRemaining() throws InterruptedException {
+            if (m_batch == null || m_index == m_batch.length) {
+                if (m_isEndOfStream || m_isConsumerClosed) {
+                    return false;
+                }
+                m_batch = take();
+                m_index = 0;
+                if (m_batch == END_OF_STREAM) {
+                    m_isEndOfStream = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private DataRow[] take() throws InterruptedException {
+            final DataRow[] available = m_queue.poll();
+            if (available != null) {
+                return available;
+            }
+            return block(() -> {
+                DataRow[] batch;
+                while ((batch = m_queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+                    if (m_isProducerAborted && m_queue.isEmpty()) {
+                        throw new IllegalStateException("Producer of the row pipe failed");
+                    }
+                }
+                return batch;
+            });
+        }
+
+        @Override
+        public void close() {
+            m_isConsumerClosed = true;
+            m_batch = null;
+            m_queue.clear();
+        }
+    }
+
+}
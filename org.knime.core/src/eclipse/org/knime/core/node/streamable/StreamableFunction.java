@@ -73,6 +73,9 @@ public abstract class StreamableFunction extends StreamableOperator {
      */
     public static final int DEFAULT_OUTPORT_INDEX = 0;
 
+    /** Maximum number of rows polled from the input and pushed to the output at once in {@link #runFinal}. */
+    private static final int BATCH_SIZE = 256;
+
     private int m_inportIndex = DEFAULT_INPORT_INDEX;
     private int m_outportIndex = DEFAULT_OUTPORT_INDEX;
 
@@ -106,11 +109,17 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs,
         RowOutput rowOutput = ((RowOutput)outputs[m_outportIndex]);
         init(ctx);
         try {
-            DataRow inputRow;
-            for (var index = 0L; (inputRow = rowInput.poll()) != null; index++) {
-                rowOutput.push(compute(inputRow, index));
-                final long i = index;
-                final DataRow r = inputRow;
+            // poll(DataRow[]) only returns the rows that are readily available, the first rows are not held back
+            final var inputRows = new DataRow[BATCH_SIZE];
+            final var outputRows = new DataRow[BATCH_SIZE];
+            int count;
+            for (var index = 0L; (count = rowInput.poll(inputRows)) > 0;) {
+                for (var j = 0; j < count; j++) {
+                    outputRows[j] = compute(inputRows[j], index++);
+                }
+                rowOutput.push(outputRows, count);
+                final long i = index - 1;
+                final DataRow r = inputRows[count - 1];
                 ctx.setMessage(() -> String.format("Row %d (\"%s\"))", i, r.getKey()));
             }
             rowInput.close();
@@ -0,0 +1,221 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.streamable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.util.CheckUtils;
+import org.knime.core.util.ThreadBudget;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * Executes a chain of {@link StreamableOperator StreamableOperators}, each with a single streamable row input and a
+ * single row output, as a pipeline. All operators run concurrently, connected by {@link RowPipe RowPipes}, so that
+ * the intermediate results are never materialized. The first operator reads from a {@link BufferedDataTable}, only
+ * the output of the last operator is written into a new table.
+ *
+ * <p>
+ * The operators need to be created (and their internals loaded, if any) by the caller, usually via
+ * {@code NodeModel#createStreamableOperator(PartitionInfo, PortObjectSpec[])} of already configured nodes. An
+ * operator that stops reading its input early (e.g. a "top n" filter) causes its upstream operators to terminate
+ * via a {@link RowOutput.OutputClosedException}, which is not considered an error.
+ *
+ * <p>
+ * The stages run in the {@link KNIMEConstants#GLOBAL_THREAD_POOL global thread pool} and count as one consumer of
+ * the {@link ThreadBudget#global() global thread budget}. Stages blocked on a {@link RowPipe} don't occupy a slot of
+ * the pool, so that a pipeline makes progress even if the pool is saturated.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ */
+public final class StreamablePipeline {
+
+    /** Interval in which the calling thread checks for cancelation while waiting for the operators. */
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+
+    private final List<StreamableOperator> m_operators = new ArrayList<>();
+
+    private final List<DataTableSpec> m_outputSpecs = new ArrayList<>();
+
+    /**
+     * Appends an operator to the end of the pipeline.
+     *
+     * @param operator the operator, reading from input port 0 and writing to output port 0, not null
+     * @param outputSpec the spec of the rows produced by the operator, not null
+     * @return this
+     */
+    public StreamablePipeline addStage(final StreamableOperator operator, final DataTableSpec outputSpec) {
+        m_operators.add(CheckUtils.checkArgumentNotNull(operator));
+        m_outputSpecs.add(CheckUtils.checkArgumentNotNull(outputSpec));
+        return this;
+    }
+
+    /** @return the number of operators in the pipeline */
+    public int getNrStages() {
+        return m_operators.size();
+    }
+
+    /**
+     * Runs all operators concurrently and returns the output of the last one. Blocks until all operators have
+     * finished; if the calling thread is taken from a {@link ThreadPool}, it doesn't count against the pool's limit
+     * while waiting. If any operator fails or the execution is canceled, the remaining operators are interrupted.
+     *
+     * @param input the input of the first operator, not null
+     * @param exec the context to create the output table, sub contexts are handed to the operators
+     * @return the output of the last operator
+     * @throws CanceledExecutionException if canceled
+     * @throws Exception the exception thrown by the first failing operator
+     */
+    public BufferedDataTable execute(final BufferedDataTable input, final ExecutionContext exec) throws Exception {
+        CheckUtils.checkArgumentNotNull(input);
+        final int nrStages = m_operators.size();
+        CheckUtils.checkState(nrStages > 0, "Pipeline has no stages");
+
+        final BufferedDataContainer container = exec.createDataContainer(m_outputSpecs.get(nrStages - 1));
+        final var tableOutput = new BufferedDataTableRowOutput(container);
+        final CompletionService<Void> completionService =
+            new ExecutorCompletionService<>(KNIMEConstants.GLOBAL_THREAD_POOL::enqueue);
+        final List<Future<Void>> futures = new ArrayList<>(nrStages);
+        // the stages compete with other consumers of the global pool (e.g. MultiThreadWorker)
+        final ThreadBudget.Lease budgetLease = ThreadBudget.global().acquire(nrStages);
+        try {
+            RowInput stageInput = new DataTableRowInput(input);
+            for (var i = 0; i < nrStages; i++) {
+                final RowPipe pipe;
+                final RowInput nextInput;
+                if (i < nrStages - 1) {
+                    pipe = new RowPipe(m_outputSpecs.get(i));
+                    nextInput = pipe.getInput();
+                } else {
+                    pipe = null;
+                    nextInput = null;
+                }
+                final Callable<Void> stage = createStage(m_operators.get(i), stageInput, pipe, tableOutput,
+                    exec.createSubExecutionContext(1.0 / nrStages));
+                futures.add(completionService.submit(ThreadUtils.callableWithContext(stage)));
+                stageInput = nextInput;
+            }
+            final Callable<Void> awaitStages = () -> {
+                for (var done = 0; done < nrStages;) {
+                    final Future<Void> future =
+                        completionService.poll(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (future == null) {
+                        exec.checkCanceled();
+                    } else {
+                        future.get();
+                        done++;
+                    }
+                }
+                return null;
+            };
+            final ThreadPool currentPool = ThreadPool.currentPool();
+            if (currentPool != null) {
+                currentPool.runInvisible(awaitStages);
+            } else {
+                awaitStages.call();
+            }
+        } catch (ExecutionException e) {
+            // thrown by the stage's future or, wrapping that, by runInvisible
+            Throwable cause = e.getCause();
+            if (cause instanceof ExecutionException ee) {
+                cause = ee.getCause();
+            }
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw (Error)cause;
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+            budgetLease.close();
+        }
+        if (!container.isClosed()) {
+            container.close();
+        }
+        return tableOutput.getDataTable();
+    }
+
+    /**
+     * @param pipe the pipe to the next stage, null for the last stage, which writes to <code>tableOutput</code>
+     */
+    private static Callable<Void> createStage(final StreamableOperator operator, final RowInput input,
+        final RowPipe pipe, final RowOutput tableOutput, final ExecutionContext exec) {
+        final RowOutput output = pipe != null ? pipe.getOutput() : tableOutput;
+        return () -> {
+            try {
+                operator.runFinal(new PortInput[]{input}, new PortOutput[]{output}, exec);
+                if (pipe != null) {
+                    // no-op if the operator closed its output already
+                    output.close();
+                }
+            } catch (RowOutput.OutputClosedException e) { // NOSONAR downstream doesn't need more data
+                // ignore
+            } finally {
+                // also tells upstream operators to stop in case this one terminated early
+                input.close();
+                if (pipe != null) {
+                    // no-op if closed above, otherwise downstream fails instead of waiting forever
+                    pipe.abort();
+                }
+            }
+            return null;
+        };
+    }
+
+}
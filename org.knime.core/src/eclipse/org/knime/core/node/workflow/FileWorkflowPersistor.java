@@ -72,6 +72,13 @@
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.TableBackend;
@@ -128,7 +135,7 @@ public String toString() {
         }
     }
 
-    static final LoadVersion VERSION_LATEST = LoadVersion.V5100;
+    static final LoadVersion VERSION_LATEST = LoadVersion.V5300;
 
     /** Format used to save author/edit infos. */
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
@@ -174,6 +181,12 @@ public String toString() {
 
     private static final NodeSettingsRO EMPTY_SETTINGS = new NodeSettings("<<empty>>");
 
+    /** Value of {@link KNIMEConstants#PROPERTY_WORKFLOW_SAVE_THREADS}, 1 if not set or invalid. */
+    private static final int SAVE_THREADS =
+        Math.max(1, Integer.getInteger(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_THREADS, 1));
+
+    private static ExecutorService saveExecutor;
+
     /** The node logger for this class. */
     private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
 
@@ -2046,18 +2059,56 @@ private static void saveContent(final WorkflowManager wm, final NodeSettings pre
             Collection<NodeContainer> nodes = wm.getNodeContainers();
             double progRatio = 1.0 / (nodes.size() + 1);
 
-            for (NodeContainer nextNode : nodes) {
-                int id = nextNode.getID().getIndex();
-                ExecutionMonitor subExec = execMon.createSubProgress(progRatio);
-                execMon.setMessage(nextNode.getNameWithID());
-                NodeSettingsWO sub = nodesSettings.addNodeSettings("node_" + id);
-                NodeContext.pushContext(nextNode);
-                try {
-                    saveNodeContainer(sub, workflowDirRef, nextNode, subExec, saveHelper);
-                } finally {
-                    NodeContext.removeLastContext();
+            // Nodes are only written concurrently if the target is not the working directory. The calling thread
+            // holds the write lock of the target (a ReentrantReadWriteLock shared by all files below it); saving a
+            // node may read lazily loaded tables and internals from the working directory, which takes the read
+            // lock of that directory (CopyOnAccessTask, lazily loaded node internals). Pool threads would wait for it
+            // forever while the calling thread waits for them. When saving to another directory (auto-save,
+            // "save as"), data is read from the working directory, which is not write-locked.
+            final boolean isSaveConcurrently = SAVE_THREADS > 1 && !workflowDirRef.equals(nodeContainerDirectory);
+            final List<Future<Void>> nodeSaveFutures = new ArrayList<>();
+            // set on failure: tasks that haven't started yet are skipped, running ones complete their writes
+            final AtomicBoolean isSaveFailed = new AtomicBoolean();
+            try {
+                for (NodeContainer nextNode : nodes) {
+                    int id = nextNode.getID().getIndex();
+                    final boolean isSaveNodeConcurrently =
+                        isSaveConcurrently && nextNode instanceof NativeNodeContainer;
+                    // concurrently saved nodes don't report messages, they would overwrite each other
+                    ExecutionMonitor subExec = isSaveNodeConcurrently ? execMon.createSilentSubProgress(progRatio)
+                        : execMon.createSubProgress(progRatio);
+                    NodeSettingsWO sub = nodesSettings.addNodeSettings("node_" + id);
+                    final ReferencedFile dirRef = workflowDirRef;
+                    final Callable<Void> saveNodeCallable = () -> {
+                        if (isSaveFailed.get()) {
+                            return null;
+                        }
+                        NodeContext.pushContext(nextNode);
+                        try {
+                            saveNodeContainer(sub, dirRef, nextNode, subExec, saveHelper);
+                        } finally {
+                            NodeContext.removeLastContext();
+                        }
+                        subExec.setProgress(1.0);
+                        return null;
+                    };
+                    if (isSaveNodeConcurrently) {
+                        // each task writes into its own node directory and sub settings object
+                        nodeSaveFutures.add(getSaveExecutor().submit(saveNodeCallable));
+                    } else {
+                        execMon.setMessage(nextNode.getNameWithID());
+                        callNodeSave(saveNodeCallable);
+                    }
                 }
-                subExec.setProgress(1.0);
+                if (!nodeSaveFutures.isEmpty()) {
+                    execMon.setMessage("Waiting for " + nodeSaveFutures.size() + " node(s) to be written");
+                }
+                waitForNodeSaves(nodeSaveFutures, execMon);
+            } catch (IOException | CanceledExecutionException | LockFailedException | RuntimeException
+                    | Error e) {
+                isSaveFailed.set(true);
+                awaitNodeSaves(nodeSaveFutures);
+                throw e;
             }
 
             execMon.setMessage("connection information");
@@ -2136,6 +2187,78 @@ private static void saveContent(final WorkflowManager wm, final NodeSettings pre
         }
     }
 
+    /** Lazily created pool used to write node directories concurrently, see {@link #SAVE_THREADS}. */
+    private static synchronized ExecutorService getSaveExecutor() {
+        if (saveExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            saveExecutor = Executors.newFixedThreadPool(SAVE_THREADS, r -> {
+                Thread t = new Thread(r, "KNIME-Workflow-Save-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return saveExecutor;
+    }
+
+    /** Runs the save task of a single node in the calling thread, unwrapping the checked exceptions. */
+    private static void callNodeSave(final Callable<Void> saveNodeCallable)
+        throws IOException, CanceledExecutionException, LockFailedException {
+        try {
+            saveNodeCallable.call();
+        } catch (IOException | CanceledExecutionException | LockFailedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /** Waits for all concurrently saved nodes to finish, throwing the first failure. */
+    private static void waitForNodeSaves(final List<Future<Void>> futures, final ExecutionMonitor execMon)
+        throws IOException, CanceledExecutionException, LockFailedException {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CanceledExecutionException("Interrupted while saving nodes");
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException ioe) {
+                    throw ioe;
+                } else if (cause instanceof CanceledExecutionException cee) {
+                    throw cee;
+                } else if (cause instanceof LockFailedException lfe) {
+                    throw lfe;
+                } else if (cause instanceof RuntimeException rte) {
+                    throw rte;
+                } else if (cause instanceof Error err) {
+                    throw err;
+                }
+                throw new IOException(cause.getMessage(), cause);
+            }
+            execMon.checkCanceled();
+        }
+    }
+
+    /**
+     * Called after a failed save: waits for the node saves that are still running, ignoring their results. They are
+     * not interrupted, which could leave partially written files behind (and close channels shared with other
+     * threads); tasks that haven't started yet return immediately.
+     */
+    private static void awaitNodeSaves(final List<Future<Void>> futures) {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) { // NOSONAR the first failure is reported by the caller
+                NodeLogger.getLogger(FileWorkflowPersistor.class)
+                    .debug("Concurrent node save failed after previous failure: " + e.getCause(), e);
+            }
+        }
+    }
+
     /** Add version field. */
     static void saveHeader(final NodeSettings settings) {
         settings.addString(WorkflowLoadHelper.CFG_CREATED_BY, KNIMEConstants.VERSION);
@@ -57,10 +57,8 @@
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
-import java.util.Vector;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.knime.core.internal.KNIMEPath;
@@ -77,6 +75,11 @@
 /**
  * Container for the stack that keeps for an individual node the
  * flow variables and flow loop information.
+ *
+ * <p>The stack is a persistent linked list of immutable entries: stacks of successor nodes share the entries of
+ * their predecessors and only add (or drop) entries on top. The result of merging a predecessor stack and the
+ * variable maps returned by {@link #getAvailableFlowVariables(VariableType[])} are cached, so that nodes along a
+ * chain and repeated loop iterations don't copy the full stack.
  * @author Bernd Wiswedel, University of Konstanz
  * @noreference This class is not intended to be referenced by clients.
  */
@@ -88,17 +91,19 @@ public final class FlowObjectStack implements Iterable<FlowObject> {
     /** Root stack with all constants. */
     private static FlowObjectStack rootStack = new FlowObjectStack();
 
-    /** Stack of FlowObjects, which is shared among nodes along the
-     * workflow. */
-    private final Vector<FlowObject> m_stack;
-    /** Owner of FlowObject object, which are put onto m_stack via this
+    /** Top of the stack of FlowObjects, whose entries are shared among nodes
+     * along the workflow; null if the stack is empty. Modifications replace
+     * the top (synchronized on this), reads work on a snapshot. */
+    private volatile Entry m_top;
+    /** Owner of FlowObject object, which are put onto the stack via this
      * StackWrapper. */
     private final NodeID m_nodeID;
+    /** Variable maps returned by {@link #getAvailableFlowVariables(VariableType[])}, valid for one top entry. */
+    private volatile VariablesCache m_variablesCache;
 
     /** Root stack. */
     private FlowObjectStack() {
         m_nodeID = WorkflowManager.ROOT.getID();
-        m_stack = new Vector<FlowObject>();
         File wsDirPath = KNIMEPath.getWorkspaceDirPath();
         if (wsDirPath != null) {
             push(new FlowVariable("knime.workspace",
@@ -171,24 +176,21 @@ private FlowObjectStack() {
      * @throws NullPointerException If <code>id</code> is <code>null</code>.
      * @throws IllegalFlowObjectStackException If the stacks can't be merged.
      */
-    @SuppressWarnings("unchecked")
     private FlowObjectStack(final NodeID id, final FlowObjectStack[] predStacks, final boolean ignoredFlag) {
         if (id == null) {
             throw new NullPointerException("NodeID argument must not be null.");
         }
-        List<Vector<FlowObject>> predecessors =
-            new ArrayList<Vector<FlowObject>>();
+        List<Entry> predecessors = new ArrayList<Entry>();
         for (int i = 0; i < predStacks.length; i++) {
             if (predStacks[i] != null) {
-                predecessors.add(predStacks[i].m_stack);
+                predecessors.add(predStacks[i].m_top);
             }
         }
         if (predecessors.isEmpty()) {
-            predecessors.add(rootStack.m_stack);
+            predecessors.add(rootStack.m_top);
         }
-        Vector<FlowObject>[] sos = predecessors.toArray(
-                new Vector[predecessors.size()]);
-        m_stack = merge(resortInputStacks(sos));
+        Entry[] sos = predecessors.toArray(new Entry[predecessors.size()]);
+        m_top = merge(resortInputStacks(sos));
         m_nodeID = id;
     }
 
@@ -203,26 +205,40 @@ private FlowObjectStack(final NodeID id, final FlowObjectStack[] predStacks, fin
      *         a copy, whereby the copy will be shifted by one and the last
      *         element is the first element of sos.
      */
-    private static Vector<FlowObject>[] resortInputStacks(
-            final Vector<FlowObject>[] sos) {
+    private static Entry[] resortInputStacks(final Entry[] sos) {
         if (sos.length <= 1) {
             return sos;
         }
-        @SuppressWarnings("unchecked")
-        Vector<FlowObject>[] result = new Vector[sos.length];
+        Entry[] result = new Entry[sos.length];
         System.arraycopy(sos, 1, result, 0, sos.length - 1);
         result[sos.length - 1] = sos[0];
         return result;
     }
 
-    private static Vector<FlowObject> merge(final Vector<FlowObject>[] sos) {
-        Vector<FlowObject> result = new Vector<FlowObject>();
+    /** Merges the argument stacks. The result of merging a single stack (the common case of a node with one
+     * predecessor) is cached in the stack's top entry. */
+    private static Entry merge(final Entry[] sos) {
+        if (sos.length != 1 || sos[0] == null) {
+            return mergeInternal(sos);
+        }
+        Entry merged = sos[0].m_merged;
+        if (merged == null) {
+            merged = mergeInternal(sos);
+            sos[0].m_merged = merged;
+        }
+        return merged;
+    }
+
+    private static Entry mergeInternal(final Entry[] sos) {
+        List<FlowObject> result = new ArrayList<FlowObject>();
+        FlowObject[][] inputs = new FlowObject[sos.length][];
         @SuppressWarnings("unchecked") // no generics in array definition
         Iterator<FlowObject>[] its = new Iterator[sos.length];
         FlowObject[] nexts = new FlowObject[sos.length];
         boolean hasMoreElements = false;
         for (int i = 0; i < sos.length; i++) {
-            its[i] = new FilteredScopeIterator(sos[i].iterator(), Scope.Local);
+            inputs[i] = toArray(sos[i]);
+            its[i] = new FilteredScopeIterator(Arrays.asList(inputs[i]).iterator(), Scope.Local);
             hasMoreElements = hasMoreElements ||  its[i].hasNext();
         }
         while (hasMoreElements) {
@@ -271,6 +287,34 @@ private static Vector<FlowObject> merge(final Vector<FlowObject>[] sos) {
                 }
             }
         }
+        // share the longest bottom part that the result has in common with any of the inputs
+        Entry top = null;
+        int sharedSize = 0;
+        for (int i = 0; i < sos.length; i++) {
+            int common = 0;
+            while (common < inputs[i].length && common < result.size() && inputs[i][common] == result.get(common)) {
+                common++;
+            }
+            if (common > sharedSize) {
+                sharedSize = common;
+                top = sos[i];
+                while (top.m_size > common) {
+                    top = top.m_below;
+                }
+            }
+        }
+        for (int i = sharedSize; i < result.size(); i++) {
+            top = new Entry(result.get(i), top);
+        }
+        return top;
+    }
+
+    /** @return the objects of the stack with the argument top, bottom first. */
+    private static FlowObject[] toArray(final Entry top) {
+        FlowObject[] result = new FlowObject[top == null ? 0 : top.m_size];
+        for (Entry e = top; e != null; e = e.m_below) {
+            result[e.m_size - 1] = e.m_object;
+        }
         return result;
     }
 
@@ -294,15 +338,12 @@ public <T extends FlowObject> T peek(final Class<T> type) {
      * @since 3.4
      */
     public <T extends FlowObject> Optional<T> peekOptional(final Class<T> type) {
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.get(i);
-                if (type.isInstance(e)) {
-                    return Optional.of(type.cast(e));
-                }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            if (type.isInstance(e.m_object)) {
+                return Optional.of(type.cast(e.m_object));
             }
-            return Optional.empty();
         }
+        return Optional.empty();
     }
 
     /**
@@ -316,15 +357,12 @@ public <T extends FlowObject> Optional<T> peekOptional(final Class<T> type) {
      * @since 2.8
      */
     public <T extends FlowScopeContext> T peekScopeContext(final Class<T> type, final boolean isInactiveScope) {
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.get(i);
-                if (type.isInstance(e) && (type.cast(e).isInactiveScope() == isInactiveScope)) {
-                    return type.cast(e);
-                }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            if (type.isInstance(e.m_object) && (type.cast(e.m_object).isInactiveScope() == isInactiveScope)) {
+                return type.cast(e.m_object);
             }
-            return null;
         }
+        return null;
     }
 
     /**
@@ -339,13 +377,14 @@ public <T extends FlowScopeContext> T peekScopeContext(final Class<T> type, fina
      * @see java.util.Stack#pop()
      */
     public <T extends FlowObject> T pop(final Class<T> type) {
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.remove(i);
-                if (type.isInstance(e)) {
-                    return type.cast(e);
+        synchronized (this) {
+            for (Entry e = m_top; e != null; e = e.m_below) {
+                if (type.isInstance(e.m_object)) {
+                    m_top = e.m_below;
+                    return type.cast(e.m_object);
                 }
             }
+            m_top = null;
             return null;
         }
     }
@@ -365,13 +404,14 @@ public <T extends FlowObject> T pop(final Class<T> type) {
      * @since 2.8
      */
     public <T extends FlowScopeContext> T popScopeContext(final Class<T> type, final boolean isInactiveScope) {
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.remove(i);
-                if (type.isInstance(e) && (type.cast(e).isInactiveScope() == isInactiveScope)) {
-                    return type.cast(e);
+        synchronized (this) {
+            for (Entry e = m_top; e != null; e = e.m_below) {
+                if (type.isInstance(e.m_object) && (type.cast(e.m_object).isInactiveScope() == isInactiveScope)) {
+                    m_top = e.m_below;
+                    return type.cast(e.m_object);
                 }
             }
+            m_top = null;
             return null;
         }
     }
@@ -386,16 +426,13 @@ public <T extends FlowScopeContext> T popScopeContext(final Class<T> type, final
      */
     @Deprecated
     public FlowVariable peekFlowVariable(final String name, final Type type) {
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.get(i);
-                if (!(e instanceof FlowVariable)) {
-                    continue;
-                }
-                FlowVariable v = (FlowVariable)e;
-                if (v.getName().equals(name) && v.getType().equals(type)) {
-                    return v;
-                }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            if (!(e.m_object instanceof FlowVariable)) {
+                continue;
+            }
+            FlowVariable v = (FlowVariable)e.m_object;
+            if (v.getName().equals(name) && v.getType().equals(type)) {
+                return v;
             }
         }
         throw new NoSuchElementException("No such variable \"" + name + "\" of"
@@ -415,14 +452,8 @@ public FlowVariable peekFlowVariable(final String name, final Type type) {
     public Optional<FlowVariable> peekFlowVariable(final String name, final VariableType<?> type) {
         CheckUtils.checkArgumentNotNull(name, "Variable name must not be null.");
         CheckUtils.checkArgumentNotNull(type, "Variable type must not be null.");
-        synchronized (m_stack) {
-            final int size = m_stack.size();
-            return IntStream.rangeClosed(1, size).mapToObj(i -> m_stack.get(size - i))//
-                .filter(o -> o instanceof FlowVariable)//
-                .map(o -> (FlowVariable)o)//
-                .filter(v -> v.getName().equals(name) && v.getVariableType().equals(type))//
-                .findFirst();
-        }
+        // the top-most variable of that type with the name, looked up in the cached map
+        return Optional.ofNullable(getAvailableFlowVariables(new VariableType<?>[]{type}).get(name));
     }
 
     /**
@@ -458,19 +489,16 @@ public Map<String, FlowVariable> getAvailableFlowVariables() {
     public Map<String, FlowVariable> getAvailableFlowVariables(final FlowVariable.Type... types) {
         LinkedHashMap<String, FlowVariable> hash = new LinkedHashMap<String, FlowVariable>();
         List<Type> typesAsList = Arrays.asList(types);
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; i--) {
-                FlowObject e = m_stack.get(i);
-                if (!(e instanceof FlowVariable)) {
-                    continue;
-                }
-                FlowVariable v = (FlowVariable)e;
-                if (!typesAsList.contains(v.getType())) {
-                    continue;
-                }
-                if (!hash.containsKey(v.getName())) {
-                    hash.put(v.getName(), v);
-                }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            if (!(e.m_object instanceof FlowVariable)) {
+                continue;
+            }
+            FlowVariable v = (FlowVariable)e.m_object;
+            if (!typesAsList.contains(v.getType())) {
+                continue;
+            }
+            if (!hash.containsKey(v.getName())) {
+                hash.put(v.getName(), v);
             }
         }
         return Collections.unmodifiableMap(hash);
@@ -485,17 +513,23 @@ public Map<String, FlowVariable> getAvailableFlowVariables(final FlowVariable.Ty
      * @since 4.1
      */
     public Map<String, FlowVariable> getAvailableFlowVariables(final VariableType<?>[] types) {
-        synchronized (m_stack) {
-            final int size = m_stack.size();
-            final List<VariableType<?>> typesAsList = Arrays.asList(types);
-            return Collections.unmodifiableMap(//
-                IntStream.rangeClosed(1, size).mapToObj(i -> m_stack.get(size - i))//
-                    .filter(o -> o instanceof FlowVariable)//
-                    .map(o -> (FlowVariable)o)//
-                    .filter(v -> typesAsList.contains(v.getVariableType()))//
-                    .collect(Collectors.toMap(FlowVariable::getName, Function.identity(), (v1, v2) -> v1,
-                        LinkedHashMap::new)));
+        final Entry top = m_top;
+        VariablesCache cache = m_variablesCache;
+        if (cache == null || cache.top() != top) {
+            cache = new VariablesCache(top, new ConcurrentHashMap<>());
+            m_variablesCache = cache;
+        }
+        return cache.variablesByTypes().computeIfAbsent(List.of(types), t -> collectVariables(top, t));
+    }
+
+    private static Map<String, FlowVariable> collectVariables(final Entry top, final List<VariableType<?>> types) {
+        final Map<String, FlowVariable> result = new LinkedHashMap<>();
+        for (Entry e = top; e != null; e = e.m_below) {
+            if (e.m_object instanceof FlowVariable v && types.contains(v.getVariableType())) {
+                result.putIfAbsent(v.getName(), v);
+            }
         }
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -522,13 +556,11 @@ public Map<String, FlowVariable> getAvailableFlowVariables(final VariableType<?>
     List<FlowObject> getFlowObjectsOwnedBy(final NodeID id,
             final Scope... ignoredScopes) {
         List<FlowObject> result = new ArrayList<FlowObject>();
-        synchronized (m_stack) {
-            FilteredScopeIterator it = new FilteredScopeIterator(m_stack.iterator(), ignoredScopes);
-            while (it.hasNext()) {
-                FlowObject v = it.next();
-                if (v.getOwner().equals(id)) {
-                    result.add(v);
-                }
+        FilteredScopeIterator it = new FilteredScopeIterator(Arrays.asList(toArray(m_top)).iterator(), ignoredScopes);
+        while (it.hasNext()) {
+            FlowObject v = it.next();
+            if (v.getOwner().equals(id)) {
+                result.add(v);
             }
         }
         return result;
@@ -592,20 +624,23 @@ public void push(final FlowObject item) {
      */
     void pushWithOwner(final FlowObject item) {
         CheckUtils.checkArgument(item.getOwner() != null, "Item should have owner set at this point: %s", item);
-        m_stack.add(item);
+        synchronized (this) {
+            m_top = new Entry(item, m_top);
+        }
     }
 
     /**
      * @return true if stack is empty
      */
     boolean isEmpty() {
-        return m_stack.isEmpty();
+        return m_top == null;
     }
 
     /** Get number of elements in the stack.
      * @return size of stack. */
     int size() {
-        return m_stack.size();
+        final Entry top = m_top;
+        return top == null ? 0 : top.m_size;
     }
 
     /** Get iterator on elements, top of stack first. The iterator is
@@ -614,9 +649,9 @@ int size() {
      * {@inheritDoc} */
     @Override
     public Iterator<FlowObject> iterator() {
-        Vector<FlowObject> copy = new Vector<FlowObject>(m_stack);
-        Collections.reverse(copy);
-        return Collections.unmodifiableList(copy).iterator();
+        FlowObject[] copy = toArray(m_top);
+        ArrayUtils.reverse(copy);
+        return Collections.unmodifiableList(Arrays.asList(copy)).iterator();
     }
 
     /**
@@ -632,10 +667,8 @@ public String toString() {
     public int hashCode() {
         // stacks are not really used in hashs ... but since we implement equals
         int hash = m_nodeID.hashCode();
-        synchronized (m_stack) {
-            for (FlowObject o : m_stack) {
-                hash += o.hashCode();
-            }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            hash += e.m_object.hashCode();
         }
         return hash;
     }
@@ -650,10 +683,12 @@ public boolean equals(final Object obj) {
             return false;
         }
         FlowObjectStack o = (FlowObjectStack)obj;
-        synchronized (m_stack) {
-            return o.m_nodeID.equals(m_nodeID)
-                && o.m_stack.equals(m_stack); // deep equals!
+        if (!o.m_nodeID.equals(m_nodeID)) {
+            return false;
         }
+        final Entry top = m_top;
+        final Entry otherTop = o.m_top;
+        return top == otherTop || Arrays.equals(toArray(otherTop), toArray(top)); // deep equals!
     }
 
     /**
@@ -665,12 +700,9 @@ public String toDeepString() {
         b.append(m_nodeID);
         b.append("---");
         b.append('\n');
-        synchronized (m_stack) {
-            for (int i = m_stack.size() - 1; i >= 0; --i) {
-                FlowObject o = m_stack.get(i);
-                b.append(o);
-                b.append('\n');
-            }
+        for (Entry e = m_top; e != null; e = e.m_below) {
+            b.append(e.m_object);
+            b.append('\n');
         }
         b.append("--------");
         return b.toString();
@@ -731,6 +763,32 @@ private static final Pair<String, Type> getVariableDefinition(
         return new Pair<String, Type>(varName, varType);
     }
 
+    /** Immutable element of the persistent stack, pointing to the element below. Entries are shared among the
+     * stacks of different nodes. */
+    private static final class Entry {
+
+        private final FlowObject m_object;
+
+        private final Entry m_below;
+
+        /** Number of elements of the stack with this entry on top. */
+        private final int m_size;
+
+        /** The result of merging the stack with this entry on top as sole input stack, see #merge. */
+        private volatile Entry m_merged;
+
+        Entry(final FlowObject object, final Entry below) {
+            m_object = object;
+            m_below = below;
+            m_size = below == null ? 1 : (below.m_size + 1);
+        }
+    }
+
+    /** Variable maps by queried types, valid as long as the stack's top entry is <code>top</code>. */
+    private record VariablesCache(Entry top,
+        ConcurrentMap<List<VariableType<?>>, Map<String, FlowVariable>> variablesByTypes) {
+    }
+
     /** Iterator that removes flow variables with given scopes from an
      * underlying iterator. Used, for instance to remove "local" variables when
      * merging stacks of predecessor nodes.
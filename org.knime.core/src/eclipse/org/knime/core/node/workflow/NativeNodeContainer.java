@@ -1037,7 +1037,7 @@ void loadContent(final BaseNodeDef nodeDef, final ExecutionMonitor exec, final L
         // inform the virtual input/output node about the containing component
         if (context != null) { // this is going to be refactored as part of AP-18959
             var subnodeContainerOptional = context.getContextObjectForClass(SubNodeContainer.class);
-            if (getNodeModel() instanceof VirtualSubNodeInOut && subnodeContainerOptional.isPresent()) {
+            if (isModelCompatibleTo(VirtualSubNodeInOut.class) && subnodeContainerOptional.isPresent()) {
                 ((VirtualSubNodeInOut)getNodeModel()).setSubNodeContainer(subnodeContainerOptional.get());
             }
         }
@@ -78,6 +78,9 @@ public abstract class NodeExecutionJob implements Runnable {
     private final NodeContainer m_nc;
     private final PortObject[] m_data;
 
+    /** Time of job creation (= submission to the job manager), used for the execution trace. */
+    private final long m_queuedNanos = System.nanoTime();
+
 
     /** Creates a new execution job for a given node. The array argument
      * represent the available input data..
@@ -141,6 +144,8 @@ protected String getCustomThreadName(final String originalThreadName) {
      *
      */
     private void internalRun() {
+        final NodeExecutionTracer tracer = NodeExecutionTracer.getInstance();
+        long stepStartNanos = System.nanoTime();
         NodeContainerExecutionStatus status = null;
         // handle inactive branches -- do not delegate to custom job
         // manager (the node will just return inactive branch objects)
@@ -153,6 +158,7 @@ private void internalRun() {
         }
 
         if (!isReConnecting()) {
+            tracer.recordQueueWait(m_nc, m_queuedNanos, stepStartNanos);
             try {
                 // sets state PREEXECUTE
                 if (!m_nc.notifyParentPreExecuteStart()) {
@@ -175,6 +181,7 @@ private void internalRun() {
                 status = NodeContainerExecutionStatus.FAILURE;
                 logError(throwable);
             }
+            stepStartNanos = traceStep(tracer, "pre-execute", stepStartNanos);
         }
         // check thread cancelation
         if (status == null) {
@@ -216,6 +223,7 @@ private void internalRun() {
             status = NodeContainerExecutionStatus.FAILURE;
             logError(throwable);
         }
+        stepStartNanos = traceStep(tracer, "execute", stepStartNanos);
         try (WorkflowLock lock = m_nc.getParent().lock()) {
             try {
                 // node might have been canceled meanwhile
@@ -240,6 +248,17 @@ private void internalRun() {
                 logError(e);
             }
         }
+        traceStep(tracer, "post-execute", stepStartNanos);
+    }
+
+    /** Records an execution step in the execution trace (if enabled) and returns the start time of the next step. */
+    private long traceStep(final NodeExecutionTracer tracer, final String step, final long stepStartNanos) {
+        if (!tracer.isEnabled()) {
+            return stepStartNanos;
+        }
+        final long now = System.nanoTime();
+        tracer.recordStep(m_nc.getNameWithID(), step, stepStartNanos, now, null);
+        return now;
     }
 
     /**
@@ -0,0 +1,371 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.node.workflow;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.JsonUtil;
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Records a timeline of node executions (queue wait, pre-execute, execute, post-execute, {@code NodeModel.execute},
+ * rows written and memory alerts) and exports it in the
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome Trace Event</a>
+ * JSON format, which can be opened in <code>chrome://tracing</code> or <a href="https://ui.perfetto.dev">Perfetto</a>.
+ *
+ * <p>
+ * Recording is off by default. It is enabled either programmatically via {@link #start()} or by setting the system
+ * property {@link KNIMEConstants#PROPERTY_EXECUTION_TRACE_FILE}, in which case the trace is written to the given file
+ * when the JVM shuts down. Unlike {@link NodeTimer}, which aggregates execution times per node factory, this class
+ * keeps one event per execution step. Events are kept in a ring buffer of {@link #DEFAULT_CAPACITY} entries; when it
+ * is full, the oldest events are dropped, so that long running applications don't run out of memory.
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ */
+public final class NodeExecutionTracer {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(NodeExecutionTracer.class);
+
+    /** Category of events that represent a node execution step (pre-execute, execute, ...). */
+    static final String CATEGORY_NODE = "node";
+
+    /** Category of events that represent time spent in the job queue. */
+    static final String CATEGORY_QUEUE = "queue";
+
+    /** Category of memory alert events. */
+    static final String CATEGORY_MEMORY = "memory";
+
+    /** Maximum number of events kept, older ones are dropped. */
+    static final int DEFAULT_CAPACITY = 100_000;
+
+    private static final NodeExecutionTracer INSTANCE = new NodeExecutionTracer(DEFAULT_CAPACITY);
+
+    static {
+        final String traceFile = System.getProperty(KNIMEConstants.PROPERTY_EXECUTION_TRACE_FILE);
+        if (StringUtils.isNotBlank(traceFile)) {
+            INSTANCE.start();
+            final Path path = Paths.get(traceFile);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try (OutputStream out = Files.newOutputStream(path)) {
+                    INSTANCE.writeChromeTrace(out);
+                } catch (IOException e) { // NOSONAR logger may not be available anymore
+                    System.err.println("Unable to write execution trace to \"" + path + "\": " + e.getMessage());
+                }
+            }, "KNIME-Execution-Trace-Writer"));
+        }
+    }
+
+    /** A single entry in the trace, times in microseconds relative to {@link #m_originNanos}. */
+    private record TraceEvent(String name, String category, char phase, long timestamp, long duration,
+        long threadId, String id, Map<String, Object> args) {
+    }
+
+    /** Ring buffer of the recorded events, also the lock guarding itself and {@link #m_totalEventCount}. */
+    private final TraceEvent[] m_events;
+
+    /** Number of events recorded since the last {@link #clear()}, including dropped ones. */
+    private long m_totalEventCount;
+
+    /** Thread ID to thread name, written as metadata events. */
+    private final Map<Long, String> m_threadNames = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final MemoryAlertListener m_memoryListener = new MemoryAlertListener() {
+        @Override
+        protected boolean memoryAlert(final MemoryAlert alert) {
+            final Map<String, Object> args = new LinkedHashMap<>();
+            args.put("usedMemory", alert.getUsedMemory());
+            args.put("maxMemory", alert.getMaxMemory());
+            addEvent(new TraceEvent("Memory alert", CATEGORY_MEMORY, 'i', toMicros(System.nanoTime()), 0,
+                currentThreadId(), null, args));
+            return false;
+        }
+    };
+
+    private volatile boolean m_isEnabled;
+
+    private volatile long m_originNanos = System.nanoTime();
+
+    /** @param capacity maximum number of events kept */
+    NodeExecutionTracer(final int capacity) {
+        m_events = new TraceEvent[capacity];
+    }
+
+    /** @return the singleton instance, not null. */
+    public static NodeExecutionTracer getInstance() {
+        return INSTANCE;
+    }
+
+    /** @return whether events are currently recorded. Callers use it to avoid taking time stamps needlessly. */
+    public boolean isEnabled() {
+        return m_isEnabled;
+    }
+
+    /** Discards all previously recorded events and starts recording. */
+    public synchronized void start() {
+        clear();
+        if (!m_isEnabled) {
+            MemoryAlertSystem.getInstanceUncollected().addListener(m_memoryListener);
+            m_isEnabled = true;
+        }
+    }
+
+    /** Stops recording, the events recorded so far are kept until {@link #start()} or {@link #clear()}. */
+    public synchronized void stop() {
+        if (m_isEnabled) {
+            m_isEnabled = false;
+            MemoryAlertSystem.getInstanceUncollected().removeListener(m_memoryListener);
+        }
+    }
+
+    /** Discards all recorded events. */
+    public void clear() {
+        synchronized (m_events) {
+            Arrays.fill(m_events, null);
+            m_totalEventCount = 0;
+        }
+        m_threadNames.clear();
+        m_originNanos = System.nanoTime();
+    }
+
+    /** @return number of recorded events that are kept (excluding thread metadata). */
+    public int getEventCount() {
+        synchronized (m_events) {
+            return (int)Math.min(m_totalEventCount, m_events.length);
+        }
+    }
+
+    /** @return number of events dropped because the buffer was full. */
+    public long getDroppedEventCount() {
+        synchronized (m_events) {
+            return Math.max(0, m_totalEventCount - m_events.length);
+        }
+    }
+
+    /**
+     * Records the time a node spent waiting in the queue of its job manager.
+     *
+     * @param nc the node
+     * @param queuedNanos {@link System#nanoTime()} at submission of the job
+     * @param startNanos {@link System#nanoTime()} at start of the job
+     */
+    void recordQueueWait(final NodeContainer nc, final long queuedNanos, final long startNanos) {
+        if (!m_isEnabled) {
+            return;
+        }
+        final String id = nc.getID().toString();
+        final String name = nc.getNameWithID();
+        final long threadId = currentThreadId();
+        // async events, the job is not bound to a thread while queued
+        addEvent(new TraceEvent(name, CATEGORY_QUEUE, 'b', toMicros(queuedNanos), 0, threadId, id, null));
+        addEvent(new TraceEvent(name, CATEGORY_QUEUE, 'e', toMicros(startNanos), 0, threadId, id, null));
+    }
+
+    /**
+     * Records a completed step of a node execution in the calling thread.
+     *
+     * @param nodeName name of the node, usually {@link NodeContainer#getNameWithID()}
+     * @param step name of the step, e.g. "execute"
+     * @param startNanos {@link System#nanoTime()} at the start of the step
+     * @param endNanos {@link System#nanoTime()} at the end of the step
+     * @param args additional arguments shown with the event (e.g. row counts), may be null
+     */
+    public void recordStep(final String nodeName, final String step, final long startNanos, final long endNanos,
+        final Map<String, Object> args) {
+        if (!m_isEnabled) {
+            return;
+        }
+        final long start = toMicros(startNanos);
+        addEvent(new TraceEvent(nodeName + " - " + step, CATEGORY_NODE, 'X', start,
+            Math.max(0, toMicros(endNanos) - start), currentThreadId(), null, args));
+    }
+
+    private void addEvent(final TraceEvent event) {
+        m_threadNames.computeIfAbsent(event.threadId(), id -> Thread.currentThread().getName());
+        synchronized (m_events) {
+            if (m_totalEventCount == m_events.length) {
+                LOGGER.debugWithFormat("Execution trace exceeds %d events, dropping the oldest ones", m_events.length);
+            }
+            m_events[(int)(m_totalEventCount % m_events.length)] = event;
+            m_totalEventCount++;
+        }
+    }
+
+    /** @return the kept events, oldest first */
+    private List<TraceEvent> getEvents() {
+        synchronized (m_events) {
+            final int count = (int)Math.min(m_totalEventCount, m_events.length);
+            final int first = (int)((m_totalEventCount - count) % m_events.length);
+            final List<TraceEvent> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(m_events[(first + i) % m_events.length]);
+            }
+            return events;
+        }
+    }
+
+    private long toMicros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos - m_originNanos);
+    }
+
+    @SuppressWarnings("deprecation") // Thread#threadId() only available with Java 19+
+    private static long currentThreadId() {
+        return Thread.currentThread().getId();
+    }
+
+    /**
+     * Writes all kept events as Chrome Trace Event JSON object ({@code {"traceEvents": [...]}}). The number of
+     * dropped events, if any, is written as {@code "droppedEvents"} of the {@code "otherData"} object. The stream is
+     * not closed.
+     *
+     * @param out to write to
+     * @throws IOException if writing fails
+     */
+    public void writeChromeTrace(final OutputStream out) throws IOException {
+        final List<TraceEvent> events = getEvents();
+        final long droppedEventCount = getDroppedEventCount();
+        final Map<Long, String> threadNames;
+        synchronized (m_threadNames) {
+            threadNames = new LinkedHashMap<>(m_threadNames);
+        }
+        final long pid = ProcessHandle.current().pid();
+        try (JsonGenerator gen = JsonUtil.getProvider().createGenerator(new NonClosingOutputStream(out))) {
+            gen.writeStartObject();
+            gen.write("displayTimeUnit", "ms");
+            if (droppedEventCount > 0) {
+                gen.writeStartObject("otherData");
+                gen.write("droppedEvents", droppedEventCount);
+                gen.writeEnd();
+            }
+            gen.writeStartArray("traceEvents");
+            for (Map.Entry<Long, String> e : threadNames.entrySet()) {
+                gen.writeStartObject();
+                gen.write("name", "thread_name");
+                gen.write("ph", "M");
+                gen.write("pid", pid);
+                gen.write("tid", e.getKey());
+                gen.writeStartObject("args");
+                gen.write("name", e.getValue());
+                gen.writeEnd();
+                gen.writeEnd();
+            }
+            for (TraceEvent event : events) {
+                gen.writeStartObject();
+                gen.write("name", event.name());
+                gen.write("cat", event.category());
+                gen.write("ph", String.valueOf(event.phase()));
+                gen.write("ts", event.timestamp());
+                if (event.phase() == 'X') {
+                    gen.write("dur", event.duration());
+                } else if (event.phase() == 'i') {
+                    gen.write("s", "g");
+                }
+                gen.write("pid", pid);
+                gen.write("tid", event.threadId());
+                if (event.id() != null) {
+                    gen.write("id", event.id());
+                }
+                if (event.args() != null && !event.args().isEmpty()) {
+                    gen.writeStartObject("args");
+                    for (Map.Entry<String, Object> arg : event.args().entrySet()) {
+                        if (arg.getValue() instanceof Number n) {
+                            gen.write(arg.getKey(), n.longValue());
+                        } else {
+                            gen.write(arg.getKey(), String.valueOf(arg.getValue()));
+                        }
+                    }
+                    gen.writeEnd();
+                }
+                gen.writeEnd();
+            }
+            gen.writeEnd();
+            gen.writeEnd();
+        } catch (JsonException e) {
+            throw new IOException("Unable to write execution trace: " + e.getMessage(), e);
+        }
+        LOGGER.debugWithFormat("Wrote execution trace with %d events", events.size());
+    }
+
+    /** Keeps the JSON generator from closing the argument stream. */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+}
@@ -3524,7 +3524,7 @@ void doBeforeExecution(final NodeContainer nc) {
      */
     private void pushFlowContextForLoopIteration(final NativeNodeContainer startNNC) {
         Node node = startNNC.getNode();
-        assert node.getNodeModel() instanceof LoopStartNode : "Must be a loop start node: " + startNNC.getNameWithID();
+        assert node.isModelCompatibleTo(LoopStartNode.class) : "Must be a loop start node: " + startNNC.getNameWithID();
         FlowObjectStack outStack = node.getOutgoingFlowObjectStack();
         InnerFlowLoopExecuteMarker innerExecMarker = new InnerFlowLoopExecuteMarker();
         outStack.push(innerExecMarker);
@@ -3575,7 +3575,7 @@ void doAfterExecution(final NodeContainer nc, final NodeContainerExecutionStatus
                 if (success) {
                     Node node = nnc.getNode();
                     // process start of bundle of parallel chunks
-                    if (node.getNodeModel() instanceof LoopStartParallelizeNode && !node.isInactive()) {
+                    if (node.isModelCompatibleTo(LoopStartParallelizeNode.class) && !node.isInactive()) {
                         try {
                             parallelizeLoop(nc.getID());
                         } catch (Exception e) {
@@ -5400,7 +5400,7 @@ private void resetAndConfigureAffectedLoopContext(final LinkedHashMap<NodeID, Se
             .map(this::getNodeContainer) //
             .filter(NativeNodeContainer.class::isInstance)//
             .map(NativeNodeContainer.class::cast) //
-            .filter(node -> node.getNodeModel() instanceof LoopEndNode) //
+            .filter(node -> node.isModelCompatibleTo(LoopEndNode.class)) //
             .map(loopEnd -> {
                 try {
                     return m_workflow.getMatchingLoopStart(loopEnd.getID());
@@ -243,9 +243,12 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                         inObjects[i] = InactiveBranchPortObject.INSTANCE;
                     } else if (BufferedDataTable.TYPE.equals(inPortType)) {
                         BufferedDataContainer container = exec.createDataContainer((DataTableSpec)inSpecs[i]);
-                        DataRow r;
-                        while ((r = ((RowInput)inputs[i]).poll()) != null) {
-                            container.addRowToTable(r);
+                        final DataRow[] rows = new DataRow[256];
+                        int count;
+                        while ((count = ((RowInput)inputs[i]).poll(rows)) > 0) {
+                            for (int j = 0; j < count; j++) {
+                                container.addRowToTable(rows[j]);
+                            }
                         }
                         container.close();
                         inObjects[i] = container.getTable();
@@ -63,6 +63,7 @@
 import java.util.PriorityQueue;
 import java.util.Set;
 
+import org.knime.core.data.RowKey;
 import org.knime.core.node.KNIMEConstants;
 
 /**
@@ -71,6 +72,9 @@
  * key an exception is thrown. If the set gets bigger than the maximum chunk size it is written to disk and the set is
  * cleared. If then after adding all keys {@link #checkForDuplicates()} is called all created chunks are processed and
  * sorted by a merge sort like algorithm. If any duplicate keys are detected during this process an exception is thrown.
+ * <p>
+ * Generated row keys (see {@link RowKey#createRowKey(long)}) that are added in ascending order are not stored as
+ * strings but as ranges of their indices, so that the common case of consecutive keys needs constant memory.
  *
  * @author Thorsten Meinl, University of Konstanz
  */
@@ -188,6 +192,18 @@ public boolean dispose() {
 
     private List<Chunk> m_storedChunks = new ArrayList<Chunk>();
 
+    /** Sorted, disjoint ranges [start, end] of the indices of the generated keys added in ascending order. */
+    private long[] m_rangeStarts = new long[4];
+
+    private long[] m_rangeEnds = new long[4];
+
+    private int m_numRanges;
+
+    /** Whether the number of ranges reached the chunk size; later keys are then handled as strings, which are spilled
+     * to disc, and the ranges are only used for lookups. Never extending the ranges again keeps them disjoint from all
+     * string keys. */
+    private boolean m_rangesClosed;
+
     private static final boolean DISABLE_DUPLICATE_CHECK =
         Boolean.getBoolean(KNIMEConstants.PROPERTY_DISABLE_ROWID_DUPLICATE_CHECK);
 
@@ -249,9 +265,72 @@ public DuplicateChecker(final int maxChunkSize, final int maxStreams) {
      * @throws IOException if an I/O error occurs while writing the chunk to disk
      */
     public synchronized void addKey(final String s) throws DuplicateKeyException, IOException {
+        addKey(new RowKey(s));
+    }
+
+    /**
+     * Adds a new row key to the duplicate checker. Generated keys are checked without creating their string
+     * representation if added in ascending order.
+     *
+     * @param key the key
+     * @throws DuplicateKeyException if a duplicate within the current chunk has been detected
+     * @throws IOException if an I/O error occurs while writing the chunk to disk
+     * @since 5.3
+     */
+    public synchronized void addKey(final RowKey key) throws DuplicateKeyException, IOException {
         if (DISABLE_DUPLICATE_CHECK) {
             return;
         }
+        if (key.isGeneratedKey()) {
+            final long index = key.getGeneratedIndex();
+            if (m_numRanges == 0 || index > m_rangeEnds[m_numRanges - 1]) {
+                if (appendToRanges(index)) {
+                    return;
+                }
+                // too many ranges, kept as string below; larger than all indices in the ranges
+            } else if (isInRanges(index)) {
+                throw new DuplicateKeyException(key.getString());
+            }
+            // otherwise out of order, kept as string below; all keys added to the ranges later on have larger indices
+        }
+        addStringKey(key.getString());
+    }
+
+    /** @return false if the ranges are closed because their number reached the chunk size */
+    private boolean appendToRanges(final long index) {
+        if (m_rangesClosed) {
+            return false;
+        }
+        if (m_numRanges > 0 && index == m_rangeEnds[m_numRanges - 1] + 1) {
+            m_rangeEnds[m_numRanges - 1] = index;
+            return true;
+        }
+        if (m_numRanges >= m_maxChunkSize) {
+            // e.g. ascending keys with gaps, one range per key; bound the memory like the string chunks
+            m_rangesClosed = true;
+            return false;
+        }
+        if (m_numRanges == m_rangeStarts.length) {
+            final int capacity = Math.min(2 * m_numRanges, m_maxChunkSize);
+            m_rangeStarts = Arrays.copyOf(m_rangeStarts, capacity);
+            m_rangeEnds = Arrays.copyOf(m_rangeEnds, capacity);
+        }
+        m_rangeStarts[m_numRanges] = index;
+        m_rangeEnds[m_numRanges] = index;
+        m_numRanges++;
+        return true;
+    }
+
+    private boolean isInRanges(final long index) {
+        final int pos = Arrays.binarySearch(m_rangeStarts, 0, m_numRanges, index);
+        if (pos >= 0) {
+            return true;
+        }
+        final int previous = -(pos + 1) - 1;
+        return previous >= 0 && index <= m_rangeEnds[previous];
+    }
+
+    private void addStringKey(final String s) throws DuplicateKeyException, IOException {
         // bug fix #1737: keys may be just wrappers of very large strings ...
         // we make a copy, which consist of the important characters only
         if (!m_currentChunk.add(new String(s))) {
@@ -304,6 +383,8 @@ public synchronized void clear() {
         }
         m_storedChunks.clear();
         m_currentChunk.clear();
+        m_numRanges = 0;
+        m_rangesClosed = false;
     }
 
     /**
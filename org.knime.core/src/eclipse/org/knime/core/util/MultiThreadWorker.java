@@ -65,7 +65,10 @@
  * <p>The worker threads being used can be either from the global
  * {@link KNIMEConstants#GLOBAL_THREAD_POOL KNIME threadpool} or any
  * {@link Executor}, which is set using the {@link #setExecutor(Executor)}
- * method.
+ * method. When using the global thread pool the number of simultaneously
+ * running computations is further limited to the fair share of the
+ * {@link ThreadBudget#global() global thread budget}, which is shared with
+ * all other instances running at the same time (e.g. in other nodes).
  *
  * <p>The generated output needs to be processed in the (abstract)
  * {@link #processFinished(ComputationTask)} method, whereby this method is
@@ -126,6 +129,9 @@
     /** Whether {@link #cancel(boolean)} has been called. */
     private volatile boolean m_isCanceled;
 
+    /** Notified whenever a task finishes, used to wait for the thread budget. */
+    private final Object m_budgetMonitor = new Object();
+
     /** Creates new worker with a bounded finished job queue and a maximum
      * number of active jobs.
      * @param maxQueueSize Maximum queue size of finished jobs (finished
@@ -241,9 +247,15 @@ private void innerRun(final Iterable<In> inputIterable)
         }
         m_mainThread = Thread.currentThread();
         final Executor executor = m_executor;
+        // only tasks in the global pool compete with other nodes, a custom executor bounds itself
+        final ThreadBudget.Lease budgetLease =
+            executor == null ? ThreadBudget.global().acquire(m_maxActiveInstanceSize) : null;
         try {
             for (In in : inputIterable) {
                 m_maxActiveInstanceSemaphore.acquire();
+                if (budgetLease != null) {
+                    waitForBudget(budgetLease);
+                }
                 m_maxQueueSemaphore.acquire();
                 m_exceptionReference.checkExceptionInMainThread();
                 if (m_isCanceled) {
@@ -270,6 +282,9 @@ private void innerRun(final Iterable<In> inputIterable)
             innerCancel(true);
             m_isCanceled = true;
         } finally {
+            if (budgetLease != null) {
+                budgetLease.close();
+            }
             // reset interrupted flag that was set when an exception has
             // occurred in callProcessFinished
             Thread.interrupted();
@@ -280,6 +295,19 @@ private void innerRun(final Iterable<In> inputIterable)
         }
     }
 
+    /** Blocks while more tasks are active than the current share of the global thread budget allows. The share is
+     * re-read periodically as it grows when other consumers finish.
+     * @param lease the lease of this instance
+     * @throws InterruptedException If interrupted while waiting */
+    private void waitForBudget(final ThreadBudget.Lease lease) throws InterruptedException {
+        synchronized (m_budgetMonitor) {
+            // the permit of the task to be submitted is already counted in getActiveCount()
+            while (getActiveCount() > lease.getWorkerCount() && !m_isCanceled) {
+                m_budgetMonitor.wait(100);
+            }
+        }
+    }
+
     /** @param executor the executor to set (null is the default -- it will
      * then use the global {@link KNIMEConstants#GLOBAL_THREAD_POOL
      * KNIME thread pool}. */
@@ -352,6 +380,9 @@ private void callProcessFinished(final ComputationTask task) {
             }
         } finally {
             m_maxActiveInstanceSemaphore.release();
+            synchronized (m_budgetMonitor) {
+                m_budgetMonitor.notifyAll();
+            }
         }
     }
 
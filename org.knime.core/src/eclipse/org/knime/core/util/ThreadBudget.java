@@ -0,0 +1,140 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.core.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Distributes a fixed number of worker threads among all currently active consumers that parallelize internally
+ * (such as {@link MultiThreadWorker} instances of concurrently executing nodes). Each consumer obtains a
+ * {@link Lease} and queries {@link Lease#getWorkerCount()} whenever it is about to start another worker; the value
+ * shrinks as more consumers become active and grows again when they {@link Lease#close() release} their lease, so
+ * that nodes running in parallel do not each assume that they can use the whole machine.
+ *
+ * <p>
+ * The budget is a fair share only: a consumer always gets at least one worker and never more than it requested.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 5.3
+ */
+public final class ThreadBudget {
+
+    /** The budget backed by the size of the {@link KNIMEConstants#GLOBAL_THREAD_POOL global thread pool}. */
+    private static final ThreadBudget GLOBAL = new ThreadBudget(KNIMEConstants.GLOBAL_THREAD_POOL::getMaxThreads);
+
+    private final IntSupplier m_totalThreads;
+
+    private final AtomicInteger m_activeLeases = new AtomicInteger();
+
+    /**
+     * Creates a new budget.
+     *
+     * @param totalThreads supplies the number of threads to be distributed, queried on each
+     *            {@link Lease#getWorkerCount()} so that changes (e.g. via preferences) are honored
+     */
+    public ThreadBudget(final IntSupplier totalThreads) {
+        m_totalThreads = CheckUtils.checkArgumentNotNull(totalThreads);
+    }
+
+    /** @return the budget shared by all users of the {@link KNIMEConstants#GLOBAL_THREAD_POOL}. */
+    public static ThreadBudget global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registers a new consumer.
+     *
+     * @param requestedWorkers the maximum number of workers the consumer would like to use, must be &gt; 0
+     * @return a new lease, to be closed when the consumer has finished
+     */
+    public Lease acquire(final int requestedWorkers) {
+        CheckUtils.checkArgument(requestedWorkers > 0, "Requested worker count must be > 0: %d", requestedWorkers);
+        m_activeLeases.incrementAndGet();
+        return new Lease(requestedWorkers);
+    }
+
+    /** @return the number of leases currently not closed. */
+    public int getActiveLeaseCount() {
+        return m_activeLeases.get();
+    }
+
+    /** The share of a single consumer. */
+    public final class Lease implements AutoCloseable {
+
+        private final int m_requestedWorkers;
+
+        private boolean m_isClosed;
+
+        private Lease(final int requestedWorkers) {
+            m_requestedWorkers = requestedWorkers;
+        }
+
+        /**
+         * @return the number of workers this consumer may currently use, between 1 and the requested count. The
+         *         value changes when other consumers acquire or release their lease.
+         */
+        public int getWorkerCount() {
+            final int consumers = Math.max(1, m_activeLeases.get());
+            final int total = Math.max(1, m_totalThreads.getAsInt());
+            final int share = (total + consumers - 1) / consumers;
+            return Math.max(1, Math.min(m_requestedWorkers, share));
+        }
+
+        /** Releases this lease, the share of the remaining consumers grows accordingly. Idempotent. */
+        @Override
+        public synchronized void close() {
+            if (!m_isClosed) {
+                m_isClosed = true;
+                m_activeLeases.decrementAndGet();
+            }
+        }
+    }
+
+}